@@ -0,0 +1,186 @@
+package animation;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class describes a looping passive animation as data.
+ * A clip is a sequence of frames, each displayed until a set time within the period of the clip.
+ * Each world position may start the clip at a different time (its phase offset); offsets repeat over a square pattern
+ * of tiles.
+ * Since a clip is only data, the frame to display at any time can be evaluated anywhere (e.g., in a shader given only
+ * the elapsed time), with no per-frame state to step.
+ */
+public class AnimationClip {
+
+    // FIELDS
+    /**
+     * Number of tiles along each side of the pattern over which phase offsets repeat.
+     */
+    public static final int PATTERN_SIZE = 10;
+
+    /**
+     * Duration of one loop of this clip (seconds).
+     */
+    private final double period;
+
+    /**
+     * Time within the period (seconds) until which each segment of this clip is displayed, in ascending order.
+     * Only the first `numSegments` entries are in use.
+     */
+    private double[] segmentEnds = new double[4];
+
+    /**
+     * Frame displayed during each segment of this clip.
+     * Each entry corresponds to the segment at the same index in `segmentEnds`.
+     */
+    private int[] segmentFrames = new int[4];
+
+    /**
+     * Number of segments in this clip.
+     */
+    private int numSegments;
+
+    /**
+     * Time (seconds) at which this clip starts for each column and row within the repeating pattern, or null if this
+     * clip starts at the same time everywhere.
+     */
+    private final double[][] phaseOffsets;
+
+
+    // CONSTRUCTORS
+    /**
+     * Constructs an AnimationClip instance that starts at the same time at every world position.
+     *
+     * @param period duration of one loop (seconds)
+     * @throws IllegalArgumentException if the specified period is zero or negative
+     */
+    public AnimationClip(double period) {
+        this(period, null);
+    }
+
+
+    /**
+     * Constructs an AnimationClip instance.
+     *
+     * @param period duration of one loop (seconds)
+     * @param phaseOffsets start time (seconds) for each column and row within the repeating pattern, indexed by column
+     *                     then row, or null to start at the same time everywhere
+     * @throws IllegalArgumentException if the specified period is zero or negative, or the specified phase offsets do
+     * not cover the repeating pattern
+     */
+    public AnimationClip(double period, double[][] phaseOffsets) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Illegal animation clip period: " + period);
+        }
+        if ((phaseOffsets != null)
+                && ((phaseOffsets.length != PATTERN_SIZE) || (phaseOffsets[0].length != PATTERN_SIZE))) {
+            throw new IllegalArgumentException("Phase offsets must cover a " + PATTERN_SIZE + "x" + PATTERN_SIZE
+                    + " pattern");
+        }
+        this.period = period;
+        this.phaseOffsets = phaseOffsets;
+    }
+
+
+    // METHODS
+    /**
+     * Appends a segment to this clip.
+     * Segments must be added in ascending order of end time.
+     *
+     * @param endTime time within the period (seconds) until which the frame is displayed
+     * @param frame frame to display
+     * @return this clip
+     * @throws IllegalArgumentException if the specified end time is not after the end time of the previous segment
+     */
+    public AnimationClip addSegment(double endTime, int frame) {
+
+        if ((numSegments > 0) && (endTime <= segmentEnds[numSegments - 1])) {
+            throw new IllegalArgumentException("Animation clip segments must be added in ascending order of end time");
+        }
+        if (numSegments == segmentEnds.length) {
+            segmentEnds = Arrays.copyOf(segmentEnds, numSegments * 2);
+            segmentFrames = Arrays.copyOf(segmentFrames, numSegments * 2);
+        }
+        segmentEnds[numSegments] = endTime;
+        segmentFrames[numSegments] = frame;
+        numSegments++;
+        return this;
+    }
+
+
+    /**
+     * Evaluates the frame of this clip to display.
+     *
+     * @param time elapsed time (seconds)
+     * @param worldCol world column position
+     * @param worldRow world row position
+     * @return frame to display
+     */
+    public int getFrame(double time, int worldCol, int worldRow) {
+
+        double t = (time - getPhaseOffset(worldCol, worldRow)) % period;
+
+        if (t < 0) {
+            t += period;
+        }
+
+        for (int i = 0; i < numSegments; i++) {
+            if (t <= segmentEnds[i]) {
+                return segmentFrames[i];
+            }
+        }
+        return (numSegments == 0) ? 0 : segmentFrames[numSegments - 1];
+    }
+
+
+    /**
+     * Retrieves the time at which this clip starts at a world position.
+     *
+     * @param worldCol world column position
+     * @param worldRow world row position
+     * @return phase offset (seconds)
+     */
+    public double getPhaseOffset(int worldCol, int worldRow) {
+
+        if (phaseOffsets == null) {
+
+            return 0;
+        }
+        return phaseOffsets[Math.floorMod(worldCol, PATTERN_SIZE)][Math.floorMod(worldRow, PATTERN_SIZE)];
+    }
+
+
+    /**
+     * Retrieves the end time of a segment of this clip.
+     *
+     * @param segment segment index
+     * @return time within the period (seconds) until which the segment is displayed
+     */
+    public double getSegmentEnd(int segment) {
+
+        return segmentEnds[Objects.checkIndex(segment, numSegments)];
+    }
+
+
+    /**
+     * Retrieves the frame displayed during a segment of this clip.
+     *
+     * @param segment segment index
+     * @return frame
+     */
+    public int getSegmentFrame(int segment) {
+
+        return segmentFrames[Objects.checkIndex(segment, numSegments)];
+    }
+
+
+    // GETTERS
+    public double getPeriod() {
+        return period;
+    }
+
+    public int getNumSegments() {
+        return numSegments;
+    }
+}
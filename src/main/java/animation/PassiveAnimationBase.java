@@ -2,19 +2,21 @@ package animation;
 
 /**
  * This abstract class defines base logic for continuous animation.
+ * Each passive animation is described by a looping animation clip, so that the sprite to render at any time can be
+ * evaluated from the elapsed time alone.
  */
 public abstract class PassiveAnimationBase {
     
     // FIELDS
     /**
-     * Core time counter (seconds) for controlling animation.
+     * Duration of one loop of the animation (seconds).
      */
-    protected double counter;
+    protected double counterMax;
 
     /**
-     * Maximum allowed value for core animation time counter (seconds).
+     * Clip describing this animation, or null if not yet created.
      */
-    protected double counterMax;
+    private AnimationClip clip;
 
 
     // CONSTRUCTOR
@@ -22,7 +24,7 @@ public abstract class PassiveAnimationBase {
      * Constructs an Animation instance.
      * This class handles passive animations.
      *
-     * @param counterMax maximum allowed value for core passive animation time counter (seconds).
+     * @param counterMax duration of one loop of the passive animation (seconds)
      */
     public PassiveAnimationBase(double counterMax) {
 
@@ -32,28 +34,25 @@ public abstract class PassiveAnimationBase {
 
     // METHODS
     /**
-     * Updates the animation counter, the value of which is used to determine the next image to be rendered for the
-     * passive animation.
+     * Retrieves the clip describing this animation.
+     * The clip is created the first time it is retrieved.
      *
-     * @param dt time since last frame (seconds)
+     * @return animation clip
      */
-    public void update(double dt) {
-
-        counter += dt;
+    public AnimationClip getClip() {
 
-        while (counter >= counterMax) {
+        if (clip == null) {
 
-            counter -= counterMax;
+            clip = createClip();
         }
+        return clip;
     }
 
 
     /**
-     * Retrieves the next sprite to be rendered for the passive animation.
+     * Creates the clip describing this animation.
      *
-     * @param worldCol world column position of tile
-     * @param worldRow world row position of tile
-     * @return index of the next sprite to be rendered
+     * @return animation clip
      */
-    public abstract int getSprite(int worldCol, int worldRow);
+    protected abstract AnimationClip createClip();
 }
@@ -4,9 +4,28 @@ import animation.implementation.*;
 
 /**
  * This class handles the passive animation of overworld elements that have multiple sprites attached to them.
+ * Each passive animation group is described by an animation clip; the only state advanced each frame is the elapsed
+ * time, from which the sprite of any group at any world position can be evaluated (on the CPU or in a shader).
  */
 public class PassiveAnimationManager {
 
+    // FIELDS
+    /**
+     * Number of passive animation groups (groups are numbered from zero).
+     */
+    public static final int NUM_GROUPS = 6;
+
+    /**
+     * Time elapsed since passive animations started (seconds).
+     */
+    private double time;
+
+    /**
+     * Array of animation clips, indexed by passive animation group.
+     */
+    private final AnimationClip[] clips;
+
+
     // ANIMATION FIELDS
     /**
      * Sparkle passive animation group.
@@ -51,6 +70,14 @@ public class PassiveAnimationManager {
         anm_lilypad = new Anm_Lilypad(10);
         anm_stream = new Anm_Stream(0.2);
         anm_blink = new Anm_Blink(4.0, 0.20, 0.2);
+        clips = new AnimationClip[] {
+                anm_sparkle.getClip(),                                                                                  // Group 0.
+                anm_waterfall.getClip(),                                                                                // Group 1.
+                anm_foam.getClip(),                                                                                     // Group 2.
+                anm_lilypad.getClip(),                                                                                  // Group 3.
+                anm_stream.getClip(),                                                                                   // Group 4.
+                anm_blink.getClip()                                                                                     // Group 5.
+        };
     }
 
 
@@ -62,17 +89,12 @@ public class PassiveAnimationManager {
      */
     public void update(double dt) {
 
-        anm_sparkle.update(dt);
-        anm_waterfall.update(dt);
-        anm_foam.update(dt);
-        anm_lilypad.update(dt);
-        anm_stream.update(dt);
-        anm_blink.update(dt);
+        time += dt;
     }
 
 
     /**
-     * Calls passive animation logic for the inputted passive animation group to determine which sprite in an animation
+     * Evaluates the animation clip of the inputted passive animation group to determine which sprite in an animation
      * sequence should be rendered next.
      *
      * @param group passive animation group to be checked
@@ -82,21 +104,28 @@ public class PassiveAnimationManager {
      */
     public int getSprite(int group, int worldCol, int worldRow) {
 
-        switch (group) {
-            case 0:
-                return anm_sparkle.getSprite(worldCol, worldRow);
-            case 1:
-                return anm_waterfall.getSprite(worldCol, worldRow);
-            case 2:
-                return anm_foam.getSprite(worldCol, worldRow);
-            case 3:
-                return anm_lilypad.getSprite(worldCol, worldRow);
-            case 4:
-                return anm_stream.getSprite(worldCol, worldRow);
-            case 5:
-                return anm_blink.getSprite(worldCol, worldRow);
-            default:
-                return 0;
+        if ((group < 0) || (group >= clips.length)) {
+
+            return 0;
         }
+        return clips[group].getFrame(time, worldCol, worldRow);
+    }
+
+
+    /**
+     * Retrieves the animation clip of a passive animation group.
+     *
+     * @param group passive animation group
+     * @return animation clip
+     */
+    public AnimationClip getClip(int group) {
+
+        return clips[group];
+    }
+
+
+    // GETTER
+    public double getTime() {
+        return time;
     }
 }
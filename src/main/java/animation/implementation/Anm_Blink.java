@@ -1,5 +1,6 @@
 package animation.implementation;
 
+import animation.AnimationClip;
 import animation.PassiveAnimationBase;
 import utility.UtilityTool;
 
@@ -46,48 +47,22 @@ public class Anm_Blink extends PassiveAnimationBase {
 
     // METHODS
     @Override
-    public int getSprite(int worldCol, int worldRow) {
-
-        int moduloCol = worldCol % 10;
-        int moduloRow = worldRow % 10;
-        double difference;
-
-        if (counter < baseTiles[moduloCol][moduloRow]) {
-
-            difference = (counterMax - baseTiles[moduloCol][moduloRow]) + counter;
-        } else {
-
-            difference = counter - baseTiles[moduloCol][moduloRow];
-        }
-
-        if (difference > 0) {
-
-            if (difference <= closeOpenDuration * 0.33) {
-                return 1;
-
-            } else if (difference <= closeOpenDuration * 0.66) {
-                return 2;
-
-            } else if (difference <= closeOpenDuration * 0.99) {
-                return 3;
-
-            } else if (difference <= closeOpenDuration + fullyClosedDuration) {
-                return 4;
-
-            } else if (difference <= (closeOpenDuration * 1.33) + fullyClosedDuration) {
-                return 3;
-
-            } else if (difference <= (closeOpenDuration * 1.66) + fullyClosedDuration) {
-                return 2;
-
-            } else if (difference <= (closeOpenDuration * 1.99) + fullyClosedDuration) {
-                return 1;
-
-            } else {
-                return 0;
-            }
+    protected AnimationClip createClip() {
+
+        double blinkEnd = (closeOpenDuration * 1.99) + fullyClosedDuration;
+        AnimationClip clip = new AnimationClip(counterMax, baseTiles)
+                .addSegment(closeOpenDuration * 0.33, 1)
+                .addSegment(closeOpenDuration * 0.66, 2)
+                .addSegment(closeOpenDuration * 0.99, 3)
+                .addSegment(closeOpenDuration + fullyClosedDuration, 4)
+                .addSegment((closeOpenDuration * 1.33) + fullyClosedDuration, 3)
+                .addSegment((closeOpenDuration * 1.66) + fullyClosedDuration, 2)
+                .addSegment(blinkEnd, 1);
+
+        if (blinkEnd < counterMax) {                                                                                    // Blink may fill (or overrun) the entire loop, leaving no time fully open.
+            clip.addSegment(counterMax, 0);
         }
-        return 0;
+        return clip;
     }
 
 
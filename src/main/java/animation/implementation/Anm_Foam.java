@@ -1,5 +1,6 @@
 package animation.implementation;
 
+import animation.AnimationClip;
 import animation.PassiveAnimationBase;
 
 /**
@@ -26,20 +27,13 @@ public class Anm_Foam extends PassiveAnimationBase {
 
     // METHOD
     @Override
-    public int getSprite(int worldCol, int worldRow) {
+    protected AnimationClip createClip() {
 
-        if (counter <= unit) {
-            return 0;
+        AnimationClip clip = new AnimationClip(counterMax);
 
-        } else if (counter <= (unit * 2)) {
-            return 1;
-
-        }else if (counter <= (unit * 3)) {
-            return 2;
-
-        }else if (counter <= (unit * 4)) {
-            return 3;
+        for (int frame = 0; frame < 4; frame++) {
+            clip.addSegment(unit * (frame + 1), frame);
         }
-        return 0;
+        return clip;
     }
 }
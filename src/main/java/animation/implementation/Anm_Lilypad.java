@@ -1,5 +1,6 @@
 package animation.implementation;
 
+import animation.AnimationClip;
 import animation.PassiveAnimationBase;
 
 /**
@@ -26,36 +27,13 @@ public class Anm_Lilypad extends PassiveAnimationBase {
 
     // METHODS
     @Override
-    public int getSprite(int worldCol, int worldRow) {
+    protected AnimationClip createClip() {
 
-        int moduloCol = worldCol % 10;
-        int moduloRow = worldRow % 10;
-        double difference;
-
-        if (counter < baseTiles[moduloCol][moduloRow]) {
-
-            difference = (counterMax - baseTiles[moduloCol][moduloRow]) + counter;
-        } else {
-
-            difference = counter - baseTiles[moduloCol][moduloRow];
-        }
-
-         if (difference > 0) {
-
-            if (difference <= counterMax * 0.015) {
-                return 1;
-
-            } else if (difference <= counterMax * 0.5) {
-                return 2;
-
-            } else if (difference <= counterMax * 0.515) {
-                return 1;
-
-            } else {
-                return 0;
-            }
-        }
-        return 0;
+        return new AnimationClip(counterMax, baseTiles)
+                .addSegment(counterMax * 0.015, 1)
+                .addSegment(counterMax * 0.5, 2)
+                .addSegment(counterMax * 0.515, 1)
+                .addSegment(counterMax, 0);
     }
 
 
@@ -1,5 +1,6 @@
 package animation.implementation;
 
+import animation.AnimationClip;
 import animation.PassiveAnimationBase;
 import utility.UtilityTool;
 
@@ -46,42 +47,20 @@ public class Anm_Sparkle extends PassiveAnimationBase {
 
     // METHODS
     @Override
-    public int getSprite(int worldCol, int worldRow) {
-
-        int moduloCol = worldCol % 10;
-        int moduloRow = worldRow % 10;
-        double difference;
-
-        if (counter < baseTiles[moduloCol][moduloRow]) {
-
-            difference = (counterMax - baseTiles[moduloCol][moduloRow]) + counter;
-        } else {
-
-            difference = counter - baseTiles[moduloCol][moduloRow];
-        }
-
-        if (difference > 0) {
-
-            if (difference <= fadeInOutDuration * 0.5) {
-                return 2;
-
-            } else if (difference <= fadeInOutDuration) {
-                return 1;
-
-            } else if (difference <= fadeInOutDuration + fullVisibleDuration) {
-                return 0;
-
-            } else if (difference <= (fadeInOutDuration * 1.5) + fullVisibleDuration) {
-                return 1;
-
-            } else if (difference <= (fadeInOutDuration * 2) + fullVisibleDuration) {
-                return 2;
-
-            } else {
-                return 3;
-            }
+    protected AnimationClip createClip() {
+
+        double sparkleEnd = (fadeInOutDuration * 2) + fullVisibleDuration;
+        AnimationClip clip = new AnimationClip(counterMax, baseTiles)
+                .addSegment(fadeInOutDuration * 0.5, 2)
+                .addSegment(fadeInOutDuration, 1)
+                .addSegment(fadeInOutDuration + fullVisibleDuration, 0)
+                .addSegment((fadeInOutDuration * 1.5) + fullVisibleDuration, 1)
+                .addSegment(sparkleEnd, 2);
+
+        if (sparkleEnd < counterMax) {                                                                                  // Sparkle may fill (or overrun) the entire loop, leaving no hidden time.
+            clip.addSegment(counterMax, 3);
         }
-        return 3;
+        return clip;
     }
 
 
@@ -1,5 +1,6 @@
 package animation.implementation;
 
+import animation.AnimationClip;
 import animation.PassiveAnimationBase;
 
 /**
@@ -26,14 +27,10 @@ public class Anm_Stream extends PassiveAnimationBase {
 
     // METHOD
     @Override
-    public int getSprite(int worldCol, int worldRow) {
+    protected AnimationClip createClip() {
 
-        if (counter <= unit) {
-            return 0;
-
-        } else if (counter <= counterMax) {
-            return 1;
-        }
-        return 0;
+        return new AnimationClip(counterMax)
+                .addSegment(unit, 0)
+                .addSegment(counterMax, 1);
     }
 }
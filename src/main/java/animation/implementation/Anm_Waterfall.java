@@ -1,5 +1,6 @@
 package animation.implementation;
 
+import animation.AnimationClip;
 import animation.PassiveAnimationBase;
 
 /**
@@ -26,71 +27,13 @@ public class Anm_Waterfall extends PassiveAnimationBase {
 
     // METHOD
     @Override
-    public int getSprite(int worldCol, int worldRow) {
+    protected AnimationClip createClip() {
 
-        if (counter <= unit) {
-            return 0;
+        AnimationClip clip = new AnimationClip(counterMax);
 
-        } else if (counter <= (unit * 2)) {
-            return 1;
-
-        } else if (counter <= (unit * 3)) {
-            return 2;
-
-        } else if (counter <= (unit * 4)) {
-            return 3;
-
-        } else if (counter <= (unit * 5)) {
-            return 4;
-
-        } else if (counter <= (unit * 6)) {
-            return 5;
-
-        } else if (counter <= (unit * 7)) {
-            return 6;
-
-        } else if (counter <= (unit * 8)) {
-            return 7;
-
-        } else if (counter <= (unit * 9)) {
-            return 8;
-
-        } else if (counter <= (unit * 10)) {
-            return 9;
-
-        } else if (counter <= (unit * 11)) {
-            return 10;
-
-        } else if (counter <= (unit * 12)) {
-            return 11;
-
-        } else if (counter <= (unit * 13)) {
-            return 12;
-
-        } else if (counter <= (unit * 14)) {
-            return 13;
-
-        } else if (counter <= (unit * 15)) {
-            return 14;
-
-        } else if (counter <= (unit * 16)) {
-            return 15;
-
-        } else if (counter <= (unit * 17)) {
-            return 16;
-
-        } else if (counter <= (unit * 18)) {
-            return 17;
-
-        } else if (counter <= (unit * 19)) {
-            return 18;
-
-        } else if (counter <= (unit * 20)) {
-            return 19;
-
-        } else if (counter <= (unit * 21)) {
-            return 20;
+        for (int frame = 0; frame < 21; frame++) {
+            clip.addSegment(unit * (frame + 1), frame);
         }
-        return 0;
+        return clip;
     }
 }
@@ -38,6 +38,27 @@ public class AssetPool {
      */
     private static final HashMap<String, Illustration> ILLUSTRATIONS = new HashMap<>();
 
+    /**
+     * Atlas onto which textures are packed when loaded, or null if textures are loaded standalone.
+     */
+    private static TextureAtlas atlas;
+
+    /**
+     * Atlas onto which indexed textures are packed when loaded, or null if indexed textures are loaded standalone.
+     */
+    private static TextureAtlas indexedAtlas;
+
+    /**
+     * Whether textures are loaded from an indexed image file (see IndexedImage) in place of their PNG file, where one
+     * exists.
+     */
+    private static boolean indexedEnabled;
+
+    /**
+     * Table storing the palettes of all loaded indexed textures, or null if not yet created.
+     */
+    private static PaletteTable paletteTable;
+
 
     // METHODS
     /**
@@ -61,9 +82,65 @@ public class AssetPool {
     }
 
 
+    /**
+     * Sets whether textures loaded from this point on are packed onto a shared texture atlas.
+     * Textures packed onto the same atlas page can be drawn in a single batch, regardless of how many different
+     * textures are drawn, since a batch only binds each atlas page once.
+     * Textures already loaded are unaffected.
+     *
+     * @param enabled whether to pack textures onto an atlas
+     */
+    public static void setAtlasEnabled(boolean enabled) {
+
+        if (enabled && (atlas == null)) {
+
+            atlas = new TextureAtlas(false);
+            indexedAtlas = new TextureAtlas(true);
+        } else if (!enabled) {
+
+            atlas = null;                                                                                               // Regions already packed keep their pages alive.
+            indexedAtlas = null;
+        }
+    }
+
+
+    /**
+     * Sets whether textures loaded from this point on are loaded from an indexed image file (one byte per pixel plus a
+     * palette; see IndexedImage) in place of their PNG file, where one exists alongside it.
+     * Indexed image files are produced ahead of time from PNG files by IndexedImageConverter.
+     * Textures already loaded are unaffected.
+     *
+     * @param enabled whether to prefer indexed image files
+     */
+    public static void setIndexedEnabled(boolean enabled) {
+
+        indexedEnabled = enabled;
+    }
+
+
+    /**
+     * Returns the table storing the palettes of all loaded indexed textures.
+     * The table is created on the GPU the first time it is requested.
+     *
+     * @return palette table
+     */
+    public static PaletteTable getPaletteTable() {
+
+        if (paletteTable == null) {
+
+            paletteTable = new PaletteTable();
+        }
+        return paletteTable;
+    }
+
+
     /**
      * Returns a texture loaded into memory.
      * If the specified texture is not yet loaded, it will first be loaded from file and then returned.
+     * If atlas packing is enabled, the texture is returned as a region of an atlas page unless it is too large to be
+     * packed, in which case it is loaded standalone.
+     * If indexed textures are enabled and an indexed image file exists alongside the specified PNG file, the indexed
+     * image file is loaded instead.
      *
      * @param resourceFilePath file path of texture from resources directory
      * @return texture
@@ -75,7 +152,30 @@ public class AssetPool {
             return TEXTURES.get(resourceFilePath);
         } else {
 
-            Texture texture = new Texture(resourceFilePath);
+            String loadFilePath = resourceFilePath;
+
+            if (indexedEnabled && resourceFilePath.endsWith(".png")) {
+
+                String indexedFilePath = resourceFilePath.substring(0, resourceFilePath.length() - 4)
+                        + IndexedImage.FILE_EXTENSION;
+
+                if (AssetPool.class.getResource(indexedFilePath) != null) {
+
+                    loadFilePath = indexedFilePath;
+                }
+            }
+            boolean indexed = loadFilePath.endsWith(IndexedImage.FILE_EXTENSION);
+            Texture texture = null;
+
+            if (atlas != null) {
+
+                texture = (indexed ? indexedAtlas : atlas).add(loadFilePath);
+            }
+
+            if (texture == null) {
+
+                texture = new Texture(loadFilePath);
+            }
             TEXTURES.put(resourceFilePath, texture);
             return texture;
         }
@@ -147,13 +247,13 @@ public class AssetPool {
 
         for (Spritesheet spritesheet : SPRITESHEETS.values()) {
 
-            spritesheet.getTexture().delete();
-            int textureId = spritesheet.getTexture().getTextureId();
+            Texture texture = spritesheet.getTexture();
+            texture.delete();
             ArrayList<String> keysToPurge = new ArrayList<>();
 
             for (String resourceFilePath : TEXTURES.keySet()) {
 
-                if (TEXTURES.get(resourceFilePath).getTextureId() == textureId) {
+                if (TEXTURES.get(resourceFilePath) == texture) {                                                        // Compared by memory address since regions of an atlas page share a texture ID.
 
                     keysToPurge.add(resourceFilePath);
                 }
@@ -334,13 +434,13 @@ public class AssetPool {
 
         for (Illustration illustration : ILLUSTRATIONS.values()) {
 
-            illustration.getSprite().getTexture().delete();
-            int textureId = illustration.getSprite().getTexture().getTextureId();
+            Texture texture = illustration.getTexture();
+            texture.delete();
             ArrayList<String> keysToPurge = new ArrayList<>();
 
             for (String resourceFilePath : TEXTURES.keySet()) {
 
-                if (TEXTURES.get(resourceFilePath).getTextureId() == textureId) {
+                if (TEXTURES.get(resourceFilePath) == texture) {                                                        // Compared by memory address since regions of an atlas page share a texture ID.
 
                     keysToPurge.add(resourceFilePath);
                 }
@@ -50,17 +50,26 @@ public class Illustration {
 
             UtilityTool.logInfo("Loading illustration from texture: '" + texture.getFilePath() + "'");
         }
+        float rightX = texture.mapTextureCoordX(1);
+        float topY = texture.mapTextureCoordY(1);
+        float leftX = texture.mapTextureCoordX(0);
+        float bottomY = texture.mapTextureCoordY(0);
         Vector2f[] textureCoords = {
-                new Vector2f(1, 1),
-                new Vector2f(1, 0),
-                new Vector2f(0, 0),
-                new Vector2f(0, 1)
+                new Vector2f(rightX, topY),
+                new Vector2f(rightX, bottomY),
+                new Vector2f(leftX, bottomY),
+                new Vector2f(leftX, topY)
         };
-        sprite = new Sprite(texture, textureCoords, texture.getNativeWidth(), texture.getNativeHeight());
+        sprite = new Sprite(texture.getAtlasPage(), textureCoords, texture.getNativeWidth(), texture.getNativeHeight(),
+                0, 0, texture.getNativeWidth(), texture.getNativeHeight(), texture.getPalette());
     }
 
 
-    // GETTER
+    // GETTERS
+    public Texture getTexture() {
+        return texture;
+    }
+
     public Sprite getSprite() {
         return sprite;
     }
@@ -75,6 +84,6 @@ public class Illustration {
             return false;
         }
         Illustration oIllustration = (Illustration) o;
-        return oIllustration.getSprite().getTexture().equals(this.sprite.getTexture());
+        return oIllustration.getTexture().equals(this.texture);                                                         // Sprite textures may be a shared atlas page.
     }
 }
@@ -0,0 +1,209 @@
+package asset;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class represents an image stored as one palette index per pixel plus a palette of up to 256 colors.
+ * Low-color pixel art stored this way needs only one byte per pixel on the GPU instead of four.
+ * Palette index zero is reserved for fully transparent pixels.
+ * Images are stored on file (see `FILE_EXTENSION`) as a compressed stream: a header, the palette as packed ARGB
+ * integers, then one index byte per pixel, row by row from the top of the image.
+ */
+public class IndexedImage {
+
+    // FIELDS
+    /**
+     * File extension of indexed images.
+     */
+    public static final String FILE_EXTENSION = ".idx";
+
+    /**
+     * Maximum number of colors in a palette (including the reserved transparent color).
+     */
+    public static final int MAX_PALETTE_SIZE = 256;
+
+    /**
+     * Value written at the start of every indexed image file to identify it.
+     */
+    private static final int MAGIC = 0x49445831;                                                                        // "IDX1".
+
+    /**
+     * Image width.
+     */
+    private final int width;
+
+    /**
+     * Image height.
+     */
+    private final int height;
+
+    /**
+     * Color (packed ARGB) of each palette index.
+     */
+    private final int[] palette;
+
+    /**
+     * Palette index of each pixel, row by row from the top of the image.
+     */
+    private final byte[] indices;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs an IndexedImage instance.
+     *
+     * @param width image width
+     * @param height image height
+     * @param palette color (packed ARGB) of each palette index
+     * @param indices palette index of each pixel, row by row from the top of the image
+     * @throws IllegalArgumentException if the palette is too large or the number of indices does not match the image
+     * size
+     */
+    public IndexedImage(int width, int height, int[] palette, byte[] indices) {
+        if ((palette.length == 0) || (palette.length > MAX_PALETTE_SIZE)) {
+            throw new IllegalArgumentException("Illegal palette size: " + palette.length);
+        }
+        if (indices.length != (width * height)) {
+            throw new IllegalArgumentException("Expected " + (width * height) + " indices for a " + width + "x"
+                    + height + " image, but found " + indices.length);
+        }
+        this.width = width;
+        this.height = height;
+        this.palette = palette;
+        this.indices = indices;
+    }
+
+
+    // METHODS
+    /**
+     * Converts a direct-color image to an indexed image.
+     * All fully transparent pixels are mapped to the reserved transparent index, regardless of their color.
+     *
+     * @param width image width
+     * @param height image height
+     * @param argb color (packed ARGB) of each pixel, row by row from the top of the image
+     * @return indexed image
+     * @throws IllegalArgumentException if the image contains more colors than fit in a palette
+     */
+    public static IndexedImage fromArgb(int width, int height, int[] argb) {
+
+        HashMap<Integer, Integer> paletteIndices = new HashMap<>();
+        int[] palette = new int[MAX_PALETTE_SIZE];
+        int paletteSize = 1;                                                                                            // Index zero is reserved for transparency.
+        byte[] indices = new byte[width * height];
+
+        for (int i = 0; i < indices.length; i++) {
+
+            if ((argb[i] >>> 24) == 0) {
+
+                continue;
+            }
+            Integer index = paletteIndices.get(argb[i]);
+
+            if (index == null) {
+
+                if (paletteSize == MAX_PALETTE_SIZE) {
+                    throw new IllegalArgumentException("Image contains more than " + (MAX_PALETTE_SIZE - 1)
+                            + " opaque or translucent colors");
+                }
+                index = paletteSize++;
+                palette[index] = argb[i];
+                paletteIndices.put(argb[i], index);
+            }
+            indices[i] = (byte)(int)index;
+        }
+        int[] trimmedPalette = new int[paletteSize];
+        System.arraycopy(palette, 0, trimmedPalette, 0, paletteSize);
+        return new IndexedImage(width, height, trimmedPalette, indices);
+    }
+
+
+    /**
+     * Reads an indexed image from a stream.
+     *
+     * @param in source stream
+     * @return indexed image
+     * @throws IOException if an I/O error occurs or the stream does not contain an indexed image
+     */
+    public static IndexedImage read(InputStream in) throws IOException {
+
+        DataInputStream data = new DataInputStream(new GZIPInputStream(in));
+
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Stream does not contain an indexed image");
+        }
+        int width = data.readInt();
+        int height = data.readInt();
+        int[] palette = new int[data.readInt()];
+
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = data.readInt();
+        }
+        byte[] indices = new byte[width * height];
+        data.readFully(indices);
+        return new IndexedImage(width, height, palette, indices);
+    }
+
+
+    /**
+     * Writes this image to a stream.
+     * The stream is finished (but not closed) afterwards.
+     *
+     * @param out target stream
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(OutputStream out) throws IOException {
+
+        GZIPOutputStream compressed = new GZIPOutputStream(out);
+        DataOutputStream data = new DataOutputStream(compressed);
+        data.writeInt(MAGIC);
+        data.writeInt(width);
+        data.writeInt(height);
+        data.writeInt(palette.length);
+
+        for (int color : palette) {
+            data.writeInt(color);
+        }
+        data.write(indices);
+        data.flush();
+        compressed.finish();
+    }
+
+
+    /**
+     * Retrieves the color of a pixel.
+     *
+     * @param x x-coordinate (leftmost is zero)
+     * @param y y-coordinate (topmost is zero)
+     * @return color (packed ARGB)
+     */
+    public int getArgb(int x, int y) {
+
+        return palette[indices[(y * width) + x] & 0xFF];
+    }
+
+
+    // GETTERS
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int[] getPalette() {
+        return palette;
+    }
+
+    public byte[] getIndices() {
+        return indices;
+    }
+}
@@ -0,0 +1,140 @@
+package asset;
+
+import org.lwjgl.BufferUtils;
+import render.GlStateCache;
+import render.GlTaskQueue;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL11.*;
+
+/**
+ * This class stores the palettes of all indexed textures in a single texture on the GPU, one palette per row.
+ * Shaders resolve a palette index sampled from an indexed texture by looking up the color at that index in the row of
+ * the palette in use.
+ * Since only the row in use decides the final colors, a palette swap (e.g., recoloring a sprite) costs nothing more
+ * than drawing with a different row; the indexed texture itself is shared.
+ */
+public class PaletteTable {
+
+    // FIELDS
+    /**
+     * Maximum number of palettes that can be stored.
+     * This is limited by palettes being referenced from drawn instances by a single byte, with zero meaning no palette.
+     */
+    public static final int MAX_PALETTES = 255;
+
+    /**
+     * Texture unit that the palette table is bound to when drawing.
+     * This follows the seven units used for batch texture slots, keeping every batch draw within eight texture units.
+     */
+    public static final int TEXTURE_UNIT = 7;
+
+    /**
+     * Texture ID.
+     * This is assigned on the thread that owns the OpenGL context (see GlTaskQueue), so it must only be read from that
+     * thread.
+     */
+    private int textureId;
+
+    /**
+     * Number of palettes stored thus far.
+     */
+    private int numPalettes;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs an empty PaletteTable instance.
+     * Space for all palettes is allocated on the GPU on the thread that owns the OpenGL context.
+     */
+    public PaletteTable() {
+
+        GlTaskQueue.submit(() -> {
+            textureId = glGenTextures();
+            GlStateCache.bindTexture(textureId);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+            glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, IndexedImage.MAX_PALETTE_SIZE, MAX_PALETTES, 0, GL_RGBA,
+                    GL_UNSIGNED_BYTE, BufferUtils.createByteBuffer(IndexedImage.MAX_PALETTE_SIZE * MAX_PALETTES * 4));
+        });
+    }
+
+
+    // METHODS
+    /**
+     * Stores a new palette.
+     *
+     * @param palette color (packed ARGB) of each palette index
+     * @return palette number (one greater than its row, since zero means no palette)
+     * @throws IllegalStateException if the table is full
+     */
+    public int add(int[] palette) {
+
+        if (numPalettes == MAX_PALETTES) {
+            throw new IllegalStateException("Palette table is full");
+        }
+        numPalettes++;
+        set(numPalettes, palette);
+        return numPalettes;
+    }
+
+
+    /**
+     * Overwrites the colors of a stored palette.
+     * Everything drawn with the palette is recolored, without touching any indexed texture.
+     *
+     * @param paletteNumber palette number
+     * @param palette color (packed ARGB) of each palette index
+     * @throws IllegalArgumentException if no palette with the specified number is stored
+     */
+    public void set(int paletteNumber, int[] palette) {
+
+        if ((paletteNumber < 1) || (paletteNumber > numPalettes)) {
+            throw new IllegalArgumentException("No palette stored with number " + paletteNumber);
+        }
+        ByteBuffer colors = BufferUtils.createByteBuffer(palette.length * 4);
+
+        for (int color : palette) {
+            colors.put((byte)(color >> 16));                                                                            // Red.
+            colors.put((byte)(color >> 8));                                                                             // Green.
+            colors.put((byte)color);                                                                                    // Blue.
+            colors.put((byte)(color >>> 24));                                                                           // Alpha.
+        }
+        colors.flip();
+        int numColors = palette.length;
+
+        GlTaskQueue.submit(() -> {
+            GlStateCache.bindTexture(textureId);
+            glTexSubImage2D(GL_TEXTURE_2D, 0, 0, paletteNumber - 1, numColors, 1, GL_RGBA, GL_UNSIGNED_BYTE, colors);
+        });
+    }
+
+
+    /**
+     * Binds this table to its texture unit to be used when drawing.
+     */
+    public void bind() {
+
+        GlStateCache.bindTexture(TEXTURE_UNIT, textureId);
+    }
+
+
+    /**
+     * Frees this table from GPU memory if finished being used.
+     * Note that this does not destruct this PaletteTable instance, which must be managed by JVM garbage collection.
+     */
+    public void delete() {
+
+        GlTaskQueue.submit(() -> {
+            GlStateCache.invalidateTexture(textureId);
+            glDeleteTextures(textureId);
+        });
+    }
+
+
+    // GETTERS
+    public int getNumPalettes() {
+        return numPalettes;
+    }
+}
@@ -2,6 +2,9 @@ package asset;
 
 import org.joml.*;
 import org.lwjgl.BufferUtils;
+import render.Camera;
+import render.GlStateCache;
+import render.GlTaskQueue;
 import utility.UtilityTool;
 import utility.exceptions.AssetLoadException;
 
@@ -9,11 +12,15 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
 
 import static org.lwjgl.opengl.GL11.GL_FALSE;
 import static org.lwjgl.opengl.GL20.*;
 import static org.lwjgl.opengl.GL20.glGetShaderInfoLog;
+import static org.lwjgl.opengl.GL31.GL_INVALID_INDEX;
+import static org.lwjgl.opengl.GL31.glGetUniformBlockIndex;
+import static org.lwjgl.opengl.GL31.glUniformBlockBinding;
 
 /**
  * This class loads and stores a shader for use.
@@ -42,15 +49,29 @@ public class Shader {
     private String fragmentSource;
 
     /**
-     * Boolean indicating whether this shader is currently in use or not.
+     * Map to store the location of each active uniform in this shader; uniform name is the key, location is the value.
+     * Locations are resolved once when this shader is linked.
      */
-    private boolean inUse = false;
+    private final HashMap<String, Integer> uniformLocations = new HashMap<>();
+
+    /**
+     * Map to store the values last uploaded to each uniform in this shader; uniform location is the key, values are
+     * the value.
+     * Uploads of values identical to those already held by a uniform are skipped.
+     */
+    private final HashMap<Integer, float[]> uniformValues = new HashMap<>();
+
+    /**
+     * Scratch array to stage values before comparing them against those last uploaded.
+     */
+    private float[] stagedValues = new float[16];
 
 
     // CONSTRUCTOR
     /**
      * Constructs a Shader instance.
-     * The shader at the provided file path is loaded, compiled and linked upon construction.
+     * The shader at the provided file path is loaded upon construction, then compiled and linked on the thread that
+     * owns the OpenGL context.
      *
      * @param filePath file path of the shader from resources directory
      */
@@ -58,7 +79,7 @@ public class Shader {
 
         this.filePath = filePath;
         load();
-        compileAndLink();
+        GlTaskQueue.submit(this::compileAndLink);
     }
 
 
@@ -68,11 +89,7 @@ public class Shader {
      */
     public void use() {
 
-        if (!inUse) {
-
-            inUse = true;
-            glUseProgram(shaderProgramId);
-        }
+        GlStateCache.useProgram(shaderProgramId);
     }
 
 
@@ -81,8 +98,7 @@ public class Shader {
      */
     public void detach() {
 
-        glUseProgram(0);                                                                                                // 0 is a flag that states to bind nothing.
-        inUse = false;
+        GlStateCache.useProgram(0);                                                                                     // 0 is a flag that states to bind nothing.
     }
 
 
@@ -94,11 +110,11 @@ public class Shader {
      */
     public void uploadMat4f(String varName, Matrix4f mat4) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
-        use();                                                                                                          // Ensures this shader is being used.
-        FloatBuffer matBuffer = BufferUtils.createFloatBuffer(16);                                                      // 16 since 4x4 matrix.
-        mat4.get(matBuffer);
-        glUniformMatrix4fv(varLocation, false, matBuffer);
+        int varLocation = getUniformLocation(varName);
+        mat4.get(stagedValues);
+        if (stageUpload(varLocation, 16)) {
+            glUniformMatrix4fv(varLocation, false, uniformValues.get(varLocation));
+        }
     }
 
 
@@ -110,11 +126,11 @@ public class Shader {
      */
     public void uploadMat3f(String varName, Matrix3f mat3) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
-        use();                                                                                                          // Ensures this shader is being used.
-        FloatBuffer matBuffer = BufferUtils.createFloatBuffer(9);                                                       // 9 since 3x3 matrix.
-        mat3.get(matBuffer);
-        glUniformMatrix3fv(varLocation, false, matBuffer);
+        int varLocation = getUniformLocation(varName);
+        mat3.get(stagedValues);
+        if (stageUpload(varLocation, 9)) {
+            glUniformMatrix3fv(varLocation, false, uniformValues.get(varLocation));
+        }
     }
 
 
@@ -126,9 +142,14 @@ public class Shader {
      */
     public void uploadVec4f(String varName, Vector4f vec) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
-        use();                                                                                                          // Ensures this shader is being used.
-        glUniform4f(varLocation, vec.x, vec.y, vec.z, vec.w);
+        int varLocation = getUniformLocation(varName);
+        stagedValues[0] = vec.x;
+        stagedValues[1] = vec.y;
+        stagedValues[2] = vec.z;
+        stagedValues[3] = vec.w;
+        if (stageUpload(varLocation, 4)) {
+            glUniform4f(varLocation, vec.x, vec.y, vec.z, vec.w);
+        }
     }
 
 
@@ -140,9 +161,13 @@ public class Shader {
      */
     public void uploadVec3f(String varName, Vector3f vec) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
-        use();                                                                                                          // Ensures this shader is being used.
-        glUniform3f(varLocation, vec.x, vec.y, vec.z);
+        int varLocation = getUniformLocation(varName);
+        stagedValues[0] = vec.x;
+        stagedValues[1] = vec.y;
+        stagedValues[2] = vec.z;
+        if (stageUpload(varLocation, 3)) {
+            glUniform3f(varLocation, vec.x, vec.y, vec.z);
+        }
     }
 
 
@@ -154,9 +179,25 @@ public class Shader {
      */
     public void uploadVec2f(String varName, Vector2f vec) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
-        use();                                                                                                          // Ensures this shader is being used.
-        glUniform2f(varLocation, vec.x, vec.y);
+        uploadVec2f(varName, vec.x, vec.y);
+    }
+
+
+    /**
+     * Uploads a vector of two floats to this shader.
+     *
+     * @param varName name of target variable in this shader to upload to
+     * @param x first component of vector to upload
+     * @param y second component of vector to upload
+     */
+    public void uploadVec2f(String varName, float x, float y) {
+
+        int varLocation = getUniformLocation(varName);
+        stagedValues[0] = x;
+        stagedValues[1] = y;
+        if (stageUpload(varLocation, 2)) {
+            glUniform2f(varLocation, x, y);
+        }
     }
 
 
@@ -168,9 +209,11 @@ public class Shader {
      */
     public void uploadFloat(String varName, float val) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
-        use();                                                                                                          // Ensures this shader is being used.
-        glUniform1f(varLocation, val);
+        int varLocation = getUniformLocation(varName);
+        stagedValues[0] = val;
+        if (stageUpload(varLocation, 1)) {
+            glUniform1f(varLocation, val);
+        }
     }
 
 
@@ -182,9 +225,11 @@ public class Shader {
      */
     public void uploadInt(String varName, int val) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
-        use();                                                                                                          // Ensures this shader is being used.
-        glUniform1i(varLocation, val);
+        int varLocation = getUniformLocation(varName);
+        stagedValues[0] = val;
+        if (stageUpload(varLocation, 1)) {
+            glUniform1i(varLocation, val);
+        }
     }
 
 
@@ -197,9 +242,7 @@ public class Shader {
      */
     public void uploadTexture(String varName, int slot) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
-        use();                                                                                                          // Ensures this shader is being used.
-        glUniform1i(varLocation, slot);
+        uploadInt(varName, slot);
     }
 
 
@@ -211,9 +254,78 @@ public class Shader {
      */
     public void uploadIntArray(String varName, int[] array) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
+        int varLocation = getUniformLocation(varName);
+        if (stagedValues.length < array.length) {
+            stagedValues = new float[array.length];
+        }
+        for (int i = 0; i < array.length; i++) {
+            stagedValues[i] = array[i];
+        }
+        if (stageUpload(varLocation, array.length)) {
+            glUniform1iv(varLocation, array);
+        }
+    }
+
+
+    /**
+     * Retrieves the location of a uniform in this shader.
+     * Locations are cached when this shader is linked, so no query to the GPU is made.
+     *
+     * @param varName name of target variable in this shader
+     * @return uniform location, or -1 if no active uniform with the specified name exists
+     */
+    private int getUniformLocation(String varName) {
+
+        Integer varLocation = uniformLocations.get(varName);
+
+        if (varLocation != null) {
+
+            return varLocation;
+        }
+        return -1;
+    }
+
+
+    /**
+     * Compares the staged values against those last uploaded to a uniform in this shader.
+     * If they differ, the staged values are recorded as the uniform's latest values and this shader is put into use so
+     * that the upload can proceed.
+     *
+     * @param varLocation location of target uniform
+     * @param count number of staged values
+     * @return whether the uniform must be uploaded (true) or not (false)
+     */
+    private boolean stageUpload(int varLocation, int count) {
+
+        if (varLocation == -1) {
+
+            return false;                                                                                               // No active uniform to upload to.
+        }
+        float[] uploadedValues = uniformValues.get(varLocation);
+
+        if ((uploadedValues != null) && (uploadedValues.length == count)) {
+
+            boolean unchanged = true;
+
+            for (int i = 0; i < count; i++) {
+                if (Float.floatToIntBits(uploadedValues[i]) != Float.floatToIntBits(stagedValues[i])) {
+                    unchanged = false;
+                    break;
+                }
+            }
+
+            if (unchanged) {
+
+                return false;
+            }
+        } else {
+
+            uploadedValues = new float[count];
+            uniformValues.put(varLocation, uploadedValues);
+        }
+        System.arraycopy(stagedValues, 0, uploadedValues, 0, count);
         use();                                                                                                          // Ensures this shader is being used.
-        glUniform1iv(varLocation, array);
+        return true;
     }
 
 
@@ -321,6 +433,27 @@ public class Shader {
             }
             throw new AssetLoadException("Failed to link shaders from resources '" + filePath + "'");
         }
+
+        // Cache locations of active uniforms.
+        int numUniforms = glGetProgrami(shaderProgramId, GL_ACTIVE_UNIFORMS);
+        IntBuffer size = BufferUtils.createIntBuffer(1);
+        IntBuffer type = BufferUtils.createIntBuffer(1);
+        for (int i = 0; i < numUniforms; i++) {
+            String name = glGetActiveUniform(shaderProgramId, i, size, type);
+            if (name.endsWith("[0]")) {
+                name = name.substring(0, name.length() - 3);                                                            // Arrays are reported by their first element.
+            }
+            int location = glGetUniformLocation(shaderProgramId, name);
+            if (location != -1) {                                                                                       // Uniforms inside uniform blocks have no location.
+                uniformLocations.put(name, location);
+            }
+        }
+
+        // Bind camera uniform block, if present.
+        int blockIndex = glGetUniformBlockIndex(shaderProgramId, Camera.UNIFORM_BLOCK_NAME);
+        if (blockIndex != GL_INVALID_INDEX) {
+            glUniformBlockBinding(shaderProgramId, blockIndex, Camera.UNIFORM_BLOCK_BINDING);
+        }
     }
 
 
@@ -362,6 +495,6 @@ public class Shader {
     }
 
     public boolean isInUse() {
-        return inUse;
+        return GlStateCache.getProgram() == shaderProgramId;
     }
 }
@@ -32,6 +32,33 @@ public class Sprite {
      */
     private final int nativeHeight;
 
+    /**
+     * Number of fully transparent native columns trimmed from the left edge of this sprite.
+     * Trimmed pixels are not stored on the parent texture, so the drawn quad is inset accordingly.
+     */
+    private final int trimLeft;
+
+    /**
+     * Number of fully transparent native rows trimmed from the top edge of this sprite.
+     */
+    private final int trimTop;
+
+    /**
+     * Native width of this sprite after trimming (i.e., width stored on the parent texture).
+     */
+    private final int trimmedWidth;
+
+    /**
+     * Native height of this sprite after trimming (i.e., height stored on the parent texture).
+     */
+    private final int trimmedHeight;
+
+    /**
+     * Number of the palette (see PaletteTable) resolving the colors of this sprite if its parent texture is indexed,
+     * or zero if its parent texture stores colors directly.
+     */
+    private final int palette;
+
 
     // CONSTRUCTORS
     /**
@@ -46,6 +73,11 @@ public class Sprite {
         };
         this.nativeWidth = 0;
         this.nativeHeight = 0;
+        this.trimLeft = 0;
+        this.trimTop = 0;
+        this.trimmedWidth = 0;
+        this.trimmedHeight = 0;
+        this.palette = 0;
     }
 
 
@@ -58,10 +90,49 @@ public class Sprite {
      * @param nativeSpriteHeight native sprite height
      */
     public Sprite(Texture texture, Vector2f[] textureCoords, int nativeSpriteWidth, int nativeSpriteHeight) {
+        this(texture, textureCoords, nativeSpriteWidth, nativeSpriteHeight,
+                0, 0, nativeSpriteWidth, nativeSpriteHeight, 0);
+    }
+
+
+    /**
+     * Constructs a Sprite instance whose fully transparent borders were trimmed from its parent texture.
+     * Native width and height remain those of the untrimmed sprite, so the sprite is sized and positioned as if it
+     * had not been trimmed.
+     *
+     * @param texture parent texture of sprite
+     * @param textureCoords coordinates of trimmed sprite on parent texture
+     * @param nativeSpriteWidth native sprite width (untrimmed)
+     * @param nativeSpriteHeight native sprite height (untrimmed)
+     * @param trimLeft number of native columns trimmed from the left edge
+     * @param trimTop number of native rows trimmed from the top edge
+     * @param trimmedWidth native sprite width after trimming
+     * @param trimmedHeight native sprite height after trimming
+     * @param palette number of palette resolving the colors of the sprite if its parent texture is indexed, or zero
+     */
+    public Sprite(Texture texture, Vector2f[] textureCoords, int nativeSpriteWidth, int nativeSpriteHeight,
+                  int trimLeft, int trimTop, int trimmedWidth, int trimmedHeight, int palette) {
         this.texture = texture;
         this.textureCoords = textureCoords;
         this.nativeWidth = nativeSpriteWidth;
         this.nativeHeight = nativeSpriteHeight;
+        this.trimLeft = trimLeft;
+        this.trimTop = trimTop;
+        this.trimmedWidth = trimmedWidth;
+        this.trimmedHeight = trimmedHeight;
+        this.palette = palette;
+    }
+
+
+    // METHODS
+    /**
+     * Determines whether any border of this sprite was trimmed from its parent texture.
+     *
+     * @return whether this sprite is trimmed
+     */
+    public boolean isTrimmed() {
+
+        return (trimmedWidth != nativeWidth) || (trimmedHeight != nativeHeight);
     }
 
 
@@ -82,6 +153,26 @@ public class Sprite {
         return nativeHeight;
     }
 
+    public int getTrimLeft() {
+        return trimLeft;
+    }
+
+    public int getTrimTop() {
+        return trimTop;
+    }
+
+    public int getTrimmedWidth() {
+        return trimmedWidth;
+    }
+
+    public int getTrimmedHeight() {
+        return trimmedHeight;
+    }
+
+    public int getPalette() {
+        return palette;
+    }
+
 
     @Override
     public boolean equals(Object o) {
@@ -96,12 +187,22 @@ public class Sprite {
             return (oSprite.getTexture().equals(this.texture))
                     && (Arrays.equals(oSprite.getTextureCoords(), this.textureCoords))
                     && (oSprite.getNativeWidth() == this.nativeWidth)
-                    && (oSprite.getNativeHeight() == this.nativeHeight);
+                    && (oSprite.getNativeHeight() == this.nativeHeight)
+                    && (oSprite.getTrimLeft() == this.trimLeft)
+                    && (oSprite.getTrimTop() == this.trimTop)
+                    && (oSprite.getTrimmedWidth() == this.trimmedWidth)
+                    && (oSprite.getTrimmedHeight() == this.trimmedHeight)
+                    && (oSprite.getPalette() == this.palette);
         } else {
             return (this.texture == null)
                     && (Arrays.equals(oSprite.getTextureCoords(), this.textureCoords))
                     && (oSprite.getNativeWidth() == this.nativeWidth)
-                    && (oSprite.getNativeHeight() == this.nativeHeight);
+                    && (oSprite.getNativeHeight() == this.nativeHeight)
+                    && (oSprite.getTrimLeft() == this.trimLeft)
+                    && (oSprite.getTrimTop() == this.trimTop)
+                    && (oSprite.getTrimmedWidth() == this.trimmedWidth)
+                    && (oSprite.getTrimmedHeight() == this.trimmedHeight)
+                    && (oSprite.getPalette() == this.palette);
         }
     }
 }
@@ -60,6 +60,24 @@ public class Spritesheet {
     }
 
 
+    /**
+     * Constructs a Spritesheet instance.
+     * Sprites are derived from this spritesheet upon construction.
+     * This constructor is used for spritesheets packed ahead of time (see SpritesheetPacker), whose sprite positions
+     * are read from a descriptor rather than derived from the layout of the texture.
+     *
+     * @param texture parent texture of this spritesheet to derive sprites from
+     * @param frames  packed frame of each sprite in this spritesheet, each as {x, y, trimmed width, trimmed height,
+     *                trim left, trim top, native width, native height}, with x and y being the native position of the
+     *                top-left corner of the trimmed sprite on the texture
+     */
+    public Spritesheet(Texture texture, int[][] frames) {
+
+        this.texture = texture;
+        loadPacked(frames);
+    }
+
+
     // METHODS
     /**
      * Derives sprites from a texture containing sprites with uniform widths and heights.
@@ -87,16 +105,12 @@ public class Spritesheet {
             float leftX = currentX / (float)texture.getNativeWidth();
             float bottomY = currentY / (float)texture.getNativeHeight();
 
-            // Store coordinates of sprite on parent texture.
-            Vector2f[] textureCoords = {
-                    new Vector2f(rightX, topY),
-                    new Vector2f(rightX, bottomY), // +0.0001f
-                    new Vector2f(leftX, bottomY),  // +0.0001f
-                    new Vector2f(leftX, topY)
-            };
+            // Store coordinates of sprite on sampled texture (atlas page, if parent texture is a region of one).
+            Vector2f[] textureCoords = mapTextureCoords(topY, rightX, bottomY, leftX);
 
-            // Create sprite using coordinates on parent texture.
-            Sprite sprite = new Sprite(texture, textureCoords, spriteWidth, spriteHeight);
+            // Create sprite using coordinates on sampled texture.
+            Sprite sprite = new Sprite(texture.getAtlasPage(), textureCoords, spriteWidth, spriteHeight,
+                    0, 0, spriteWidth, spriteHeight, texture.getPalette());
             sprites.add(sprite);
 
             // Iterate to next sprite in parent texture.
@@ -139,16 +153,12 @@ public class Spritesheet {
             float leftX = currentX / (float) texture.getNativeWidth();
             float bottomY = currentY / (float) texture.getNativeHeight();
 
-            // Store coordinates of sprite on parent texture.
-            Vector2f[] textureCoords = {
-                    new Vector2f(rightX, topY),
-                    new Vector2f(rightX, bottomY),
-                    new Vector2f(leftX, bottomY),
-                    new Vector2f(leftX, topY)
-            };
+            // Store coordinates of sprite on sampled texture (atlas page, if parent texture is a region of one).
+            Vector2f[] textureCoords = mapTextureCoords(topY, rightX, bottomY, leftX);
 
-            // Create sprite using coordinates on parent texture.
-            Sprite sprite = new Sprite(texture, textureCoords, spriteWidths[i], spriteHeights[i]);
+            // Create sprite using coordinates on sampled texture.
+            Sprite sprite = new Sprite(texture.getAtlasPage(), textureCoords, spriteWidths[i], spriteHeights[i],
+                    0, 0, spriteWidths[i], spriteHeights[i], texture.getPalette());
             sprites.add(sprite);
 
             // Iterate to next sprite in parent texture if necessary.
@@ -165,6 +175,63 @@ public class Spritesheet {
     }
 
 
+    /**
+     * Derives sprites from a texture packed ahead of time.
+     * No layout arithmetic is needed, since the position of each sprite on the texture is read directly.
+     * Frames may share the same position if the packer found their pixels to be identical.
+     *
+     * @param frames packed frame of each sprite in this spritesheet (see constructor)
+     */
+    private void loadPacked(int[][] frames) {
+
+        if (UtilityTool.VERBOSE_LOGGING) {
+            UtilityTool.logInfo("Loading packed spritesheet from texture: '" + texture.getFilePath() + "'");
+        }
+
+        for (int[] frame : frames) {
+
+            // Normalize sprite coordinates on parent texture.
+            float topY = (frame[1] + frame[3]) / (float)texture.getNativeHeight();
+            float rightX = (frame[0] + frame[2]) / (float)texture.getNativeWidth();
+            float leftX = frame[0] / (float)texture.getNativeWidth();
+            float bottomY = frame[1] / (float)texture.getNativeHeight();
+
+            // Store coordinates of sprite on sampled texture (atlas page, if parent texture is a region of one).
+            Vector2f[] textureCoords = mapTextureCoords(topY, rightX, bottomY, leftX);
+
+            // Create sprite using coordinates on sampled texture.
+            Sprite sprite = new Sprite(texture.getAtlasPage(), textureCoords, frame[6], frame[7],
+                    frame[4], frame[5], frame[2], frame[3], texture.getPalette());
+            sprites.add(sprite);
+        }
+    }
+
+
+    /**
+     * Maps the edges of a sprite normalized over the parent texture onto the texture actually sampled.
+     * If the parent texture is standalone, the edges are unchanged.
+     *
+     * @param topY top edge normalized over parent texture
+     * @param rightX right edge normalized over parent texture
+     * @param bottomY bottom edge normalized over parent texture
+     * @param leftX left edge normalized over parent texture
+     * @return texture coordinates of sprite on sampled texture, listed clockwise, starting from top-right
+     */
+    private Vector2f[] mapTextureCoords(float topY, float rightX, float bottomY, float leftX) {
+
+        float mappedTopY = texture.mapTextureCoordY(topY);
+        float mappedRightX = texture.mapTextureCoordX(rightX);
+        float mappedBottomY = texture.mapTextureCoordY(bottomY);
+        float mappedLeftX = texture.mapTextureCoordX(leftX);
+        return new Vector2f[] {
+                new Vector2f(mappedRightX, mappedTopY),
+                new Vector2f(mappedRightX, mappedBottomY),
+                new Vector2f(mappedLeftX, mappedBottomY),
+                new Vector2f(mappedLeftX, mappedTopY)
+        };
+    }
+
+
     // GETTERS
     public Texture getTexture() {
         return texture;
@@ -1,13 +1,18 @@
 package asset;
 
 import org.lwjgl.BufferUtils;
+import render.GlStateCache;
+import render.GlTaskQueue;
 import utility.UtilityTool;
 import utility.exceptions.AssetLoadException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 
 import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL30.GL_R8;
 import static org.lwjgl.stb.STBImage.*;
 
 /**
@@ -23,6 +28,8 @@ public class Texture {
 
     /**
      * Texture ID.
+     * This is assigned on the thread that owns the OpenGL context once this texture has been uploaded (see
+     * GlTaskQueue), so it must only be read from that thread.
      */
     private int textureId;
 
@@ -36,26 +43,57 @@ public class Texture {
      */
     private int nativeHeight;
 
+    /**
+     * Atlas page that this texture occupies a region of, or null if this texture is standalone.
+     */
+    private final Texture atlasPage;
+
+    /**
+     * X-coordinate (pixels) of the left edge of this texture's region on its atlas page.
+     */
+    private final int regionX;
+
+    /**
+     * Y-coordinate (pixels) of the first row of this texture's region on its atlas page.
+     */
+    private final int regionY;
+
+    /**
+     * Number of the palette (see PaletteTable) resolving the colors of this texture if it is indexed, or zero if this
+     * texture stores colors directly.
+     */
+    private int palette;
+
 
     // CONSTRUCTORS
     /**
      * Constructs a Texture instance.
-     * The texture at the provided file path is loaded and uploaded to the GPU upon construction.
+     * The texture at the provided file path is loaded upon construction and then uploaded to the GPU on the thread
+     * that owns the OpenGL context.
      * Note that as many textures as desired can be uploaded to the GPU as long as memory permits.
      * This should not be confused with the number of slots available for binding on the GPU for texture sampling.
-     * Textures should be PNG file format.
+     * Textures should be PNG file format, or indexed image format (see IndexedImage) to be stored with one byte per
+     * pixel.
      *
      * @param filePath file path of texture from resources directory
      */
     public Texture(String filePath) {
         this.filePath = filePath;
-        load();
+        this.atlasPage = null;
+        this.regionX = 0;
+        this.regionY = 0;
+        if (filePath.endsWith(IndexedImage.FILE_EXTENSION)) {
+            loadIndexed();
+        } else {
+            load();
+        }
     }
 
 
     /**
      * Constructs a Texture instance.
-     * An empty texture is prepared and allocated on the GPU upon construction.
+     * An empty texture is prepared upon construction and then allocated on the GPU on the thread that owns the OpenGL
+     * context.
      *
      * @param width texture width
      * @param height texture height
@@ -63,10 +101,56 @@ public class Texture {
     public Texture(int width, int height) {
 
         this.filePath = "auto-generated-texture";
+        this.atlasPage = null;
+        this.regionX = 0;
+        this.regionY = 0;
         allocate(width, height);
     }
 
 
+    /**
+     * Constructs a Texture instance wrapping a texture that is generated on the GPU by its owner (see
+     * `setTextureId()`).
+     *
+     * @param filePath name of texture
+     * @param width texture width
+     * @param height texture height
+     */
+    Texture(String filePath, int width, int height) {
+        this.filePath = filePath;
+        this.nativeWidth = width;
+        this.nativeHeight = height;
+        this.atlasPage = null;
+        this.regionX = 0;
+        this.regionY = 0;
+    }
+
+
+    /**
+     * Constructs a Texture instance occupying a region of an atlas page.
+     * No GPU memory is allocated; binding this texture binds the atlas page.
+     * Native width and height are those of the region, so texture coordinates normalized over this texture must be
+     * mapped onto the atlas page before sampling (see `mapTextureCoordX()` and `mapTextureCoordY()`).
+     *
+     * @param filePath file path of texture from resources directory
+     * @param atlasPage atlas page containing this texture
+     * @param regionX x-coordinate (pixels) of the left edge of the region on the atlas page
+     * @param regionY y-coordinate (pixels) of the first row of the region on the atlas page
+     * @param width region width
+     * @param height region height
+     * @param palette number of palette resolving the colors of the region if the atlas page is indexed, or zero
+     */
+    Texture(String filePath, Texture atlasPage, int regionX, int regionY, int width, int height, int palette) {
+        this.filePath = filePath;
+        this.nativeWidth = width;
+        this.nativeHeight = height;
+        this.atlasPage = atlasPage;
+        this.regionX = regionX;
+        this.regionY = regionY;
+        this.palette = palette;
+    }
+
+
     // METHODS
     /**
      * Binds this texture to be used when drawing.
@@ -76,7 +160,18 @@ public class Texture {
      */
     public void bind() {
 
-        glBindTexture(GL_TEXTURE_2D, textureId);
+        GlStateCache.bindTexture(getTextureId());
+    }
+
+
+    /**
+     * Binds this texture to a specific texture unit to be used when drawing.
+     *
+     * @param unit texture unit (0 for GL_TEXTURE0, 1 for GL_TEXTURE1, etc.)
+     */
+    public void bind(int unit) {
+
+        GlStateCache.bindTexture(unit, getTextureId());
     }
 
 
@@ -85,12 +180,12 @@ public class Texture {
      */
     public void unbind() {
 
-        glBindTexture(GL_TEXTURE_2D, 0);
+        GlStateCache.bindTexture(0);
     }
 
 
     /**
-     * Loads this texture from file and uploads it to the GPU.
+     * Loads this texture from file, then submits it to be uploaded to the GPU.
      *
      * @throws AssetLoadException
      */
@@ -100,34 +195,20 @@ public class Texture {
             UtilityTool.logInfo("Loading texture from file: '" + filePath + "'");
         }
 
-        // Generate texture on GPU.
-        textureId = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D, textureId);
-
-        // Parameter: repeat image in both directions.
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_REPEAT);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_REPEAT);
-
-        // Parameter: pixelate when stretching.
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
-
-        // Parameter: pixelate when shrinking.
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
-
         // Load image.
         IntBuffer bufferWidth = BufferUtils.createIntBuffer(1);
         IntBuffer bufferHeight = BufferUtils.createIntBuffer(1);
         IntBuffer bufferChannels = BufferUtils.createIntBuffer(1);                                                      // rgb or rgba.
         ByteBuffer image = UtilityTool.ioResourceToByteBuffer(filePath, 4096);
         ByteBuffer pixels = stbi_load_from_memory(image, bufferWidth, bufferHeight, bufferChannels, 0);
+        int format;
         if (pixels != null) {
             if (bufferChannels.get(0) == 3) {                                                                           // rbg image.
-                glTexImage2D(GL_TEXTURE_2D, 0, GL_RGB, bufferWidth.get(0), bufferHeight.get(0),                         // Upload image to GPU.
-                        0, GL_RGB, GL_UNSIGNED_BYTE, pixels);
+                format = GL_RGB;
             } else if (bufferChannels.get(0) == 4) {                                                                    // rgba image.
-                glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, bufferWidth.get(0), bufferHeight.get(0),                        // Upload image to GPU.
-                        0, GL_RGBA, GL_UNSIGNED_BYTE, pixels);
+                format = GL_RGBA;
             } else {
+                stbi_image_free(pixels);
                 throw new AssetLoadException("Unexpected number of channels '" + bufferChannels.get(0)
                         + "' in image for texture loaded from resources '" + filePath + "'");
             }
@@ -136,40 +217,163 @@ public class Texture {
         } else {
             throw new AssetLoadException("Failed to load texture from resources '" + filePath + "'");
         }
+        int width = nativeWidth;
+        int height = nativeHeight;
+
+        GlTaskQueue.submit(() -> {
+
+            // Generate texture on GPU.
+            textureId = glGenTextures();
+            GlStateCache.bindTexture(textureId);
+
+            // Parameter: repeat image in both directions.
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_REPEAT);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_REPEAT);
+
+            // Parameter: pixelate when stretching.
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+
+            // Parameter: pixelate when shrinking.
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+
+            // Upload image to GPU, then free memory.
+            glTexImage2D(GL_TEXTURE_2D, 0, format, width, height, 0, format, GL_UNSIGNED_BYTE, pixels);
+            stbi_image_free(pixels);
+        });
+    }
+
+
+    /**
+     * Loads this texture from an indexed image file, then submits it to be uploaded to the GPU as a single-channel
+     * texture.
+     * The palette of the image is stored in the palette table of the asset pool.
+     *
+     * @throws AssetLoadException
+     */
+    private void loadIndexed() {
+
+        if (UtilityTool.VERBOSE_LOGGING) {
+            UtilityTool.logInfo("Loading indexed texture from file: '" + filePath + "'");
+        }
+        IndexedImage image;
+
+        try (InputStream in = Texture.class.getResourceAsStream(filePath)) {
+
+            if (in == null) {
+                throw new AssetLoadException("Failed to load indexed texture from resources '" + filePath + "'");
+            }
+            image = IndexedImage.read(in);
+
+        } catch (IOException e) {
 
-        // Free memory.
-        stbi_image_free(pixels);
+            throw new AssetLoadException("Failed to load indexed texture from resources '" + filePath + "': "
+                    + e.getMessage());
+        }
+
+        ByteBuffer indices = BufferUtils.createByteBuffer(image.getIndices().length);
+        indices.put(image.getIndices()).flip();
+        nativeWidth = image.getWidth();
+        nativeHeight = image.getHeight();
+        int width = nativeWidth;
+        int height = nativeHeight;
+
+        GlTaskQueue.submit(() -> {
+
+            // Generate texture on GPU.
+            textureId = glGenTextures();
+            GlStateCache.bindTexture(textureId);
+
+            // Parameter: repeat image in both directions.
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_REPEAT);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_REPEAT);
+
+            // Parameter: pixelate when stretching or shrinking (palette indices must never be blended).
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+
+            // Upload indices to GPU.
+            glPixelStorei(GL_UNPACK_ALIGNMENT, 1);                                                                      // Rows of single bytes are not aligned to four bytes.
+            glTexImage2D(GL_TEXTURE_2D, 0, GL_R8, width, height, 0, GL_RED, GL_UNSIGNED_BYTE, indices);
+            glPixelStorei(GL_UNPACK_ALIGNMENT, 4);                                                                      // Restore default alignment.
+        });
+        palette = AssetPool.getPaletteTable().add(image.getPalette());
     }
 
 
     /**
-     * Allocates an empty texture on the GPU.
+     * Submits an empty texture to be allocated on the GPU.
      *
      * @param width texture width
      * @param height texture height
      */
     private void allocate(int width, int height) {
 
-        // Generate texture on GPU.
-        textureId = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D, textureId);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
-
-        // Allocate space for empty image.
-        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGB, width, height, 0, GL_RGB, GL_UNSIGNED_BYTE, 0);
         nativeWidth = width;
         nativeHeight = height;
+
+        GlTaskQueue.submit(() -> {
+
+            // Generate texture on GPU.
+            textureId = glGenTextures();
+            GlStateCache.bindTexture(textureId);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+
+            // Allocate space for empty image.
+            glTexImage2D(GL_TEXTURE_2D, 0, GL_RGB, width, height, 0, GL_RGB, GL_UNSIGNED_BYTE, 0);
+        });
+    }
+
+
+    /**
+     * Maps a horizontal texture coordinate normalized over this texture to one normalized over the texture actually
+     * sampled (i.e., the atlas page, if this texture occupies a region of one).
+     *
+     * @param x texture coordinate normalized over this texture
+     * @return texture coordinate normalized over the sampled texture
+     */
+    public float mapTextureCoordX(float x) {
+
+        if (atlasPage == null) {
+
+            return x;
+        }
+        return (regionX + (x * nativeWidth)) / (float)atlasPage.getNativeWidth();
+    }
+
+
+    /**
+     * Maps a vertical texture coordinate normalized over this texture to one normalized over the texture actually
+     * sampled (i.e., the atlas page, if this texture occupies a region of one).
+     *
+     * @param y texture coordinate normalized over this texture
+     * @return texture coordinate normalized over the sampled texture
+     */
+    public float mapTextureCoordY(float y) {
+
+        if (atlasPage == null) {
+
+            return y;
+        }
+        return (regionY + (y * nativeHeight)) / (float)atlasPage.getNativeHeight();
     }
 
 
     /**
      * Frees this memory if this texture is finished being used.
+     * Nothing happens if this texture occupies a region of an atlas page, since the page is owned by its atlas.
      * Note that this does not destruct this Texture instance, which must be managed by JVM garbage collection.
      */
     public void delete() {
 
-        glDeleteTextures(textureId);
+        if (atlasPage != null) {
+
+            return;
+        }
+        GlTaskQueue.submit(() -> {
+            GlStateCache.invalidateTexture(textureId);
+            glDeleteTextures(textureId);
+        });
     }
 
 
@@ -179,7 +383,7 @@ public class Texture {
     }
 
     public int getTextureId() {
-        return textureId;
+        return (atlasPage != null) ? atlasPage.getTextureId() : textureId;
     }
 
     public int getNativeWidth() {
@@ -190,6 +394,26 @@ public class Texture {
         return nativeHeight;
     }
 
+    public int getPalette() {
+        return palette;
+    }
+
+    /**
+     * Retrieves the texture actually sampled when this texture is bound.
+     * Drawables should reference this texture so that all regions of the same atlas page can be drawn in one batch.
+     *
+     * @return atlas page containing this texture, or this texture if standalone
+     */
+    public Texture getAtlasPage() {
+        return (atlasPage != null) ? atlasPage : this;
+    }
+
+
+    // SETTER
+    void setTextureId(int textureId) {
+        this.textureId = textureId;
+    }
+
 
     @Override
     public boolean equals(Object o) {
@@ -201,7 +425,7 @@ public class Texture {
         }
         Texture oTexture = (Texture)o;
         return (oTexture.getFilePath().equals(this.filePath))
-                && (oTexture.getTextureId() == this.textureId)
+                && (oTexture.getAtlasPage() == this.getAtlasPage())                                                     // Same texture on the GPU (texture IDs may not be assigned yet).
                 && (oTexture.getNativeHeight() == this.nativeHeight)
                 && (oTexture.getNativeWidth() == this.nativeWidth);
     }
@@ -0,0 +1,254 @@
+package asset;
+
+import org.lwjgl.BufferUtils;
+import render.GlStateCache;
+import render.GlTaskQueue;
+import utility.ShelfPacker;
+import utility.UtilityTool;
+import utility.exceptions.AssetLoadException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
+import static org.lwjgl.opengl.GL30.GL_R8;
+import static org.lwjgl.stb.STBImage.*;
+
+/**
+ * This class packs textures loaded from file into a small number of large textures (atlas pages) on the GPU.
+ * Textures packed onto the same page can be drawn together in a single batch, since a batch only needs to bind the
+ * page once regardless of how many textures it contains.
+ * Each packed texture is returned as a region of its page (see Texture).
+ * An atlas stores either direct-color textures (four bytes per pixel) or indexed textures (one byte per pixel; see
+ * IndexedImage), since each page has a single format.
+ * Regions are not reclaimed individually; page memory is only freed once the entire atlas is deleted.
+ */
+public class TextureAtlas {
+
+    // FIELDS
+    /**
+     * Width and height of each atlas page.
+     */
+    public static final int PAGE_SIZE = 2048;
+
+    /**
+     * Maximum width or height of a texture that will be packed onto a page.
+     * Larger textures (e.g., illustrations) would waste too much of a page and should remain standalone.
+     */
+    public static final int MAX_REGION_SIZE = 1024;
+
+    /**
+     * Empty native padding (pixels) surrounding each region on a page.
+     * This prevents neighbouring regions from bleeding into one another when sampling at their edges.
+     */
+    private static final int PADDING = 1;
+
+    /**
+     * List to store all pages of this atlas.
+     */
+    private final ArrayList<Texture> pages = new ArrayList<>();
+
+    /**
+     * List to store the packer tracking free space on each page.
+     * Each entry corresponds to the page at the same index in `pages`.
+     */
+    private final ArrayList<ShelfPacker> packers = new ArrayList<>();
+
+    /**
+     * Whether this atlas stores indexed textures.
+     */
+    private final boolean indexed;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs an empty TextureAtlas instance.
+     * Pages are only opened on the GPU once textures are added.
+     *
+     * @param indexed whether to store indexed textures (true) or direct-color textures (false)
+     */
+    public TextureAtlas(boolean indexed) {
+        this.indexed = indexed;
+    }
+
+
+    // METHODS
+    /**
+     * Loads a texture from file and packs it onto a page of this atlas.
+     * A new page is opened if the texture does not fit on any existing page.
+     * Textures should be PNG file format if this atlas stores direct-color textures, or indexed image format if this
+     * atlas stores indexed textures.
+     *
+     * @param filePath file path of texture from resources directory
+     * @return region of an atlas page containing the texture, or null if the texture is too large to be packed
+     * @throws AssetLoadException if the texture could not be loaded
+     */
+    public Texture add(String filePath) {
+
+        int width;
+        int height;
+        ByteBuffer pixels;
+        IndexedImage indexedImage = null;
+
+        if (indexed) {
+
+            try (InputStream in = TextureAtlas.class.getResourceAsStream(filePath)) {
+
+                if (in == null) {
+                    throw new AssetLoadException("Failed to load indexed texture from resources '" + filePath + "'");
+                }
+                indexedImage = IndexedImage.read(in);
+
+            } catch (IOException e) {
+
+                throw new AssetLoadException("Failed to load indexed texture from resources '" + filePath + "': "
+                        + e.getMessage());
+            }
+            width = indexedImage.getWidth();
+            height = indexedImage.getHeight();
+            pixels = BufferUtils.createByteBuffer(indexedImage.getIndices().length);
+            pixels.put(indexedImage.getIndices()).flip();
+        } else {
+
+            IntBuffer bufferWidth = BufferUtils.createIntBuffer(1);
+            IntBuffer bufferHeight = BufferUtils.createIntBuffer(1);
+            IntBuffer bufferChannels = BufferUtils.createIntBuffer(1);
+            ByteBuffer image = UtilityTool.ioResourceToByteBuffer(filePath, 4096);
+            pixels = stbi_load_from_memory(image, bufferWidth, bufferHeight, bufferChannels, 4);                        // Always expand to rgba to match page format.
+
+            if (pixels == null) {
+
+                throw new AssetLoadException("Failed to load texture from resources '" + filePath + "'");
+            }
+            width = bufferWidth.get(0);
+            height = bufferHeight.get(0);
+        }
+
+        if ((width > MAX_REGION_SIZE) || (height > MAX_REGION_SIZE)) {
+
+            if (!indexed) {
+                stbi_image_free(pixels);
+            }
+            return null;
+        }
+        int pageIndex = -1;
+        int[] position = null;
+
+        for (int i = 0; i < packers.size(); i++) {
+
+            position = packers.get(i).pack(width + (2 * PADDING), height + (2 * PADDING));
+
+            if (position != null) {
+
+                pageIndex = i;
+                break;
+            }
+        }
+
+        if (position == null) {
+
+            addPage();
+            pageIndex = pages.size() - 1;
+            position = packers.get(pageIndex).pack(width + (2 * PADDING), height + (2 * PADDING));
+        }
+        Texture page = pages.get(pageIndex);
+        int regionX = position[0] + PADDING;
+        int regionY = position[1] + PADDING;
+
+        if (UtilityTool.VERBOSE_LOGGING) {
+            UtilityTool.logInfo("Packing texture from file '" + filePath + "' onto atlas page " + pageIndex
+                    + " at (" + regionX + ", " + regionY + ")");
+        }
+        int regionWidth = width;
+        int regionHeight = height;
+        ByteBuffer regionPixels = pixels;
+
+        GlTaskQueue.submit(() -> {
+            GlStateCache.bindTexture(page.getTextureId());
+
+            if (indexed) {
+
+                glPixelStorei(GL_UNPACK_ALIGNMENT, 1);                                                                  // Rows of single bytes are not aligned to four bytes.
+                glTexSubImage2D(GL_TEXTURE_2D, 0, regionX, regionY, regionWidth, regionHeight, GL_RED,
+                        GL_UNSIGNED_BYTE, regionPixels);
+                glPixelStorei(GL_UNPACK_ALIGNMENT, 4);                                                                  // Restore default alignment.
+            } else {
+
+                glTexSubImage2D(GL_TEXTURE_2D, 0, regionX, regionY, regionWidth, regionHeight, GL_RGBA,
+                        GL_UNSIGNED_BYTE, regionPixels);
+                stbi_image_free(regionPixels);
+            }
+        });
+        int palette = 0;
+
+        if (indexed) {
+
+            palette = AssetPool.getPaletteTable().add(indexedImage.getPalette());
+        }
+        return new Texture(filePath, page, regionX, regionY, width, height, palette);
+    }
+
+
+    /**
+     * Frees all pages of this atlas from GPU memory if finished being used.
+     * Any regions of said pages will no longer be valid.
+     * Note that this does not destruct this TextureAtlas instance, which must be managed by JVM garbage collection.
+     */
+    public void delete() {
+
+        for (Texture page : pages) {
+            page.delete();
+        }
+        pages.clear();
+        packers.clear();
+    }
+
+
+    /**
+     * Opens a new page and submits it to be created, fully transparent, on the GPU.
+     */
+    private void addPage() {
+
+        String name = (indexed ? "indexed-atlas-page-" : "atlas-page-") + pages.size();
+        Texture page = new Texture(name, PAGE_SIZE, PAGE_SIZE);
+        pages.add(page);
+        packers.add(new ShelfPacker(PAGE_SIZE, PAGE_SIZE));
+
+        GlTaskQueue.submit(() -> {
+            int textureId = glGenTextures();
+            GlStateCache.bindTexture(textureId);
+
+            // Parameter: clamp at edges so that regions touching a page edge never wrap around to the opposite side.
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+
+            // Parameter: pixelate when stretching or shrinking.
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+
+            // Upload zeroed image so that padding between regions is transparent (palette index zero is transparent).
+            if (indexed) {
+                ByteBuffer empty = BufferUtils.createByteBuffer(PAGE_SIZE * PAGE_SIZE);
+                glTexImage2D(GL_TEXTURE_2D, 0, GL_R8, PAGE_SIZE, PAGE_SIZE, 0, GL_RED, GL_UNSIGNED_BYTE, empty);
+            } else {
+                ByteBuffer empty = BufferUtils.createByteBuffer(PAGE_SIZE * PAGE_SIZE * 4);
+                glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, PAGE_SIZE, PAGE_SIZE, 0, GL_RGBA, GL_UNSIGNED_BYTE, empty);
+            }
+            page.setTextureId(textureId);
+        });
+
+        if (UtilityTool.VERBOSE_LOGGING) {
+            UtilityTool.logInfo("Opened texture atlas page " + (pages.size() - 1));
+        }
+    }
+
+
+    // GETTERS
+    public int getNumPages() {
+        return pages.size();
+    }
+}
@@ -0,0 +1,196 @@
+package core;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class paces frames to a target frame rate when VSync is not doing so.
+ * Rather than polling the clock in a busy loop until the next frame is due, the calling thread is parked for most of
+ * the wait and only spins for a short tail right before the deadline.
+ * The thread tends to wake up later than asked when parked, so the length of the spin tail adapts to the lateness
+ * measured on previous wake-ups: long enough to absorb it, but no longer than needed.
+ * How closely frames land on their deadlines (pacing jitter) is measured and reported once per second.
+ */
+public class FramePacer {
+
+    // FIELDS
+    /**
+     * Time (nanoseconds) spun before each deadline in addition to the expected wake-up lateness.
+     */
+    private static final long SPIN_MARGIN_NANOS = 200_000;
+
+    /**
+     * Initial expected wake-up lateness (nanoseconds), used until real wake-ups have been measured.
+     */
+    private static final long INITIAL_OVERSHOOT_NANOS = 1_000_000;
+
+    /**
+     * Upper bound on expected wake-up lateness (nanoseconds).
+     * This keeps a single outlier wake-up (e.g., due to the system being suspended) from causing long spins afterwards.
+     */
+    private static final long MAX_OVERSHOOT_NANOS = 4_000_000;
+
+    /**
+     * Length (nanoseconds) of each interval over which pacing jitter is measured before being reported.
+     */
+    private static final long REPORT_INTERVAL_NANOS = 1_000_000_000;
+
+    /**
+     * Expected lateness (nanoseconds) of the thread waking up after being parked.
+     */
+    private long sleepOvershootNanos = INITIAL_OVERSHOOT_NANOS;
+
+    /**
+     * Time (nanoseconds, system timer) that the last frame was due.
+     * A negative value means that no frame has been paced yet.
+     */
+    private long lastDeadline = -1;
+
+    /**
+     * Time (nanoseconds, system timer) that the current jitter measurement interval started.
+     */
+    private long reportIntervalStart;
+
+    /**
+     * Sum of how late (nanoseconds) each frame in the current jitter measurement interval was released.
+     */
+    private long intervalLatenessSum;
+
+    /**
+     * Greatest lateness (nanoseconds) of any frame released in the current jitter measurement interval.
+     */
+    private long intervalLatenessMax;
+
+    /**
+     * Number of frames released in the current jitter measurement interval.
+     */
+    private int intervalFrames;
+
+    /**
+     * Average lateness (microseconds) of frames released in the last complete jitter measurement interval.
+     */
+    private long averageJitterMicros;
+
+    /**
+     * Greatest lateness (microseconds) of any frame released in the last complete jitter measurement interval.
+     */
+    private long maxJitterMicros;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a FramePacer instance.
+     */
+    public FramePacer() {}
+
+
+    // METHODS
+    /**
+     * Blocks the calling thread until the next frame is due.
+     * Frames are due at fixed intervals from one another, so a frame released late does not push back later frames.
+     * If the caller has fallen more than a full frame behind, however, the missed frames are dropped and the next frame
+     * is released immediately instead of several being released in a burst to catch up.
+     *
+     * @param frameTime target time between frames (seconds)
+     */
+    public void awaitNextFrame(double frameTime) {
+
+        long frameNanos = (long)(frameTime * 1_000_000_000);
+        long now = System.nanoTime();
+        long deadline;
+
+        if ((lastDeadline < 0) || ((now - lastDeadline) > (2 * frameNanos))) {
+
+            deadline = now;
+            reportIntervalStart = (lastDeadline < 0) ? now : reportIntervalStart;
+        } else {
+
+            deadline = lastDeadline + frameNanos;
+        }
+        long remaining = deadline - now;
+
+        while (remaining > (sleepOvershootNanos + SPIN_MARGIN_NANOS)) {                                                 // Park until shortly before the deadline.
+
+            long requested = remaining - sleepOvershootNanos - SPIN_MARGIN_NANOS;
+            long parkStart = System.nanoTime();
+            LockSupport.parkNanos(requested);
+            now = System.nanoTime();
+            adaptSleepOvershoot(now - parkStart - requested);
+            remaining = deadline - now;
+        }
+
+        while (remaining > 0) {                                                                                         // Spin for the remaining tail.
+
+            Thread.onSpinWait();
+            now = System.nanoTime();
+            remaining = deadline - now;
+        }
+        recordLateness(now - deadline, now);
+        lastDeadline = deadline;
+    }
+
+
+    /**
+     * Forgets the deadline of the last frame so that the next frame is released immediately.
+     * This should be called whenever frames were not paced by this pacer for a while (e.g., while VSync was enabled).
+     */
+    public void reset() {
+
+        lastDeadline = -1;
+        intervalLatenessSum = 0;
+        intervalLatenessMax = 0;
+        intervalFrames = 0;
+    }
+
+
+    /**
+     * Updates the expected lateness of waking up after being parked with a newly measured lateness.
+     * The estimate rises immediately to any larger measurement, since waking up too late misses the deadline, but only
+     * decays gradually towards smaller measurements, since waking up too early merely spins a little longer.
+     *
+     * @param measuredNanos measured lateness (nanoseconds)
+     */
+    private void adaptSleepOvershoot(long measuredNanos) {
+
+        if (measuredNanos > sleepOvershootNanos) {
+
+            sleepOvershootNanos = Math.min(measuredNanos, MAX_OVERSHOOT_NANOS);
+        } else {
+
+            sleepOvershootNanos += (Math.max(measuredNanos, 0) - sleepOvershootNanos) / 16;
+        }
+    }
+
+
+    /**
+     * Records how late a frame was released and reports the pacing jitter if the current measurement interval is over.
+     *
+     * @param latenessNanos lateness of the frame (nanoseconds)
+     * @param now current time (nanoseconds, system timer)
+     */
+    private void recordLateness(long latenessNanos, long now) {
+
+        intervalLatenessSum += latenessNanos;
+        intervalLatenessMax = Math.max(intervalLatenessMax, latenessNanos);
+        intervalFrames++;
+
+        if ((now - reportIntervalStart) >= REPORT_INTERVAL_NANOS) {
+
+            averageJitterMicros = (intervalLatenessSum / intervalFrames) / 1000;
+            maxJitterMicros = intervalLatenessMax / 1000;
+            intervalLatenessSum = 0;
+            intervalLatenessMax = 0;
+            intervalFrames = 0;
+            reportIntervalStart = now;
+        }
+    }
+
+
+    // GETTERS
+    public long getAverageJitterMicros() {
+        return averageJitterMicros;
+    }
+
+    public long getMaxJitterMicros() {
+        return maxJitterMicros;
+    }
+}
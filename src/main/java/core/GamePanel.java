@@ -60,6 +60,28 @@ public class GamePanel {
     public static final int NATIVE_SCREEN_HEIGHT = 432;
 
 
+    // SIMULATION SETTINGS
+    /**
+     * Rate (ticks per second) at which game logic is updated.
+     * Game logic always advances by the same fixed time step per tick, regardless of frame rate.
+     */
+    public static final int TICK_RATE = 120;
+
+    /**
+     * Maximum number of ticks run in a single frame to catch up with elapsed time.
+     * If game logic falls further behind than this (e.g., after a long stall), the excess time is dropped instead of
+     * being simulated in a burst.
+     */
+    public static final int MAX_TICKS_PER_FRAME = 8;
+
+    /**
+     * Maximum distance (world units) that a position may move over a single tick and still be interpolated when
+     * rendered.
+     * Larger jumps (e.g., warps or camera snaps) are drawn at their end position straight away.
+     */
+    public static final float MAX_INTERPOLATION_DISTANCE = NATIVE_TILE_SIZE;
+
+
      // WORLD SETTINGS
     /**
      * Maximum number of tiles allowed in a map column.
@@ -75,6 +97,7 @@ public class GamePanel {
     // SYSTEM
     private Camera camera;
     private final Renderer renderer = new Renderer(this);
+    private final FramePacer framePacer = new FramePacer();
     private final SubMenuHandler subMenuH = new SubMenuHandler(this);
     private final CollisionInspector collisionI = new CollisionInspector(this);
     private final DialogueReader dialogueR = new DialogueReader(this);
@@ -137,6 +160,12 @@ public class GamePanel {
      */
     private boolean debugActive = false;
 
+    /**
+     * Fraction of the next update tick that has elapsed as of the frame currently being rendered.
+     * Positions are drawn this far between where they were at the start and end of the last update tick.
+     */
+    private float interpolationAlpha = 1;
+
 
     // IN-GAME SETTINGS
     /**
@@ -239,6 +268,7 @@ public class GamePanel {
      */
     public void update(double dt) {
 
+        recordTickPositions();                                                                                          // Positions to interpolate from when rendering.
         entityM.updateInput(dt);                                                                                        // Player input.
         fadeS.update(dt);                                                                                               // Fade effect.
         transitionS.update(dt);                                                                                         // Transition effect.
@@ -259,11 +289,17 @@ public class GamePanel {
 
 
     /**
-     * Sends necessary items to the render pipeline and renders them.
+     * Sends necessary items to the render pipeline, recording them into a frame to be drawn by the render thread.
+     * Entity and camera positions are interpolated between the start and end of the last update tick, based on how far
+     * into the next tick this frame falls.
      *
      * @param dt time since last frame (seconds)
+     * @param alpha fraction of the next update tick that has elapsed, from zero (none) to one (all)
      */
-    public void render(double dt) {
+    public void render(double dt, float alpha) {
+
+        interpolationAlpha = alpha;
+        camera.applyInterpolation(alpha);
 
         // NOTE: Drawables are purposefully added to the render pipeline in the following order to control layering.
 
@@ -272,8 +308,47 @@ public class GamePanel {
         addRenderPipelineParticleEffects();
         addRenderPipelineIllustrations();
         addRenderPipelineUserInterface(dt);
-        renderer.render();                                                                                              // Flush the render pipeline to draw the frame.
+        renderer.finishFrame();                                                                                         // Finish recording the frame so that it can be published to be drawn.
         entityList.clear();                                                                                             // Reset/cleanup the list of all entities by emptying it.
+        camera.revertInterpolation();
+    }
+
+
+    /**
+     * Saves any caches built up this session so that later launches can load them.
+     */
+    public void saveCaches() {
+
+        renderer.saveFontCaches();
+    }
+
+
+    /**
+     * Records the current positions of the camera and all loaded entities as their positions at the start of an update
+     * tick.
+     */
+    private void recordTickPositions() {
+
+        camera.recordTickPosition();
+
+        for (EntityBase entity : entityM.getObj().values()) {
+            if (entity != null) {
+                entity.recordTickPosition();
+            }
+        }
+
+        for (EntityBase entity : entityM.getNpc().values()) {
+            if (entity != null) {
+                entity.recordTickPosition();
+            }
+        }
+
+        for (EntityBase entity : entityM.getParty().values()) {
+            if (entity != null) {
+                entity.recordTickPosition();
+            }
+        }
+        entityM.getPlayer().recordTickPosition();
     }
 
 
@@ -373,6 +448,7 @@ public class GamePanel {
      */
     private void addRenderPipelineUserInterface(double dt) {
 
+        ui.trackFrameRate(dt);
         ui.addToRenderPipeline(renderer);
     }
 
@@ -383,6 +459,8 @@ public class GamePanel {
     private void loadResources() {
 
         loadShaders();
+        AssetPool.setAtlasEnabled(true);                                                                                // Pack spritesheets onto shared pages so that batches rarely split by texture.
+        AssetPool.setIndexedEnabled(true);                                                                              // Load low-color spritesheets as one byte per pixel where converted.
         loadTileSpritesheet();                                                                                          // Spritesheet 0.
         loadCharacterSpritesheet();                                                                                     // Spritesheet 1.
         loadLandmarkSpritesheet();                                                                                      // Spritesheet 2.
@@ -395,13 +473,15 @@ public class GamePanel {
 
 
     /**
-     * Loads shader resources into memory.
+     * Loads shader resources, and the palette table that they sample, into memory.
      */
     private void loadShaders() {
 
         AssetPool.getShader("/shaders/default.glsl");
         AssetPool.getShader("/shaders/rounded.glsl");
         AssetPool.getShader("/shaders/font.glsl");
+        AssetPool.getShader("/shaders/tilemap.glsl");
+        AssetPool.getPaletteTable();                                                                                    // Created now so that it is never first requested by the render thread.
     }
 
 
@@ -430,16 +510,7 @@ public class GamePanel {
      */
     private void loadLandmarkSpritesheet() {
 
-        String filePath = "/spritesheets/landmarks.png";
-        int[] widths = new int[] {32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32,
-                32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32,
-                32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 128, 128, 128, 128, 96, 96, 96, 96, 32,
-                32, 64, 64, 32, 32, 38, 38, 38, 38, 32, 32, 32, 32, 32, 32};
-        int[] heights = new int[] {32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32,
-                32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32,
-                32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 32, 64, 64, 64, 64, 64, 64, 64, 64, 72, 72,
-                32, 32, 64, 64, 40, 40, 40, 40, 32, 32, 32, 32, 32, 32};
-        AssetPool.addSpritesheet("landmarks", new Spritesheet(AssetPool.getTexture(filePath), 87, widths, heights, 1));
+        AssetPool.addSpritesheet("landmarks", JsonParser.loadSpritesheetJson("/spritesheets/packed/landmarks.json"));
     }
 
 
@@ -458,10 +529,7 @@ public class GamePanel {
      */
     private void loadIconSpritesheet() {
 
-        String filePath = "/spritesheets/icons.png";
-        int[] widths = new int[] {152, 152, 10, 10, 40, 36, 36, 28, 28, 28, 28, 28, 28, 6, 6, 6, 6};
-        int[] heights = new int[] {58, 58, 8, 8, 40, 36, 36, 28, 28, 28, 28, 28, 28, 10, 10, 10, 10};
-        AssetPool.addSpritesheet("icons", new Spritesheet(AssetPool.getTexture(filePath), 17, widths, heights, 1));
+        AssetPool.addSpritesheet("icons", JsonParser.loadSpritesheetJson("/spritesheets/packed/icons.json"));
     }
 
 
@@ -470,10 +538,7 @@ public class GamePanel {
      */
     private void loadMiscellaneousSpritesheet() {
 
-        String filePath = "/spritesheets/miscellaneous.png";
-        int[] widths = new int[] {48, 48, 14, 6, 10, 12, 24};
-        int[] heights = new int[] {20, 10, 18, 10, 6, 8, 12};
-        AssetPool.addSpritesheet("miscellaneous", new Spritesheet(AssetPool.getTexture(filePath), 7, widths, heights, 1));
+        AssetPool.addSpritesheet("miscellaneous", JsonParser.loadSpritesheetJson("/spritesheets/packed/miscellaneous.json"));
     }
 
 
@@ -548,14 +613,37 @@ public class GamePanel {
         eEqualsEnterSetting.addOption("Disabled");
         eEqualsEnterSetting.addOption("Enabled");
         systemSettings.add(eEqualsEnterSetting);
+
+        Setting tileRendererSetting = new Setting("Tile Renderer", "Sets whether tiles are drawn in chunks or entirely by a shader.");
+        tileRendererSetting.addOption("Chunked");
+        tileRendererSetting.addOption("Shader");
+        tileRendererSetting.addListener(event -> tileM.setShaderRendererSelected(event.getValue() == 1));
+        systemSettings.add(tileRendererSetting);
+
+        Setting integerScalingSetting = new Setting("Integer Scaling", "Upscales the game by whole numbers only for evenly sized pixels.");
+        integerScalingSetting.addOption("Disabled");
+        integerScalingSetting.addOption("Enabled");
+        systemSettings.add(integerScalingSetting);
     }
 
 
     // GETTERS
+    public Renderer getRenderer() {
+        return renderer;
+    }
+
     public Camera getCamera() {
         return camera;
     }
 
+    public FramePacer getFramePacer() {
+        return framePacer;
+    }
+
+    public float getInterpolationAlpha() {
+        return interpolationAlpha;
+    }
+
     public SubMenuHandler getSubMenuH() {
         return subMenuH;
     }
@@ -14,6 +14,8 @@ import org.lwjgl.openal.ALC;
 import org.lwjgl.openal.ALCCapabilities;
 import org.lwjgl.openal.ALCapabilities;
 import org.lwjgl.opengl.GL;
+import render.Framebuffer;
+import render.GlTaskQueue;
 import utility.UtilityTool;
 
 import java.nio.ByteBuffer;
@@ -21,6 +23,7 @@ import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.concurrent.locks.LockSupport;
 
 import static org.lwjgl.glfw.Callbacks.glfwFreeCallbacks;
 import static org.lwjgl.glfw.GLFW.*;
@@ -33,6 +36,9 @@ import static org.lwjgl.system.MemoryUtil.NULL;
 
 /**
  * Core class for the game that creates the window, houses the main game loop, and initializes the game itself.
+ * Once the main game loop starts, the thread running it (the update thread) polls input, updates game logic, and
+ * records each frame, while a separate render thread owns the OpenGL context and draws each recorded frame.
+ * Frame N is therefore drawn while frame N + 1 is being simulated and recorded.
  */
 public class Window {
 
@@ -64,8 +70,30 @@ public class Window {
 
     /**
      * Boolean indicating whether the main game loop is running (true) or not (false).
+     * This is shared between the update thread and the render thread.
      */
-    private boolean running = false;
+    private volatile boolean running = false;
+
+    /**
+     * Thread running the main game loop (i.e., polling input, updating game logic, and recording frames).
+     */
+    private Thread updateThread;
+
+    /**
+     * Thread that owns the OpenGL context while the main game loop is running and draws each recorded frame.
+     */
+    private Thread renderThread;
+
+    /**
+     * Offscreen render target that each frame is drawn to at native resolution before being copied to the window.
+     */
+    private Framebuffer frameBuffer;
+
+    /**
+     * Game time (seconds) that has elapsed but not yet been simulated by an update tick.
+     * This starts at one full tick so that game logic is updated at least once before the first frame is rendered.
+     */
+    private double tickAccumulator = 1.0 / GamePanel.TICK_RATE;
 
 
     // SYSTEM SETTINGS
@@ -84,6 +112,11 @@ public class Window {
      */
     private boolean fullScreenEnabled = false;
 
+    /**
+     * Boolean tracking whether frames are only upscaled to the window by whole-number factors (true) or not (false).
+     */
+    private boolean integerScalingEnabled = false;
+
     /**
      * Target frame rate (frames per second).
      */
@@ -111,6 +144,29 @@ public class Window {
      */
     private final Vector2f aspectRatio = new Vector2f(GamePanel.NATIVE_SCREEN_WIDTH, GamePanel.NATIVE_SCREEN_HEIGHT);
 
+    /**
+     * Current window size (width and height).
+     */
+    private final Vector2i windowScale = new Vector2i(GamePanel.NATIVE_SCREEN_WIDTH, GamePanel.NATIVE_SCREEN_HEIGHT);
+
+    /**
+     * Position (bottom-left corner, window pixels) of the region of the window that each frame is upscaled to.
+     */
+    private final Vector2i viewportPos = new Vector2i();
+
+    /**
+     * Size (width and height) of the region of the window that each frame is upscaled to.
+     */
+    private final Vector2i viewportScale = new Vector2i(GamePanel.NATIVE_SCREEN_WIDTH, GamePanel.NATIVE_SCREEN_HEIGHT);
+
+    /**
+     * Snapshot of the window size and the region of the window that each frame is upscaled to (window width, window
+     * height, viewport x, viewport y, viewport width, viewport height), read by the render thread.
+     * The whole array is replaced whenever any value changes, so the render thread never sees a partial update.
+     */
+    private volatile int[] presentRegion = {GamePanel.NATIVE_SCREEN_WIDTH, GamePanel.NATIVE_SCREEN_HEIGHT, 0, 0,
+            GamePanel.NATIVE_SCREEN_WIDTH, GamePanel.NATIVE_SCREEN_HEIGHT};
+
     /**
      * Window title.
      */
@@ -227,6 +283,11 @@ public class Window {
         // This is critical for LWJGL's interpolation with GLFW's OpenGL context.
         // This makes OpenGL bindings available for use.
         GL.createCapabilities();
+        GlTaskQueue.setContextThread(Thread.currentThread());                                                           // OpenGL work during initialization runs immediately.
+
+        // Create offscreen render target.
+        // Frames are drawn at native resolution regardless of window size, then upscaled to the window in one pass.
+        frameBuffer = new Framebuffer(GamePanel.NATIVE_SCREEN_WIDTH, GamePanel.NATIVE_SCREEN_HEIGHT);
     }
 
 
@@ -237,59 +298,47 @@ public class Window {
 
         gp = new GamePanel();
         gp.init();
+        boolean fullScreenRequested = fullScreenEnabled;
+        fullScreenEnabled = false;                                                                                      // Window is always created in windowed mode; the full screen listener enters full screen if requested.
+        addSettingListeners();
         gp.getSystemSetting(0).setActiveOption(vSyncEnabled ? 1 : 0);
         populateFrameRateOptions(generateFrameRateOptions());
         gp.getSystemSetting(2).setActiveOption(gameSpeedTethered ? 1 : 0);
-        gp.getSystemSetting(3).setActiveOption(fullScreenEnabled ? 1 : 0);
-        fullScreenEnabled = fullScreenEnabled ? false : true;
+        gp.getSystemSetting(3).setActiveOption(fullScreenRequested ? 1 : 0);
+        gp.getSystemSetting(6).setActiveOption(integerScalingEnabled ? 1 : 0);
         System.gc();                                                                                                    // Now is a good time for garbage collection by the JVM.
     }
 
 
     /**
      * Starts the main game loop.
+     * The OpenGL context is handed over to the render thread for as long as the main game loop runs.
      */
     public void run() {
 
-        // Set window clear color and alpha blending.
-        glClearColor(r, g, b, a);                                                                                       // Set window clear color.
-        glEnable(GL_BLEND);                                                                                             // Enable blending (alpha values).
-        glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);                                                                    // Set blending function.
+        // Indicate that the main game loop is starting.
+        running = true;
+
+        // Hand the OpenGL context over to the render thread.
+        updateThread = Thread.currentThread();
+        glfwMakeContextCurrent(NULL);                                                                                   // A context may only be current on one thread at a time.
+        renderThread = new Thread(this::runRenderThread, "Render");
+        GlTaskQueue.setContextThread(renderThread);
+        renderThread.start();
 
-        // Initialize variables for tracking time (applicable to both enabled and disabled VSync).
+        // Initialize variables for tracking time.
         // Note that `glfwGetTime()` returns time (seconds) elapsed since GLFW was initialized.
         double currentTime = 0;                                                                                         // Time at the start of the current loop.
         double lastFrameTime = glfwGetTime();                                                                           // Time at the start of the last frame.
         double dtTarget = 0;                                                                                            // Target time between each rendered frame (frame timing).
         double dtActual = 0;                                                                                            // Actual time between each rendered frame (frame timing).
 
-        // Initialize variables for tracking time (applicable to only disabled VSync).
-        double lastLoopTime = glfwGetTime();                                                                            // Time at the start of the last loop.
-        double dtAccumulated = 0;                                                                                       // Accumulated loop time.
-
-        // Indicate that the main game loop is starting.
-        running = true;
-
         // Main game loop.
         while (!glfwWindowShouldClose(glfwWindow) && running) {
 
             // Set current time.
             currentTime = glfwGetTime();
 
-            // Poll for VSync changes.
-            if (pollVSync()) {
-                lastLoopTime = glfwGetTime();
-            }
-
-            // Poll for frame rate limit setting changes.
-            pollFrameRateLimit();
-
-            // Poll for tether game speed setting changes.
-            pollTetherGamedSpeed();
-
-            // Poll for full screen setting changes.
-            pollFullScreen();
-
             // Set target frame pace.
             dtTarget = 1.0 / targetFrameRate;
 
@@ -307,27 +356,37 @@ public class Window {
                 }
             } else {
 
-                dtAccumulated += currentTime - lastLoopTime;
-                lastLoopTime = currentTime;
+                // Wait until the next frame is due.
+                gp.getFramePacer().awaitNextFrame(dtTarget);
+                currentTime = glfwGetTime();
 
-                if (dtAccumulated >= dtTarget) {
-
-                    // Calculate frame pace.
-                    dtActual = currentTime - lastFrameTime;
-                    lastFrameTime = currentTime;
-
-                    // Generate frame.
-                    if (gameSpeedTethered) {
-                        generateFrame(dtTarget, dtActual);
-                    } else {
-                        generateFrame(dtActual, dtActual);
-                    }
+                // Calculate frame pace.
+                dtActual = currentTime - lastFrameTime;
+                lastFrameTime = currentTime;
 
-                    // Iterate frame time.
-                    dtAccumulated -= dtTarget;
+                // Generate frame.
+                if (gameSpeedTethered) {
+                    generateFrame(dtTarget, dtActual);
+                } else {
+                    generateFrame(dtActual, dtActual);
                 }
             }
         }
+
+        // Stop the render thread and take the OpenGL context back to free resources.
+        running = false;
+        LockSupport.unpark(renderThread);
+
+        try {
+
+            renderThread.join();
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+        }
+        glfwMakeContextCurrent(glfwWindow);
+        GlTaskQueue.setContextThread(updateThread);
+        GlTaskQueue.runAll();                                                                                           // Run any OpenGL work submitted after the last frame was drawn.
         terminate();
     }
 
@@ -337,7 +396,15 @@ public class Window {
      */
     public void terminate() {
 
+        // Save caches.
+        if (gp != null) {
+            gp.saveCaches();
+        }
+
         // Free memory.
+        if (frameBuffer != null) {
+            frameBuffer.delete();
+        }
         alcDestroyContext(audioContext);
         alcCloseDevice(audioDevice);
         glfwFreeCallbacks(glfwWindow);
@@ -349,20 +416,100 @@ public class Window {
 
 
     /**
-     * Prepares, polls, updates, and renders a new frame.
+     * Polls, updates, and records a new frame, then publishes it to the render thread to be drawn.
+     * Game logic is updated in fixed ticks (see `GamePanel.TICK_RATE`) until it has caught up with the elapsed game
+     * time, which may take several ticks or none in a given frame.
+     * Any leftover game time not yet simulated is passed to render logic so that positions can be interpolated.
+     * If the render thread has not yet picked up the previously published frame, this waits until it has, so that no
+     * frame is ever skipped and the update thread never gets more than one frame ahead.
      *
-     * @param dtUpdate frame pace to pass to update logic
+     * @param dtUpdate game time elapsed since last frame (seconds)
      * @param dtRender frame pace to pass to render logic
      */
     private void generateFrame(double dtUpdate, double dtRender) {
 
-        // Prepare the frame.
+        // Poll, update, and record.
+        glfwPollEvents();                                                                                               // Poll user input (keyboard, gamepad, etc.).
+        double dtTick = 1.0 / GamePanel.TICK_RATE;
+        int ticks = 0;
+        tickAccumulator += dtUpdate;
+
+        while ((tickAccumulator >= dtTick) && (ticks < GamePanel.MAX_TICKS_PER_FRAME)) {
+
+            gp.update(dtTick);                                                                                          // Update all game logic by one tick.
+            tickAccumulator -= dtTick;
+            ticks++;
+        }
+
+        if (tickAccumulator >= dtTick) {
+
+            tickAccumulator %= dtTick;                                                                                  // Drop game time that could not be caught up on.
+        }
+        gp.render(dtRender, (float)(tickAccumulator / dtTick));                                                         // Record the updated frame.
+
+        // Publish the frame to the render thread.
+        while (gp.getRenderer().isFramePending() && running) {
+
+            LockSupport.park(this);                                                                                     // Woken by the render thread once it picks up the pending frame.
+        }
+        gp.getRenderer().publishFrame();
+        LockSupport.unpark(renderThread);
+    }
+
+
+    /**
+     * Runs the render thread, which owns the OpenGL context and draws each frame published by the update thread.
+     * The OpenGL context is released again once the main game loop stops.
+     */
+    private void runRenderThread() {
+
+        try {
+
+            // Take over the OpenGL context.
+            glfwMakeContextCurrent(glfwWindow);
+            GL.createCapabilities();                                                                                    // OpenGL bindings are made available per thread.
+
+            // Set window clear color and alpha blending.
+            glClearColor(r, g, b, a);                                                                                   // Set window clear color.
+            glEnable(GL_BLEND);                                                                                         // Enable blending (alpha values).
+            glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);                                                          // Set blending function.
+
+            while (running) {
+
+                if (!gp.getRenderer().acquireFrame()) {
+
+                    LockSupport.park(this);                                                                             // Woken by the update thread once it publishes a frame.
+                    continue;
+                }
+                LockSupport.unpark(updateThread);                                                                       // Update thread may now publish the next frame.
+                drawFrame();
+            }
+        } finally {
+
+            running = false;
+            LockSupport.unpark(updateThread);
+            glfwMakeContextCurrent(NULL);
+        }
+    }
+
+
+    /**
+     * Draws the most recently acquired frame and presents it to the window.
+     * This may only be called by the render thread.
+     */
+    private void drawFrame() {
+
+        // Draw the frame.
+        frameBuffer.bind();                                                                                             // Draw to the offscreen render target at native resolution.
         glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);                                                             // Tell OpenGL how to clear the framebuffer.
+        gp.getRenderer().drawFrame();
 
-        // Poll, update, and render.
-        glfwPollEvents();                                                                                               // Poll user input (keyboard, gamepad, etc.).
-        gp.update(dtUpdate);                                                                                            // Update all game logic by one frame.
-        gp.render(dtRender);                                                                                            // Render the updated frame.
+        // Upscale the frame to the window.
+        int[] region = presentRegion;
+        frameBuffer.unbind();
+        glViewport(0, 0, region[0], region[1]);
+        glClear(GL_COLOR_BUFFER_BIT);                                                                                   // Clear bars around the upscaled frame.
+        frameBuffer.blitToWindow(region[2], region[3], region[4], region[5]);
 
         // Empty buffers.
         glfwSwapBuffers(glfwWindow);
@@ -377,20 +524,10 @@ public class Window {
      */
     private void resizeWindow(int width, int height) {
 
-        int viewportWidth;
-        int viewportHeight;
-
-        if (((float)width / height) > (aspectRatio.x / aspectRatio.y)) {
-
-            viewportWidth = (int)((aspectRatio.x / aspectRatio.y) * height);
-            viewportHeight = height;
-        } else {
-
-            viewportWidth = width;
-            viewportHeight = (int)((aspectRatio.y / aspectRatio.x) * width);
-        }
         glfwSetWindowSize(glfwWindow, width, height);
-        glViewport(((width - viewportWidth) / 2), ((height - viewportHeight) / 2), viewportWidth, viewportHeight);
+        windowScale.x = width;
+        windowScale.y = height;
+        updateViewport();
         monitorRefreshRate = getRefreshRate();
 
         if (running) {
@@ -399,6 +536,42 @@ public class Window {
     }
 
 
+    /**
+     * Recalculates the region of the window that each frame is upscaled to.
+     * The region is centered in the window and keeps the native aspect ratio.
+     * If integer scaling is enabled, the region is further shrunk to the largest whole-number multiple of native
+     * resolution that fits, so that every native pixel covers the same number of window pixels.
+     */
+    private void updateViewport() {
+
+        int width = windowScale.x;
+        int height = windowScale.y;
+
+        if ((width <= 0) || (height <= 0)) {                                                                            // Window is minimized.
+
+            return;
+        }
+
+        if (integerScalingEnabled) {
+
+            int scale = Math.max(1, Math.min(width / (int)aspectRatio.x, height / (int)aspectRatio.y));
+            viewportScale.x = (int)aspectRatio.x * scale;
+            viewportScale.y = (int)aspectRatio.y * scale;
+        } else if (((float)width / height) > (aspectRatio.x / aspectRatio.y)) {
+
+            viewportScale.x = (int)((aspectRatio.x / aspectRatio.y) * height);
+            viewportScale.y = height;
+        } else {
+
+            viewportScale.x = width;
+            viewportScale.y = (int)((aspectRatio.y / aspectRatio.x) * width);
+        }
+        viewportPos.x = (width - viewportScale.x) / 2;
+        viewportPos.y = (height - viewportScale.y) / 2;
+        presentRegion = new int[] {width, height, viewportPos.x, viewportPos.y, viewportScale.x, viewportScale.y};
+    }
+
+
     /**
      * Repositions the window.
      *
@@ -528,79 +701,45 @@ public class Window {
 
 
     /**
-     * Polls for changes in VSync in system settings.
-     * If a change has occurred, it is immediately applied.
-     *
-     * @return whether a change has occurred (true) or not (false)
+     * Registers listeners that apply changes in system settings as soon as they are made.
      */
-    private boolean pollVSync() {
-
-        if ((gp.getSystemSetting(0).getActiveOption() == 0) && vSyncEnabled) {
-
-            vSyncEnabled = false;
-            glfwSwapInterval(0);
-            populateFrameRateOptions(generateFrameRateOptions());
-            return true;
-        } else if ((gp.getSystemSetting(0).getActiveOption() == 1) && !vSyncEnabled) {
+    private void addSettingListeners() {
 
-            vSyncEnabled = true;
-            glfwSwapInterval(1);
-            populateFrameRateOptions(generateFrameRateOptions());
-            return true;
-        }
-        return false;
+        gp.getSystemSetting(0).addListener(event -> applyVSync(event.isEnabled()));
+        gp.getSystemSetting(1).addListener(event -> targetFrameRate = event.getValue());
+        gp.getSystemSetting(2).addListener(event -> gameSpeedTethered = event.isEnabled());
+        gp.getSystemSetting(3).addListener(event -> applyFullScreen(event.isEnabled()));
+        gp.getSystemSetting(6).addListener(event -> applyIntegerScaling(event.isEnabled()));
     }
 
 
     /**
-     * Polls for changes in frame rate limit in system settings.
-     * If a change has occurred, it is immediately applied.
+     * Enables or disables VSync.
+     * The list of allowable frame rate limits is regenerated to match.
      *
-     * @return whether a change has occurred (true) or not (false)
+     * @param enabled whether to enable VSync (true) or disable it (false)
      */
-    private boolean pollFrameRateLimit() {
+    private void applyVSync(boolean enabled) {
 
-        int activeOption = Integer.parseInt(gp.getSystemSetting(1).getOption(gp.getSystemSetting(1).getActiveOption()));
-
-        if (activeOption != targetFrameRate) {
-
-            targetFrameRate = activeOption;
-            return true;
-        }
-        return false;
-    }
+        if (enabled != vSyncEnabled) {
 
-
-    /**
-     * Polls for changes in tether game speed in system settings.
-     * If a change has occurred, it is immediately applied.
-     *
-     * @return whether a change has occurred (true) or not (false)
-     */
-    private boolean pollTetherGamedSpeed() {
-
-        if ((gp.getSystemSetting(2).getActiveOption() == 0) && gameSpeedTethered) {
-
-            gameSpeedTethered = false;
-            return true;
-        } else if ((gp.getSystemSetting(2).getActiveOption() == 1) && !gameSpeedTethered) {
-
-            gameSpeedTethered = true;
-            return true;
+            vSyncEnabled = enabled;
+            GlTaskQueue.submit(() -> glfwSwapInterval(enabled ? 1 : 0));                                                // Swap interval applies to the current context, owned by the render thread.
+            populateFrameRateOptions(generateFrameRateOptions());
+            gp.getFramePacer().reset();
         }
-        return false;
     }
 
 
     /**
-     * Polls for changes in full screen in system settings.
-     * If a change has occurred, it is immediately applied.
+     * Enters or exits full screen mode.
+     * When entering, the current window position and size are stored so that they can be restored once exited.
      *
-     * @return whether a change has occurred (true) or not (false)
+     * @param enabled whether to enter full screen mode (true) or exit it (false)
      */
-    private boolean pollFullScreen() {
+    private void applyFullScreen(boolean enabled) {
 
-        if ((gp.getSystemSetting(3).getActiveOption() == 0) && fullScreenEnabled) {
+        if (!enabled && fullScreenEnabled) {
 
             long monitor = getClosestMonitor();
             GLFWVidMode videoModeMonitor = glfwGetVideoMode(monitor);
@@ -612,8 +751,7 @@ public class Window {
             tempWindowPos.y = 0;
             tempWindowScale.x = 0;
             tempWindowScale.y = 0;
-            return true;
-        } else if ((gp.getSystemSetting(3).getActiveOption() == 1) && !fullScreenEnabled) {
+        } else if (enabled && !fullScreenEnabled) {
 
             long monitor = getClosestMonitor();
             GLFWVidMode videoModeMonitor = glfwGetVideoMode(monitor);
@@ -634,9 +772,22 @@ public class Window {
 
             glfwSetWindowMonitor(glfwWindow, monitor, 0, 0, videoModeMonitor.width(), videoModeMonitor.height(), videoModeMonitor.refreshRate());
             fullScreenEnabled = true;
-            return true;
         }
-        return false;
+    }
+
+
+    /**
+     * Enables or disables integer scaling when upscaling frames to the window.
+     *
+     * @param enabled whether to enable integer scaling (true) or disable it (false)
+     */
+    private void applyIntegerScaling(boolean enabled) {
+
+        if (enabled != integerScalingEnabled) {
+
+            integerScalingEnabled = enabled;
+            updateViewport();
+        }
     }
 
 
@@ -669,15 +820,16 @@ public class Window {
     private void populateFrameRateOptions(ArrayList<Integer> frameRateOptions) {
 
         boolean activeOptionApplied = false;
-        String activeOption = gp.getSystemSetting(1).getOption(gp.getSystemSetting(1).getActiveOption());
+        boolean hadOptions = gp.getSystemSetting(1).getOptionsSize() > 0;
+        int activeValue = gp.getSystemSetting(1).getActiveValue();
         gp.getSystemSetting(1).removeAllOptions();
         int index = 0;
 
         for (int option : frameRateOptions) {
 
-            gp.getSystemSetting(1).addOption(String.valueOf(option));
+            gp.getSystemSetting(1).addOption(String.valueOf(option), option);
 
-            if ((activeOption != null) && (option == Integer.parseInt(activeOption))) {
+            if (hadOptions && (option == activeValue)) {
 
                 gp.getSystemSetting(1).setActiveOption(index);
                 activeOptionApplied = true;
@@ -133,6 +133,13 @@ public abstract class EntityBase extends Drawable {
      */
     protected float worldXLast, worldYLast;
 
+    /**
+     * Entity's world position at the start of the current update tick.
+     * When rendered, the entity is drawn between this and its current world position depending on how far into the
+     * next tick the frame falls, so that motion stays smooth even when frames and ticks do not line up.
+     */
+    protected float worldXTick, worldYTick;
+
     /**
      * Current direction that this entity is facing.
      * Among other things, this determines which directional sprite to render.
@@ -614,6 +621,17 @@ public abstract class EntityBase extends Drawable {
     }
 
 
+    /**
+     * Records this entity's current world position as its position at the start of an update tick.
+     * This should be called at the start of each update tick, before any game logic runs.
+     */
+    public void recordTickPosition() {
+
+        worldXTick = worldX;
+        worldYTick = worldY;
+    }
+
+
     /**
      * Cancels this entity's current action (i.e., exits its current state of motion and returns to its
      * previous tile, if applicable).
@@ -1130,8 +1148,8 @@ public abstract class EntityBase extends Drawable {
 
             int worldXAdjustment = (GamePanel.NATIVE_TILE_SIZE / 2) - (sprite.getNativeWidth() / 2);                    // Amount in the x-direction that the sprite needs to be adjusted when rendered; ensures sprite is centered on occupied tile.
             int worldYAdjustment = -sprite.getNativeHeight() + GamePanel.NATIVE_TILE_SIZE;                              // Amount in the y-direction that the sprite needs to be adjusted when rendered; ensures bottom of sprite touches bottom of occupied tile.
-            transform.position.x = worldX + worldXAdjustment;
-            transform.position.y = worldY + worldYAdjustment;
+            transform.position.x = getRenderWorldX() + worldXAdjustment;
+            transform.position.y = getRenderWorldY() + worldYAdjustment;
             transform.scale.x = sprite.getNativeWidth();
             transform.scale.y = sprite.getNativeHeight();
 
@@ -1153,6 +1171,30 @@ public abstract class EntityBase extends Drawable {
     }
 
 
+    /**
+     * Retrieves the world x-coordinate at which to draw this entity in the current frame.
+     *
+     * @return world x-coordinate, interpolated between the start and end of the last update tick
+     */
+    protected float getRenderWorldX() {
+
+        return UtilityTool.interpolate(worldXTick, worldX, gp.getInterpolationAlpha(),
+                GamePanel.MAX_INTERPOLATION_DISTANCE);
+    }
+
+
+    /**
+     * Retrieves the world y-coordinate at which to draw this entity in the current frame.
+     *
+     * @return world y-coordinate, interpolated between the start and end of the last update tick
+     */
+    protected float getRenderWorldY() {
+
+        return UtilityTool.interpolate(worldYTick, worldY, gp.getInterpolationAlpha(),
+                GamePanel.MAX_INTERPOLATION_DISTANCE);
+    }
+
+
     /**
      * Adds this entity to the render pipeline (faint sprites).
      * A complete combat faint sprite spans across two sprites, which must both be added to the render pipeline, side by
@@ -1175,8 +1217,8 @@ public abstract class EntityBase extends Drawable {
                     setCombatFaintSpriteOne();
                     break;
             }
-            transform.position.x = worldX + worldXAdjustment;
-            transform.position.y = worldY + worldYAdjustment;
+            transform.position.x = getRenderWorldX() + worldXAdjustment;
+            transform.position.y = getRenderWorldY() + worldYAdjustment;
             transform.scale.x = sprite.getNativeWidth();
             transform.scale.y = sprite.getNativeHeight();
 
@@ -1195,7 +1237,7 @@ public abstract class EntityBase extends Drawable {
                     setCombatFaintSpriteTwo();
                     break;
             }
-            transform.position.x = worldX + worldXAdjustment;
+            transform.position.x = getRenderWorldX() + worldXAdjustment;
 
             if (gp.getCamera().isInCameraView(this)) {
 
@@ -107,6 +107,12 @@ public class Player extends EntityBase {
      */
     private final LimitedArrayList<ItemBase> inventory = new LimitedArrayList<>(20);
 
+    /**
+     * Number of times the contents of the player's inventory (items or their amounts) have changed.
+     * Anything displaying the inventory can compare against this value to tell whether it is out of date.
+     */
+    private int inventoryRevision;
+
 
     // CONSTRUCTOR
     public Player(GamePanel gp) {
@@ -221,6 +227,7 @@ public class Player extends EntityBase {
                 if (currentAmount != inventory.get(index).getMaxStackAmount()) {                                        // Only add another of the item if the maximum stackable amount hasn't already been reached.
 
                     inventory.get(index).setAmount(currentAmount + 1);                                                  // Add another of the item to the player's inventory.
+                    inventoryRevision++;
                     obtainable = true;
                 }
             } else {                                                                                                    // Item does not already exist in the inventory, so begin a new stack.
@@ -228,6 +235,7 @@ public class Player extends EntityBase {
                 if (inventory.size() != inventory.maxCapacity()) {                                                      // If the player's inventory is already full, don't add the item.
 
                     inventory.add(gp.getItemM().retrieveNewInstance(itemId));
+                    inventoryRevision++;
                     obtainable = true;
                 }
             }
@@ -236,6 +244,7 @@ public class Player extends EntityBase {
             if (inventory.size() != inventory.maxCapacity()) {                                                          // If the player's inventory is already full, don't add the item.
 
                 inventory.add(gp.getItemM().retrieveNewInstance(itemId));
+                inventoryRevision++;
                 obtainable = true;
             }
         }
@@ -265,6 +274,7 @@ public class Player extends EntityBase {
 
                 inventory.remove(index);
             }
+            inventoryRevision++;
             removable = true;
         }
         return removable;
@@ -1414,6 +1424,10 @@ public class Player extends EntityBase {
         return inventory;
     }
 
+    public int getInventoryRevision() {
+        return inventoryRevision;
+    }
+
 
     // SETTER
     public void setInteractionCountdown(double interactionCountdown) {
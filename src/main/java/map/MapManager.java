@@ -63,6 +63,9 @@ public class MapManager {
         // Set map state and swap track, if applicable.
         loadedMap.setMapState(mapState, swapTrack);
 
+        // Bake map tiles into static chunks.
+        gp.getTileM().bakeChunks();
+
         // Calculate landmark collision on map.
         gp.getLandmarkM().calculateGlobalLandmarkCollision();
 
@@ -96,6 +99,9 @@ public class MapManager {
         loadedMap = new Map(gp);
         loadedMap.setTrack(0, Sound.NO_TRACK);
         loadedMap.setMapState(0, true);
+
+        // Bake map tiles into static chunks.
+        gp.getTileM().bakeChunks();
     }
 
 
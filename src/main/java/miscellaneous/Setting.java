@@ -2,8 +2,14 @@ package miscellaneous;
 
 import utility.LimitedArrayList;
 
+import java.util.ArrayList;
+
 /**
  * This class defines a setting in the settings menu section of the in-game menu.
+ * Each option carries a numeric value alongside its label (e.g., a frame rate, or zero and one for "Disabled" and
+ * "Enabled").
+ * Registered listeners are notified whenever the value of the active option changes, so that interested systems need
+ * not check this setting every frame.
  */
 public class Setting {
 
@@ -23,11 +29,26 @@ public class Setting {
      */
     private final LimitedArrayList<String> options = new LimitedArrayList<>(10);
 
+    /**
+     * Numeric value of each setting field option.
+     */
+    private final LimitedArrayList<Integer> values = new LimitedArrayList<>(10);
+
     /**
      * Active option index.
      */
     private int activeOption;
 
+    /**
+     * Value of the active option as of the last change notification sent to listeners.
+     */
+    private int activeValue;
+
+    /**
+     * Listeners to notify whenever the value of the active option changes.
+     */
+    private final ArrayList<SettingListener> listeners = new ArrayList<>();
+
 
     // CONSTRUCTOR
     /**
@@ -45,12 +66,38 @@ public class Setting {
     // METHODS
     /**
      * Adds a new options to the list of available options for this setting.
+     * The value of the option is the position at which it is added (i.e., zero for the first option, one for the
+     * second, etc.).
      *
      * @param option item to add
      */
     public void addOption(String option) {
 
+        addOption(option, options.size());
+    }
+
+
+    /**
+     * Adds a new option with a specific value to the list of available options for this setting.
+     *
+     * @param option item to add
+     * @param value numeric value of item
+     */
+    public void addOption(String option, int value) {
+
         options.add(option);
+        values.add(value);
+    }
+
+
+    /**
+     * Registers a listener to be notified whenever the value of the active option changes.
+     *
+     * @param listener listener to register
+     */
+    public void addListener(SettingListener listener) {
+
+        listeners.add(listener);
     }
 
 
@@ -67,10 +114,12 @@ public class Setting {
             if (options.get(i).equals(option)) {
 
                 options.remove(i);
+                values.remove(i);
 
                 if (activeOption == i) {
 
                     activeOption = 0;
+                    notifyIfChanged();
                 }
             }
         }
@@ -83,10 +132,34 @@ public class Setting {
     public void removeAllOptions() {
 
         options.clear();
+        values.clear();
         activeOption = 0;
     }
 
 
+    /**
+     * Notifies all registered listeners if the value of the active option differs from when they were last notified.
+     * Nothing happens if there are no options.
+     */
+    private void notifyIfChanged() {
+
+        if (activeOption < values.size()) {
+
+            int value = values.get(activeOption);
+
+            if (value != activeValue) {
+
+                SettingChangeEvent event = new SettingChangeEvent(this, activeValue, value);
+                activeValue = value;
+
+                for (SettingListener listener : listeners) {
+                    listener.settingChanged(event);
+                }
+            }
+        }
+    }
+
+
     // GETTERS
     public String getLabel() {
         return label;
@@ -111,12 +184,17 @@ public class Setting {
         return activeOption;
     }
 
+    public int getActiveValue() {
+        return activeValue;
+    }
+
 
     // SETTER
     public void setActiveOption(int activeOption) {
 
         if ((activeOption < options.size()) && (activeOption >= 0)) {
             this.activeOption = activeOption;
+            notifyIfChanged();
         }
     }
 }
@@ -0,0 +1,65 @@
+package miscellaneous;
+
+/**
+ * This class describes a change in the value of a setting, as delivered to setting listeners.
+ */
+public class SettingChangeEvent {
+
+    // FIELDS
+    /**
+     * Setting whose value changed.
+     */
+    private final Setting setting;
+
+    /**
+     * Value of the previously active option.
+     */
+    private final int previousValue;
+
+    /**
+     * Value of the newly active option.
+     */
+    private final int value;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a SettingChangeEvent instance.
+     *
+     * @param setting setting whose value changed
+     * @param previousValue value of the previously active option
+     * @param value value of the newly active option
+     */
+    public SettingChangeEvent(Setting setting, int previousValue, int value) {
+        this.setting = setting;
+        this.previousValue = previousValue;
+        this.value = value;
+    }
+
+
+    // METHODS
+    /**
+     * Determines whether the newly active option is enabled, for settings with "Disabled" (zero) and "Enabled" (one)
+     * options.
+     *
+     * @return whether the setting is enabled (true) or not (false)
+     */
+    public boolean isEnabled() {
+
+        return value != 0;
+    }
+
+
+    // GETTERS
+    public Setting getSetting() {
+        return setting;
+    }
+
+    public int getPreviousValue() {
+        return previousValue;
+    }
+
+    public int getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,16 @@
+package miscellaneous;
+
+/**
+ * This interface defines a listener that is notified whenever the value of a setting changes.
+ */
+@FunctionalInterface
+public interface SettingListener {
+
+    // METHODS
+    /**
+     * Called when the value of a setting this listener is registered to has changed.
+     *
+     * @param event details of the change
+     */
+    void settingChanged(SettingChangeEvent event);
+}
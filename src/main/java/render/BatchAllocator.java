@@ -0,0 +1,214 @@
+package render;
+
+import asset.Texture;
+import core.GamePanel;
+import render.drawable.DrawableBatch;
+import render.enumeration.ZIndex;
+import utility.UtilityTool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class allocates batches of drawables to the render pipeline.
+ * Each layer keeps a single open batch (i.e., the most recently allocated batch on that layer) that incoming drawables
+ * are placed in, so finding a target batch never requires scanning other batches.
+ * Batches are recycled across frames and trimmed when they have not been needed for a while.
+ */
+public class BatchAllocator {
+
+    // FIELDS
+    private final GamePanel gp;
+
+    /**
+     * File path of shader attached to all batches allocated by this allocator.
+     */
+    private final String shaderFilePath;
+
+    /**
+     * Number of consecutive frames a recycled batch may go unused before it is freed from memory.
+     */
+    private static final int MAX_IDLE_FRAMES = 300;
+
+    /**
+     * Batches that have been allocated this frame.
+     */
+    private final ArrayList<DrawableBatch> activeBatches = new ArrayList<>();
+
+    /**
+     * Open batch on each layer (indexed by ZIndex ordinal), or null if no batch is open on a layer.
+     */
+    private final DrawableBatch[] openBatches = new DrawableBatch[ZIndex.values().length];
+
+    /**
+     * Batches that are currently not allocated and available for reuse.
+     */
+    private final ArrayList<DrawableBatch> freeBatches = new ArrayList<>();
+
+    /**
+     * Frame (see `frameCount`) in which each batch in the free list was released.
+     * Each entry corresponds to the batch at the same index in the free list; entries past the size of the free list
+     * are unused.
+     */
+    private int[] freeBatchReleaseFrames = new int[16];
+
+    /**
+     * Number of times batches have been released (i.e., number of frames rendered).
+     */
+    private int frameCount;
+
+    /**
+     * Total number of batches that have been created.
+     */
+    private int createdCount;
+
+    /**
+     * Total number of times a batch has been reused from the free list instead of being created.
+     */
+    private int reusedCount;
+
+    /**
+     * Total number of batches that have been freed from memory after going unused.
+     */
+    private int freedCount;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a BatchAllocator instance.
+     *
+     * @param gp GamePanel instance
+     * @param shaderFilePath file path of shader to attach to all allocated batches
+     */
+    public BatchAllocator(GamePanel gp, String shaderFilePath) {
+        this.gp = gp;
+        this.shaderFilePath = shaderFilePath;
+    }
+
+
+    // METHODS
+    /**
+     * Retrieves a batch that a drawable with the specified texture can be added to on the specified layer.
+     * The open batch on the layer is returned if it has room for the drawable; otherwise, a new batch is opened.
+     * Drawables on the same layer are therefore always rendered in the order in which they were added.
+     *
+     * @param texture texture of the drawable to add (may be null)
+     * @param zIndex layer on which to render
+     * @return batch to add the drawable to
+     */
+    public DrawableBatch allocate(Texture texture, ZIndex zIndex) {
+
+        DrawableBatch batch = openBatches[zIndex.ordinal()];
+
+        if ((batch == null)
+                || !batch.hasRoom()
+                || ((texture != null) && !batch.hasTexture(texture) && !batch.hasTextureRoom())) {
+
+            batch = obtainBatch();
+            batch.setzIndex(zIndex);
+            activeBatches.add(batch);
+            openBatches[zIndex.ordinal()] = batch;
+        }
+        return batch;
+    }
+
+
+    /**
+     * Returns all batches allocated this frame to the free list so that they can be reused next frame.
+     * This should be called once per frame after all allocated batches have been flushed.
+     * Any batches that have gone unused for too long are freed from memory.
+     */
+    public void release() {
+
+        frameCount++;
+
+        if (freeBatches.size() + activeBatches.size() > freeBatchReleaseFrames.length) {
+            freeBatchReleaseFrames = Arrays.copyOf(freeBatchReleaseFrames,
+                    Math.max(freeBatchReleaseFrames.length * 2, freeBatches.size() + activeBatches.size()));
+        }
+
+        for (DrawableBatch batch : activeBatches) {
+            freeBatchReleaseFrames[freeBatches.size()] = frameCount;
+            freeBatches.add(batch);
+        }
+        activeBatches.clear();
+        closeOpenBatches();
+        trim();
+    }
+
+
+    /**
+     * Closes the open batch on each layer so that drawables allocated from this point on are placed in new batches.
+     * This keeps drawables recorded for different render targets (e.g., a cached layer) out of each other's batches.
+     */
+    public void closeOpenBatches() {
+
+        for (int i = 0; i < openBatches.length; i++) {
+            openBatches[i] = null;
+        }
+    }
+
+
+    /**
+     * Obtains a batch, either by reusing one from the free list or by creating a new one.
+     * The most recently released batch is reused first.
+     *
+     * @return batch
+     */
+    private DrawableBatch obtainBatch() {
+
+        int last = freeBatches.size() - 1;
+
+        if (last >= 0) {
+
+            reusedCount++;
+            return freeBatches.remove(last);
+        }
+        createdCount++;
+        return new DrawableBatch(gp, shaderFilePath);
+    }
+
+
+    /**
+     * Frees batches in the free list that have gone unused for longer than the maximum number of idle frames.
+     * Since the most recently released batches are always at the end of the free list, the idle batches are at the
+     * front.
+     */
+    private void trim() {
+
+        int numToFree = 0;
+
+        while ((numToFree < freeBatches.size())
+                && ((frameCount - freeBatchReleaseFrames[numToFree]) > MAX_IDLE_FRAMES)) {
+            freeBatches.get(numToFree).delete();
+            numToFree++;
+        }
+
+        if (numToFree > 0) {
+
+            System.arraycopy(freeBatchReleaseFrames, numToFree, freeBatchReleaseFrames, 0,
+                    freeBatches.size() - numToFree);
+            freeBatches.subList(0, numToFree).clear();
+            freedCount += numToFree;
+
+            if (UtilityTool.VERBOSE_LOGGING) {
+                UtilityTool.logInfo("Freed " + numToFree + " idle drawable batch(es); "
+                        + "created: " + createdCount + ", reused: " + reusedCount + ", freed: " + freedCount + ".");
+            }
+        }
+    }
+
+
+    // GETTERS
+    public int getCreatedCount() {
+        return createdCount;
+    }
+
+    public int getReusedCount() {
+        return reusedCount;
+    }
+
+    public int getFreedCount() {
+        return freedCount;
+    }
+}
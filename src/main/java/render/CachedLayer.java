@@ -0,0 +1,210 @@
+package render;
+
+import asset.AssetPool;
+import asset.Shader;
+import core.GamePanel;
+import org.joml.Vector4f;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL14.glBlendFuncSeparate;
+import static org.lwjgl.opengl.GL30.*;
+
+/**
+ * This class caches drawables and text that rarely change (e.g., an open menu panel) in an offscreen texture covering
+ * a fixed region of the screen.
+ * Contents are only redrawn into the texture after this layer has been invalidated; otherwise, rendering this layer
+ * costs a single textured quad covering its region, no matter how many drawables and strings it contains.
+ * Anything drawn outside the region of this layer is clipped.
+ * Contents are stored with premultiplied alpha so that translucent drawables composite onto the frame exactly as if
+ * they had been drawn to it directly.
+ * Since the texture covers the screen rather than the world, contents must be positioned relative to the camera (as
+ * user interface elements are) to remain valid while the camera moves.
+ */
+public class CachedLayer {
+
+    // FIELDS
+    /**
+     * Texture unit that the cached contents are bound to when compositing.
+     */
+    private static final int LAYER_UNIT = 0;
+
+    /**
+     * Color that the cached contents are cleared to before being redrawn (fully transparent).
+     */
+    private static final float[] CLEAR_COLOR = {0.0f, 0.0f, 0.0f, 0.0f};
+
+    /**
+     * Shader used to composite this layer.
+     */
+    private final Shader shader;
+
+    /**
+     * Empty vertex array object ID; the quad covering this layer is generated in the vertex shader.
+     */
+    private int vaoId;
+
+    /**
+     * Position of the left edge of this layer, measured from the left edge of the screen (pixels).
+     */
+    private final int x;
+
+    /**
+     * Position of the top edge of this layer, measured from the top edge of the screen (pixels).
+     */
+    private final int y;
+
+    /**
+     * Edges of this layer in normalized device coordinates (left, bottom, right, top), used when compositing.
+     */
+    private final Vector4f bounds;
+
+    /**
+     * Offscreen render target holding the cached contents.
+     * This is created on the thread that owns the OpenGL context (see GlTaskQueue).
+     */
+    private Framebuffer framebuffer;
+
+    /**
+     * Framebuffer that was bound before this layer started being redrawn, to be restored afterwards.
+     */
+    private Framebuffer previousFramebuffer;
+
+    /**
+     * Viewport (x, y, width, height) that was set before this layer started being redrawn, to be restored afterwards.
+     */
+    private final int[] previousViewport = new int[4];
+
+    /**
+     * Boolean indicating whether the cached contents are up to date (or a redraw bringing them up to date has been
+     * recorded).
+     * This is only ever accessed by the update thread.
+     */
+    private boolean valid;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a CachedLayer instance.
+     * The region is expanded outward to whole pixels of the native screen.
+     * The layer starts out invalid, so its contents are drawn the first time it is rendered.
+     * GPU resources are created on the thread that owns the OpenGL context.
+     *
+     * @param screenX screen x-coordinate of the left edge of the cached region (leftmost is zero, rightmost is one)
+     * @param screenY screen y-coordinate of the top edge of the cached region (topmost is zero, bottommost is one)
+     * @param screenWidth screen width of the cached region (one is the full width of the screen)
+     * @param screenHeight screen height of the cached region (one is the full height of the screen)
+     */
+    public CachedLayer(float screenX, float screenY, float screenWidth, float screenHeight) {
+        x = (int)Math.floor(screenX * GamePanel.NATIVE_SCREEN_WIDTH);
+        y = (int)Math.floor(screenY * GamePanel.NATIVE_SCREEN_HEIGHT);
+        int width = (int)Math.ceil((screenX + screenWidth) * GamePanel.NATIVE_SCREEN_WIDTH) - x;
+        int height = (int)Math.ceil((screenY + screenHeight) * GamePanel.NATIVE_SCREEN_HEIGHT) - y;
+        bounds = new Vector4f(
+                ((2.0f * x) / GamePanel.NATIVE_SCREEN_WIDTH) - 1.0f,
+                1.0f - ((2.0f * (y + height)) / GamePanel.NATIVE_SCREEN_HEIGHT),
+                ((2.0f * (x + width)) / GamePanel.NATIVE_SCREEN_WIDTH) - 1.0f,
+                1.0f - ((2.0f * y) / GamePanel.NATIVE_SCREEN_HEIGHT)
+        );
+        shader = AssetPool.getShader("/shaders/layer.glsl");
+        GlTaskQueue.submit(() -> {
+            vaoId = glGenVertexArrays();
+            framebuffer = new Framebuffer(width, height);
+        });
+    }
+
+
+    // METHODS
+    /**
+     * Marks the cached contents of this layer as out of date so that they are redrawn the next time this layer is
+     * added to the render pipeline.
+     */
+    public void invalidate() {
+
+        valid = false;
+    }
+
+
+    /**
+     * Marks the cached contents of this layer as up to date.
+     * This is called once a redraw of this layer has been recorded into a frame; the redraw itself is performed before
+     * that frame is drawn, and therefore before any frame that composites this layer afterwards.
+     */
+    void validate() {
+
+        valid = true;
+    }
+
+
+    /**
+     * Binds this layer as the target of all subsequent drawing and clears its previous contents.
+     * The previous target and viewport are saved so that they can be restored afterwards.
+     * The viewport is offset so that the region of the screen covered by this layer lands in its texture.
+     * Blending is set to accumulate coverage in the alpha channel so that the cached contents end up with
+     * premultiplied alpha.
+     */
+    void beginRedraw() {
+
+        previousFramebuffer = Framebuffer.getBound();
+        glGetIntegerv(GL_VIEWPORT, previousViewport);
+        framebuffer.bind();
+        glViewport(-x, (y + framebuffer.getHeight()) - GamePanel.NATIVE_SCREEN_HEIGHT,
+                GamePanel.NATIVE_SCREEN_WIDTH, GamePanel.NATIVE_SCREEN_HEIGHT);                                         // Window coordinates start from the bottom edge.
+        glClearBufferfv(GL_COLOR, 0, CLEAR_COLOR);
+        glBlendFuncSeparate(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA, GL_ONE, GL_ONE_MINUS_SRC_ALPHA);
+    }
+
+
+    /**
+     * Reverts the target of all subsequent drawing, the viewport, and the blending function to what they were before
+     * this layer started being redrawn.
+     */
+    void endRedraw() {
+
+        glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+
+        if (previousFramebuffer != null) {
+
+            previousFramebuffer.bind();
+        } else {
+
+            framebuffer.unbind();
+        }
+        glViewport(previousViewport[0], previousViewport[1], previousViewport[2], previousViewport[3]);
+        previousFramebuffer = null;
+    }
+
+
+    /**
+     * Composites the cached contents of this layer onto its region of the current render target.
+     */
+    public void render() {
+
+        shader.use();
+        GlStateCache.bindTexture(LAYER_UNIT, framebuffer.getTextureId());
+        shader.uploadTexture("uLayer", LAYER_UNIT);
+        shader.uploadVec4f("uBounds", bounds);
+        glBlendFunc(GL_ONE, GL_ONE_MINUS_SRC_ALPHA);                                                                    // Contents already have premultiplied alpha.
+        GlStateCache.bindVertexArray(vaoId);
+        glDrawArrays(GL_TRIANGLE_STRIP, 0, 4);
+        glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+    }
+
+
+    /**
+     * Frees this layer from GPU memory if it is finished being used.
+     */
+    public void delete() {
+
+        GlTaskQueue.submit(() -> {
+            framebuffer.delete();
+            GlStateCache.invalidateVertexArray(vaoId);
+            glDeleteVertexArrays(vaoId);
+        });
+    }
+
+
+    // GETTERS
+    public boolean isValid() {
+        return valid;
+    }
+}
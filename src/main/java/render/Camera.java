@@ -1,10 +1,12 @@
 package render;
 
+import core.GamePanel;
 import entity.EntityBase;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
 import org.joml.Vector2f;
 import render.drawable.Drawable;
+import utility.UtilityTool;
 
 /**
  * This class defines the system-level camera.
@@ -43,6 +45,16 @@ public class Camera {
      */
 
     // BASIC FIELDS
+    /**
+     * Name of the uniform block in shaders that holds the projection and view matrices.
+     */
+    public static final String UNIFORM_BLOCK_NAME = "Camera";
+
+    /**
+     * Uniform buffer binding point to which the camera uniform buffer is bound.
+     */
+    public static final int UNIFORM_BLOCK_BINDING = 0;
+
     /**
      * Projection matrix.
      * The projection matrix determines how large the screen space is.
@@ -63,6 +75,23 @@ public class Camera {
      */
     private final Vector2f positionMatrix;
 
+    /**
+     * Position matrix at the start of the current update tick.
+     */
+    private final Vector2f tickStartPosition = new Vector2f();
+
+    /**
+     * Position matrix at the end of the last update tick, held while an interpolated position matrix is applied for
+     * rendering.
+     */
+    private final Vector2f tickEndPosition = new Vector2f();
+
+    /**
+     * Boolean indicating whether an interpolated position matrix is currently applied for rendering (true) or not
+     * (false).
+     */
+    private boolean interpolated = false;
+
     /**
      * Visible screen width.
      * Note that this are NOT necessarily pixels being defined: it's our own screen coordinate system.
@@ -140,6 +169,54 @@ public class Camera {
     }
 
 
+    /**
+     * Records the current position matrix as the position at the start of an update tick.
+     * This should be called at the start of each update tick, before any game logic runs.
+     */
+    public void recordTickPosition() {
+
+        tickStartPosition.set(positionMatrix);
+    }
+
+
+    /**
+     * Applies a position matrix interpolated between the start and end of the last update tick, so that camera motion
+     * stays smooth even when frames and ticks do not line up.
+     * Everything added to the render pipeline afterwards (including screen coordinate conversions) uses the
+     * interpolated position until it is reverted.
+     *
+     * @param alpha fraction of the tick to interpolate across, from zero (start) to one (end)
+     */
+    public void applyInterpolation(float alpha) {
+
+        if (!interpolated) {
+
+            tickEndPosition.set(positionMatrix);
+            positionMatrix.x = UtilityTool.interpolate(tickStartPosition.x, tickEndPosition.x, alpha,
+                    GamePanel.MAX_INTERPOLATION_DISTANCE);
+            positionMatrix.y = UtilityTool.interpolate(tickStartPosition.y, tickEndPosition.y, alpha,
+                    GamePanel.MAX_INTERPOLATION_DISTANCE);
+            adjustView();
+            interpolated = true;
+        }
+    }
+
+
+    /**
+     * Reverts an interpolated position matrix back to the position at the end of the last update tick.
+     * This should be called once rendering is finished, before any game logic runs again.
+     */
+    public void revertInterpolation() {
+
+        if (interpolated) {
+
+            positionMatrix.set(tickEndPosition);
+            adjustView();
+            interpolated = false;
+        }
+    }
+
+
     /**
      * Retrieves the projection matrix.
      *
@@ -181,10 +258,26 @@ public class Camera {
      */
     public boolean isInCameraView(Drawable drawable) {
 
-        if ((drawable.transform.position.y <= (positionMatrix.y + screenHeight))                                        // Top of sprite greater than bottom of screen.
-                && ((drawable.transform.position.y + drawable.transform.scale.y) >= positionMatrix.y)                   // Bottom of sprite less than top of screen.
-                && (drawable.transform.position.x <= (positionMatrix.x + screenWidth))                                  // Left of sprite less than right of screen.
-                && ((drawable.transform.position.x + drawable.transform.scale.x >= positionMatrix.x))) {                // Right of sprite greater than left of screen.
+        return isInCameraView(drawable.transform.position.x, drawable.transform.position.y,
+                drawable.transform.scale.x, drawable.transform.scale.y);
+    }
+
+
+    /**
+     * Determines whether a rectangular area is in view of the camera or not.
+     *
+     * @param worldX x-coordinate of area (leftmost)
+     * @param worldY y-coordinate of area (topmost)
+     * @param width width of area
+     * @param height height of area
+     * @return whether the area is in view of the camera (true) or not (false)
+     */
+    public boolean isInCameraView(float worldX, float worldY, float width, float height) {
+
+        if ((worldY <= (positionMatrix.y + screenHeight))                                                               // Top of area greater than bottom of screen.
+                && ((worldY + height) >= positionMatrix.y)                                                              // Bottom of area less than top of screen.
+                && (worldX <= (positionMatrix.x + screenWidth))                                                         // Left of area less than right of screen.
+                && ((worldX + width) >= positionMatrix.x)) {                                                            // Right of area greater than left of screen.
 
             return true;
         } else {
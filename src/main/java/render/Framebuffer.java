@@ -0,0 +1,162 @@
+package render;
+
+import utility.UtilityTool;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL30.*;
+
+/**
+ * This class defines an offscreen render target: a framebuffer object with a single color texture attached.
+ * While bound, everything drawn lands in the color texture instead of the window, at the resolution of this
+ * framebuffer rather than that of the window.
+ * The color texture is sampled with nearest filtering, so copying it to a larger target keeps pixel art crisp.
+ */
+public class Framebuffer {
+
+    // FIELDS
+    /**
+     * Framebuffer currently bound as the target of drawing, or null if the window is.
+     */
+    private static Framebuffer bound;
+
+    /**
+     * Framebuffer object ID.
+     */
+    private final int framebufferId;
+
+    /**
+     * ID of the color texture attached to this framebuffer.
+     */
+    private final int textureId;
+
+    /**
+     * Framebuffer width (pixels).
+     */
+    private int width;
+
+    /**
+     * Framebuffer height (pixels).
+     */
+    private int height;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a Framebuffer instance.
+     * Space for the color texture is allocated on the GPU upon construction.
+     *
+     * @param width framebuffer width (pixels)
+     * @param height framebuffer height (pixels)
+     */
+    public Framebuffer(int width, int height) {
+
+        framebufferId = glGenFramebuffers();
+        textureId = glGenTextures();
+        GlStateCache.bindTexture(textureId);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+        resize(width, height);
+        glBindFramebuffer(GL_FRAMEBUFFER, framebufferId);
+        glFramebufferTexture2D(GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, GL_TEXTURE_2D, textureId, 0);
+
+        if (glCheckFramebufferStatus(GL_FRAMEBUFFER) != GL_FRAMEBUFFER_COMPLETE) {
+            UtilityTool.logError("Failed to create complete framebuffer of size " + width + "x" + height + ".");
+        }
+        glBindFramebuffer(GL_FRAMEBUFFER, 0);
+    }
+
+
+    // METHODS
+    /**
+     * Binds this framebuffer as the target of all subsequent drawing.
+     * The viewport is set to cover this entire framebuffer.
+     */
+    public void bind() {
+
+        glBindFramebuffer(GL_FRAMEBUFFER, framebufferId);
+        glViewport(0, 0, width, height);
+        bound = this;
+    }
+
+
+    /**
+     * Reverts the target of all subsequent drawing to the window.
+     * Note that the viewport is left as-is and must be set again by the caller.
+     */
+    public void unbind() {
+
+        glBindFramebuffer(GL_FRAMEBUFFER, 0);
+        bound = null;
+    }
+
+
+    /**
+     * Copies the contents of this framebuffer to a region of the window in a single pass, scaling as needed.
+     * Scaling uses nearest filtering, so each pixel of this framebuffer becomes a solid block of window pixels.
+     * The window is left bound as the target of subsequent drawing.
+     *
+     * @param x x-coordinate of the bottom-left corner of the target region (window pixels)
+     * @param y y-coordinate of the bottom-left corner of the target region (window pixels)
+     * @param targetWidth width of the target region (window pixels)
+     * @param targetHeight height of the target region (window pixels)
+     */
+    public void blitToWindow(int x, int y, int targetWidth, int targetHeight) {
+
+        glBindFramebuffer(GL_READ_FRAMEBUFFER, framebufferId);
+        glBindFramebuffer(GL_DRAW_FRAMEBUFFER, 0);
+        glBlitFramebuffer(0, 0, width, height, x, y, x + targetWidth, y + targetHeight,
+                GL_COLOR_BUFFER_BIT, GL_NEAREST);
+        glBindFramebuffer(GL_FRAMEBUFFER, 0);
+        bound = null;
+    }
+
+
+    /**
+     * Reallocates the color texture of this framebuffer at a new size.
+     * Any previous contents are discarded.
+     *
+     * @param width new width (pixels)
+     * @param height new height (pixels)
+     */
+    public void resize(int width, int height) {
+
+        this.width = width;
+        this.height = height;
+        GlStateCache.bindTexture(textureId);
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, (ByteBuffer)null);
+    }
+
+
+    /**
+     * Frees this framebuffer and its color texture from GPU memory if finished being used.
+     * Note that this does not destruct this Framebuffer instance, which must be managed by JVM garbage collection.
+     */
+    public void delete() {
+
+        GlStateCache.invalidateTexture(textureId);
+        glDeleteTextures(textureId);
+        glDeleteFramebuffers(framebufferId);
+    }
+
+
+    // GETTERS
+    public static Framebuffer getBound() {
+        return bound;
+    }
+
+    public int getTextureId() {
+        return textureId;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,195 @@
+package render;
+
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11.glBindTexture;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
+import static org.lwjgl.opengl.GL13.glActiveTexture;
+import static org.lwjgl.opengl.GL20.glUseProgram;
+import static org.lwjgl.opengl.GL30.glBindVertexArray;
+
+/**
+ * This class tracks the OpenGL state that is bound while rendering (shader program, vertex array object, active
+ * texture unit, and textures bound to each texture unit).
+ * Any request to bind state that is already bound is skipped, so consecutive draws that share state do not repeat
+ * redundant GL calls.
+ * All binding of shader programs, vertex array objects, and textures must go through this class for the tracked state
+ * to remain accurate.
+ */
+public class GlStateCache {
+
+    // FIELDS
+    /**
+     * Number of texture units tracked.
+     * This matches the minimum number of texture units guaranteed to be available by OpenGL.
+     */
+    private static final int NUM_TEXTURE_UNITS = 16;
+
+    /**
+     * Currently bound shader program ID.
+     */
+    private static int program;
+
+    /**
+     * Currently bound vertex array object ID.
+     */
+    private static int vertexArray;
+
+    /**
+     * Currently active texture unit.
+     */
+    private static int activeTextureUnit;
+
+    /**
+     * Texture IDs currently bound to each texture unit.
+     */
+    private static final int[] textures = new int[NUM_TEXTURE_UNITS];
+
+    /**
+     * Number of redundant GL calls skipped so far this frame.
+     */
+    private static int elidedCalls;
+
+    /**
+     * Number of redundant GL calls skipped in the previous frame.
+     * This is written by the thread that owns the OpenGL context but may be read from any thread.
+     */
+    private static volatile int elidedCallsLastFrame;
+
+
+    // METHODS
+    /**
+     * Binds a shader program if not already bound.
+     *
+     * @param programId shader program ID (0 to bind nothing)
+     */
+    public static void useProgram(int programId) {
+
+        if (program != programId) {
+
+            glUseProgram(programId);
+            program = programId;
+        } else {
+
+            elidedCalls++;
+        }
+    }
+
+
+    /**
+     * Binds a vertex array object if not already bound.
+     *
+     * @param vaoId vertex array object ID (0 to bind nothing)
+     */
+    public static void bindVertexArray(int vaoId) {
+
+        if (vertexArray != vaoId) {
+
+            glBindVertexArray(vaoId);
+            vertexArray = vaoId;
+        } else {
+
+            elidedCalls++;
+        }
+    }
+
+
+    /**
+     * Activates a texture unit if not already active.
+     *
+     * @param unit texture unit (0 for GL_TEXTURE0, 1 for GL_TEXTURE1, etc.)
+     */
+    public static void activeTexture(int unit) {
+
+        if (activeTextureUnit != unit) {
+
+            glActiveTexture(GL_TEXTURE0 + unit);
+            activeTextureUnit = unit;
+        } else {
+
+            elidedCalls++;
+        }
+    }
+
+
+    /**
+     * Binds a texture to a texture unit if not already bound to it.
+     * The texture unit is only activated if the texture must actually be bound.
+     *
+     * @param unit texture unit (0 for GL_TEXTURE0, 1 for GL_TEXTURE1, etc.)
+     * @param textureId texture ID (0 to bind nothing)
+     */
+    public static void bindTexture(int unit, int textureId) {
+
+        if (textures[unit] != textureId) {
+
+            activeTexture(unit);
+            glBindTexture(GL_TEXTURE_2D, textureId);
+            textures[unit] = textureId;
+        } else {
+
+            elidedCalls++;
+        }
+    }
+
+
+    /**
+     * Binds a texture to the currently active texture unit if not already bound to it.
+     *
+     * @param textureId texture ID (0 to bind nothing)
+     */
+    public static void bindTexture(int textureId) {
+
+        bindTexture(activeTextureUnit, textureId);
+    }
+
+
+    /**
+     * Clears any tracked binding of a texture that is about to be deleted.
+     * OpenGL reverts the binding of a deleted texture to zero, so the tracked state must do the same.
+     *
+     * @param textureId texture ID
+     */
+    public static void invalidateTexture(int textureId) {
+
+        for (int i = 0; i < NUM_TEXTURE_UNITS; i++) {
+            if (textures[i] == textureId) {
+                textures[i] = 0;
+            }
+        }
+    }
+
+
+    /**
+     * Clears the tracked binding of a vertex array object that is about to be deleted.
+     * OpenGL reverts the binding of a deleted vertex array object to zero, so the tracked state must do the same.
+     *
+     * @param vaoId vertex array object ID
+     */
+    public static void invalidateVertexArray(int vaoId) {
+
+        if (vertexArray == vaoId) {
+            vertexArray = 0;
+        }
+    }
+
+
+    /**
+     * Marks the end of a frame.
+     * The number of redundant GL calls skipped this frame is recorded and the count is reset for the next frame.
+     */
+    public static void endFrame() {
+
+        elidedCallsLastFrame = elidedCalls;
+        elidedCalls = 0;
+    }
+
+
+    // GETTERS
+    public static int getProgram() {
+        return program;
+    }
+
+    public static int getElidedCallsLastFrame() {
+        return elidedCallsLastFrame;
+    }
+}
@@ -0,0 +1,103 @@
+package render;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class hands work that must call OpenGL (e.g., uploading a texture) to the thread that owns the OpenGL context.
+ * Game logic runs on a different thread than rendering, so any GL work it causes (loading assets, uploading a map,
+ * rasterizing a glyph, etc.) is submitted here instead of being performed directly.
+ * Submitted tasks run in submission order on the context thread, right before the first frame recorded after their
+ * submission is drawn; frames recorded beforehand are therefore never affected by them.
+ * Tasks submitted from the context thread itself (including during initialization, before rendering moves to its own
+ * thread) run immediately.
+ */
+public class GlTaskQueue {
+
+    // FIELDS
+    /**
+     * Tasks submitted but not yet run.
+     */
+    private static final ConcurrentLinkedQueue<Runnable> TASKS = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Total number of tasks submitted to the queue thus far.
+     */
+    private static final AtomicLong NUM_SUBMITTED = new AtomicLong();
+
+    /**
+     * Total number of queued tasks run thus far.
+     * This is only ever accessed by the context thread.
+     */
+    private static long numRun;
+
+    /**
+     * Thread that currently owns the OpenGL context, or null if no thread does.
+     */
+    private static volatile Thread contextThread;
+
+
+    // METHODS
+    /**
+     * Submits a task to run on the thread that owns the OpenGL context.
+     * The task runs immediately if called from that thread; otherwise, it is queued.
+     * Any data read by the task must not be modified afterwards (i.e., pass a copy if the original may change).
+     *
+     * @param task task to run
+     */
+    public static void submit(Runnable task) {
+
+        if (Thread.currentThread() == contextThread) {
+
+            task.run();
+        } else {
+
+            TASKS.add(task);
+            NUM_SUBMITTED.incrementAndGet();
+        }
+    }
+
+
+    /**
+     * Runs queued tasks, in submission order, until the specified total number of tasks have been run.
+     * This may only be called by the context thread.
+     *
+     * @param count total number of submitted tasks (see `getNumSubmitted()`) that must have run upon return
+     */
+    public static void runUntil(long count) {
+
+        while (numRun < count) {
+
+            Runnable task = TASKS.poll();
+
+            if (task == null) {
+
+                return;
+            }
+            numRun++;
+            task.run();
+        }
+    }
+
+
+    /**
+     * Runs all queued tasks.
+     * This may only be called by the context thread.
+     */
+    public static void runAll() {
+
+        runUntil(Long.MAX_VALUE);
+    }
+
+
+    // GETTER
+    public static long getNumSubmitted() {
+        return NUM_SUBMITTED.get();
+    }
+
+
+    // SETTER
+    public static void setContextThread(Thread thread) {
+        contextThread = thread;
+    }
+}
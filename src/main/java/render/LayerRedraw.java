@@ -0,0 +1,46 @@
+package render;
+
+/**
+ * This class holds the render commands recorded to redraw the cached contents of a layer within a frame.
+ * Redraws are pooled by each frame (see RenderFrame) and reused every time the frame is recorded.
+ */
+public class LayerRedraw {
+
+    // FIELDS
+    /**
+     * Layer to redraw, or null if this redraw is not in use.
+     */
+    private CachedLayer layer;
+
+    /**
+     * Render commands recorded for the contents of the layer.
+     */
+    private final RenderCommandQueue commandQueue = new RenderCommandQueue(64);
+
+
+    // METHODS
+    /**
+     * Clears this redraw of all recorded commands so that it can be reused.
+     */
+    void clear() {
+
+        layer = null;
+        commandQueue.clear();
+    }
+
+
+    // GETTERS
+    public CachedLayer getLayer() {
+        return layer;
+    }
+
+    public RenderCommandQueue getCommandQueue() {
+        return commandQueue;
+    }
+
+
+    // SETTER
+    public void setLayer(CachedLayer layer) {
+        this.layer = layer;
+    }
+}
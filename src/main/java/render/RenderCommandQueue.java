@@ -0,0 +1,187 @@
+package render;
+
+import render.enumeration.RenderPipeline;
+
+import java.util.Arrays;
+
+/**
+ * This class stores render commands submitted over the course of a frame and sorts them into drawing order.
+ * Each command is identified by a packed 64-bit sort key and carries a payload (the object to draw).
+ */
+public class RenderCommandQueue {
+
+    /*
+     * Sort Key
+     * ========
+     * Layer       Pipeline    State        Sequence
+     * 8 bits      4 bits      20 bits      32 bits
+     *
+     * Layer is the most significant field, so all commands on a layer are drawn before any command on the next layer.
+     * State groups commands that can be drawn together within a pipeline (e.g., text sharing a font).
+     * Sequence is the order in which a command was submitted; it also indexes the command's payload.
+     */
+
+    // FIELDS
+    private static final int LAYER_SHIFT = 56;
+    private static final int PIPELINE_SHIFT = 52;
+    private static final int STATE_SHIFT = 32;
+    private static final long LAYER_MASK = 0xFFL;
+    private static final long PIPELINE_MASK = 0xFL;
+    private static final long STATE_MASK = 0xFFFFFL;
+    private static final long SEQUENCE_MASK = 0xFFFFFFFFL;
+
+    /**
+     * Array to convert a decoded pipeline value back to its pipeline.
+     */
+    private static final RenderPipeline[] PIPELINES = RenderPipeline.values();
+
+    /**
+     * Sort keys of all submitted commands.
+     */
+    private long[] keys;
+
+    /**
+     * Scratch array used when sorting sort keys.
+     */
+    private long[] scratch;
+
+    /**
+     * Count of keys per byte value (and then the offset of each byte value) used when sorting sort keys.
+     */
+    private final int[] counts = new int[256];
+
+    /**
+     * Payloads of all submitted commands, indexed by sequence (i.e., submission order).
+     */
+    private Object[] payloads;
+
+    /**
+     * Number of commands submitted thus far.
+     */
+    private int size;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a RenderCommandQueue instance.
+     *
+     * @param initialCapacity number of commands that can be stored before the queue must grow
+     */
+    public RenderCommandQueue(int initialCapacity) {
+        keys = new long[initialCapacity];
+        scratch = new long[initialCapacity];
+        payloads = new Object[initialCapacity];
+    }
+
+
+    // METHODS
+    /**
+     * Submits a command to this queue.
+     *
+     * @param layer layer on which to render (0 to 255, both inclusive; lower layers are drawn first)
+     * @param pipeline pipeline through which to render
+     * @param state state sort value (0 to 1048575, both inclusive); commands with equal state may be drawn together
+     * @param payload object to render
+     */
+    public void push(int layer, RenderPipeline pipeline, int state, Object payload) {
+
+        if (size == keys.length) {
+            int capacity = Math.max(16, keys.length * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            scratch = new long[capacity];
+            payloads = Arrays.copyOf(payloads, capacity);
+        }
+        keys[size] = ((layer & LAYER_MASK) << LAYER_SHIFT)
+                | ((pipeline.value & PIPELINE_MASK) << PIPELINE_SHIFT)
+                | ((state & STATE_MASK) << STATE_SHIFT)
+                | (size & SEQUENCE_MASK);
+        payloads[size] = payload;
+        size++;
+    }
+
+
+    /**
+     * Sorts all submitted commands into drawing order.
+     * A least-significant-digit radix sort is performed over each byte of the sort keys.
+     * Any byte that is identical across all keys (e.g., unused high sequence bits, or the layer when only one layer is
+     * in use) is skipped, since sorting on it would not change the order.
+     */
+    public void sort() {
+
+        for (int shift = 0; shift < 64; shift += 8) {
+
+            Arrays.fill(counts, 0);
+
+            for (int i = 0; i < size; i++) {
+                counts[(int)((keys[i] >>> shift) & 0xFF)]++;
+            }
+
+            if ((size == 0) || (counts[(int)((keys[0] >>> shift) & 0xFF)] == size)) {
+                continue;                                                                                               // Every key shares this byte, so this pass would not change the order.
+            }
+            int total = 0;
+
+            for (int i = 0; i < 256; i++) {
+                int count = counts[i];
+                counts[i] = total;
+                total += count;
+            }
+
+            for (int i = 0; i < size; i++) {
+                scratch[counts[(int)((keys[i] >>> shift) & 0xFF)]++] = keys[i];
+            }
+            long[] swap = keys;
+            keys = scratch;
+            scratch = swap;
+        }
+    }
+
+
+    /**
+     * Removes all submitted commands from this queue.
+     */
+    public void clear() {
+
+        Arrays.fill(payloads, 0, size, null);                                                                           // Release references to payloads so that they may be garbage collected.
+        size = 0;
+    }
+
+
+    /**
+     * Checks whether two commands can be drawn together (i.e., whether they share a layer, pipeline, and state).
+     *
+     * @param first position of first command in this queue
+     * @param second position of second command in this queue
+     * @return whether the two commands are compatible
+     */
+    public boolean isCompatible(int first, int second) {
+
+        return (keys[first] >>> STATE_SHIFT) == (keys[second] >>> STATE_SHIFT);
+    }
+
+
+    // GETTERS
+    public int size() {
+        return size;
+    }
+
+    public long getKey(int index) {
+        return keys[index];
+    }
+
+    public int getLayer(int index) {
+        return (int)((keys[index] >>> LAYER_SHIFT) & LAYER_MASK);
+    }
+
+    public RenderPipeline getPipeline(int index) {
+        return PIPELINES[(int)((keys[index] >>> PIPELINE_SHIFT) & PIPELINE_MASK)];
+    }
+
+    public int getState(int index) {
+        return (int)((keys[index] >>> STATE_SHIFT) & STATE_MASK);
+    }
+
+    public Object getPayload(int index) {
+        return payloads[(int)(keys[index] & SEQUENCE_MASK)];
+    }
+}
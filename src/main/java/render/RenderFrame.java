@@ -0,0 +1,281 @@
+package render;
+
+import core.GamePanel;
+import org.joml.Vector4f;
+import org.lwjgl.BufferUtils;
+import render.drawable.StaticBatchUpload;
+import render.font.GlyphSpan;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * This class holds everything recorded for a single frame to be rendered: the render commands, the batches of
+ * drawables and laid out text they refer to, and the camera and time they are drawn with.
+ * A frame is recorded by the update thread, then handed over as a whole to the thread that owns the OpenGL context to
+ * be drawn, so it must hold a copy of any state that the update thread may modify while the frame is being drawn.
+ * Once drawn, a frame is cleared and handed back to be recorded again; everything it holds is pooled across uses.
+ */
+public class RenderFrame {
+
+    // FIELDS
+    /**
+     * Render commands recorded for this frame.
+     */
+    private final RenderCommandQueue commandQueue = new RenderCommandQueue(256);
+
+    /**
+     * Allocator that manages batches of drawables recorded for this frame.
+     */
+    private final BatchAllocator batchAllocator;
+
+    /**
+     * Allocator that manages batches of drawables with rounded corners recorded for this frame.
+     */
+    private final BatchAllocator roundedBatchAllocator;
+
+    /**
+     * Projection matrix followed by view matrix (column-major) that this frame is drawn with.
+     */
+    private final float[] cameraMatrices = new float[32];
+
+    /**
+     * Visible world area (x, y, width, height) that this frame is drawn with.
+     */
+    private final Vector4f viewRect = new Vector4f();
+
+    /**
+     * Time elapsed since passive animations started (seconds) that this frame is drawn with.
+     */
+    private float animationTime;
+
+    /**
+     * Total number of OpenGL tasks submitted (see GlTaskQueue) by the time this frame finished being recorded.
+     * All of these must run before this frame is drawn.
+     */
+    private long numTasks;
+
+    /**
+     * Vertices of all text laid out for this frame (off-heap), in the shared quad vertex format (see VertexLayout).
+     * This grows as needed and is reused each time this frame is recorded.
+     */
+    private ByteBuffer textVertices = BufferUtils.createByteBuffer(4096 * VertexLayout.VERTEX_SIZE_BYTES);
+
+    /**
+     * Number of vertices laid out in the text vertex array thus far.
+     */
+    private int numTextVertices;
+
+    /**
+     * Pool of spans of laid out text; the first `numGlyphSpans` are in use this frame.
+     */
+    private final ArrayList<GlyphSpan> glyphSpans = new ArrayList<>();
+
+    /**
+     * Number of spans of laid out text in use this frame.
+     */
+    private int numGlyphSpans;
+
+    /**
+     * Pool of copies of static batch changes to apply before this frame is drawn; the first `numStaticBatchUploads` are
+     * in use this frame.
+     */
+    private final ArrayList<StaticBatchUpload> staticBatchUploads = new ArrayList<>();
+
+    /**
+     * Number of copies of static batch changes in use this frame.
+     */
+    private int numStaticBatchUploads;
+
+    /**
+     * Pool of cached layer redraws to perform before this frame is drawn; the first `numLayerRedraws` are in use this
+     * frame.
+     */
+    private final ArrayList<LayerRedraw> layerRedraws = new ArrayList<>();
+
+    /**
+     * Number of cached layer redraws in use this frame.
+     */
+    private int numLayerRedraws;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a RenderFrame instance.
+     *
+     * @param gp GamePanel instance
+     */
+    public RenderFrame(GamePanel gp) {
+        this.batchAllocator = new BatchAllocator(gp, "/shaders/default.glsl");
+        this.roundedBatchAllocator = new BatchAllocator(gp, "/shaders/rounded.glsl");
+    }
+
+
+    // METHODS
+    /**
+     * Captures the camera, animation time, and number of submitted OpenGL tasks that this frame is drawn with.
+     * This should be called once all drawables and text have been recorded into this frame.
+     *
+     * @param camera Camera instance
+     * @param animationTime time elapsed since passive animations started (seconds)
+     * @param numTasks total number of OpenGL tasks submitted thus far
+     */
+    public void capture(Camera camera, float animationTime, long numTasks) {
+
+        camera.getProjectionMatrix().get(cameraMatrices, 0);
+        camera.getViewMatrix().get(cameraMatrices, 16);
+        viewRect.set(camera.getPositionMatrix().x, camera.getPositionMatrix().y,
+                camera.getScreenWidth(), camera.getScreenHeight());
+        this.animationTime = animationTime;
+        this.numTasks = numTasks;
+    }
+
+
+    /**
+     * Reserves room for vertices in the text vertex array, growing it if needed.
+     * Note that growing replaces the text vertex array, so it must be retrieved again afterwards.
+     *
+     * @param numVertices number of vertices to reserve
+     * @return index of the first reserved vertex
+     */
+    public int allocateTextVertices(int numVertices) {
+
+        int firstVertex = numTextVertices;
+        int required = (firstVertex + numVertices) * VertexLayout.VERTEX_SIZE_BYTES;
+
+        if (required > textVertices.capacity()) {
+
+            ByteBuffer grown = BufferUtils.createByteBuffer(Math.max(required, textVertices.capacity() * 2));
+            textVertices.limit(firstVertex * VertexLayout.VERTEX_SIZE_BYTES);
+            grown.put(textVertices);
+            grown.clear();
+            textVertices = grown;
+        }
+        numTextVertices += numVertices;
+        return firstVertex;
+    }
+
+
+    /**
+     * Obtains a span of laid out text from the pool of this frame.
+     *
+     * @return span
+     */
+    public GlyphSpan obtainGlyphSpan() {
+
+        if (numGlyphSpans == glyphSpans.size()) {
+
+            glyphSpans.add(new GlyphSpan());
+        }
+        return glyphSpans.get(numGlyphSpans++);
+    }
+
+
+    /**
+     * Obtains a copy of static batch changes from the pool of this frame.
+     * The copy is applied before this frame is drawn.
+     *
+     * @return copy
+     */
+    public StaticBatchUpload obtainStaticBatchUpload() {
+
+        if (numStaticBatchUploads == staticBatchUploads.size()) {
+
+            staticBatchUploads.add(new StaticBatchUpload());
+        }
+        return staticBatchUploads.get(numStaticBatchUploads++);
+    }
+
+
+    /**
+     * Obtains a cached layer redraw from the pool of this frame.
+     * The redraw is performed before this frame is drawn.
+     *
+     * @param layer layer to redraw
+     * @return redraw
+     */
+    public LayerRedraw obtainLayerRedraw(CachedLayer layer) {
+
+        if (numLayerRedraws == layerRedraws.size()) {
+
+            layerRedraws.add(new LayerRedraw());
+        }
+        LayerRedraw redraw = layerRedraws.get(numLayerRedraws++);
+        redraw.setLayer(layer);
+        return redraw;
+    }
+
+
+    /**
+     * Clears this frame of all recorded contents so that it can be recorded again.
+     * Batches are recycled by their allocators.
+     */
+    public void clear() {
+
+        commandQueue.clear();
+        batchAllocator.release();
+        roundedBatchAllocator.release();
+        numTextVertices = 0;
+
+        for (int i = 0; i < numGlyphSpans; i++) {
+            glyphSpans.get(i).set(null, 0, 0);                                                                          // Drop reference to font.
+        }
+        numGlyphSpans = 0;
+        numStaticBatchUploads = 0;
+
+        for (int i = 0; i < numLayerRedraws; i++) {
+            layerRedraws.get(i).clear();
+        }
+        numLayerRedraws = 0;
+    }
+
+
+    // GETTERS
+    public RenderCommandQueue getCommandQueue() {
+        return commandQueue;
+    }
+
+    public BatchAllocator getBatchAllocator() {
+        return batchAllocator;
+    }
+
+    public BatchAllocator getRoundedBatchAllocator() {
+        return roundedBatchAllocator;
+    }
+
+    public float[] getCameraMatrices() {
+        return cameraMatrices;
+    }
+
+    public Vector4f getViewRect() {
+        return viewRect;
+    }
+
+    public float getAnimationTime() {
+        return animationTime;
+    }
+
+    public long getNumTasks() {
+        return numTasks;
+    }
+
+    public ByteBuffer getTextVertices() {
+        return textVertices;
+    }
+
+    public StaticBatchUpload getStaticBatchUpload(int index) {
+        return staticBatchUploads.get(index);
+    }
+
+    public int getNumStaticBatchUploads() {
+        return numStaticBatchUploads;
+    }
+
+    public LayerRedraw getLayerRedraw(int index) {
+        return layerRedraws.get(index);
+    }
+
+    public int getNumLayerRedraws() {
+        return numLayerRedraws;
+    }
+}
@@ -1,23 +1,40 @@
 package render;
 
-import asset.Texture;
 import core.GamePanel;
+import org.lwjgl.BufferUtils;
 import render.drawable.Transform;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
 import render.drawable.Drawable;
 import render.drawable.DrawableBatch;
-import render.drawable.DrawableSingle;
+import render.drawable.StaticDrawableBatch;
+import render.enumeration.RenderPipeline;
 import render.enumeration.ZIndex;
 import render.font.CFont;
 import render.font.FontBatch;
-import render.font.Text;
-
-import java.util.ArrayList;
+import render.font.GlyphSpan;
+import render.font.TextLayout;
+import tile.TilemapLayer;
+import utility.TripleBuffer;
+import utility.UtilityTool;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL30.glBindBufferBase;
+import static org.lwjgl.opengl.GL31.GL_UNIFORM_BUFFER;
+
 /**
  * This class manages the rendering of drawable objects (i.e., sending instructions to the GPU).
+ * Drawables and text are first recorded into a frame by the update thread, which then publishes the frame to the
+ * thread that owns the OpenGL context to be drawn all at once; the next frame is recorded while the previous one is
+ * drawn.
+ * Frames are handed between the two threads through a triple buffer, so neither thread ever touches a frame that the
+ * other is using.
+ * Drawables and text that rarely change can instead be drawn once into a cached layer, which is then added to each
+ * frame in their place.
  */
 public class Renderer {
 
@@ -29,30 +46,57 @@ public class Renderer {
     private final GamePanel gp;
 
     /**
-     * List to store single drawables to render.
+     * Frames handed from the update thread (which records them) to the thread that owns the OpenGL context (which
+     * draws them).
+     */
+    private final TripleBuffer<RenderFrame> frames;
+
+    /**
+     * Cached layer redraw into which drawables and text are currently being recorded, or null if drawables and text are
+     * being recorded into the main frame.
      */
-    private final ArrayList<DrawableSingle> drawableSingles = new ArrayList<>();
+    private LayerRedraw recordingLayer;
 
     /**
-     * List to store batches of drawables to render.
+     * Lays out strings into glyph vertices as they are recorded.
+     * This is only ever used by the update thread.
      */
-    private final ArrayList<DrawableBatch> drawableBatches = new ArrayList<>();
+    private final TextLayout textLayout = new TextLayout();
 
     /**
      * Font batch to render.
+     * This is only ever used by the thread that owns the OpenGL context.
      */
     private final FontBatch fontBatch;
 
     /**
-     * List to store staged text to render.
+     * Uniform buffer object ID of the camera uniform buffer, or 0 if not yet created.
+     * This buffer holds the projection matrix followed by the view matrix (std140 layout) and is shared by all shaders.
+     * This is only ever used by the thread that owns the OpenGL context.
+     */
+    private int cameraUboId;
+
+    /**
+     * Staging buffer for the contents of the camera uniform buffer (two 4x4 matrices).
+     */
+    private final FloatBuffer cameraBuffer = BufferUtils.createFloatBuffer(32);
+
+    /**
+     * Camera matrices most recently uploaded to the camera uniform buffer, used to skip uploads when unchanged.
      */
-    private final ArrayList<Text> stagedText = new ArrayList<>();
+    private final float[] uploadedCameraMatrices = new float[32];
 
     /**
      * Map to store loaded fonts; font name is the key, font is the value.
      */
     private final HashMap<String, CFont> fonts = new HashMap<>();
 
+    /**
+     * Map to store the sort state of each loaded font; font name is the key, state is the value.
+     * This allows text sharing a font to be grouped together when rendering.
+     */
+    private final HashMap<String, Integer> fontStates = new HashMap<>();
+
     /**
      * Drawable to use when rendering all rectangles requested by the 'addRectangle()' and 'addRoundRectangle()'
      * methods.
@@ -70,60 +114,123 @@ public class Renderer {
      */
     public Renderer(GamePanel gp) {
         this.gp = gp;
-        this.fontBatch = new FontBatch(gp);
+        this.fontBatch = new FontBatch();
+        this.frames = new TripleBuffer<>(() -> new RenderFrame(gp));
         initializeFonts();
     }
 
 
     // METHODS
     /**
-     * Renders all added drawables and text.
+     * Finishes recording the current frame by capturing the camera and animation time that it is drawn with.
+     * This should be called by the update thread once all drawables and text have been added to the render pipeline,
+     * after which the frame may be published.
      */
-    public void render() {
+    public void finishFrame() {
 
-        // Render layers in order.
-        for (ZIndex zIndex : ZIndex.values()) {
+        frames.getWriteBuffer().capture(gp.getCamera(), (float)gp.getPassiveAnimationM().getTime(),
+                GlTaskQueue.getNumSubmitted());
+        textLayout.endFrame();                                                                                          // Discard cached glyph runs that were not requested this frame.
+    }
 
-            // Single drawables (always rendered first).
-            for (DrawableSingle single : drawableSingles) {
-                if (!single.isAvailable() && (single.getzIndex() == zIndex)) {
-                    single.flush();
-                }
-            }
 
-            // Batches of drawables.
-            for (DrawableBatch batch : drawableBatches) {
-                if (batch.hasDrawable() && (batch.getzIndex() == zIndex)) {
-                    batch.flush();
-                }
-            }
+    /**
+     * Publishes the finished frame to be drawn and starts recording the next one.
+     * This may only be called by the update thread while no published frame is pending (see `isFramePending()`),
+     * otherwise the pending frame would be skipped.
+     */
+    public void publishFrame() {
 
-            // Text (always rendered last).
-            CFont lastFontSet = null;
-            for (int i = 0; i < stagedText.size(); i++) {                                                               // Loop though each staged string.
-                if (stagedText.get(i).getzIndex() == zIndex) {                                                          // Only render staged strings on the current layer.
-                    if (lastFontSet == null) {
-                        fontBatch.setFont((fonts.get(stagedText.get(i).getFont())));                                    // Set initial font.
-                        lastFontSet = fonts.get(stagedText.get(i).getFont());
-                    } else {
-                        if (!lastFontSet.equals(stagedText.get(i).getFont())) {
-                            fontBatch.flush();                                                                          // Manually flush batch before changing font.
-                            fontBatch.setFont((fonts.get(stagedText.get(i).getFont())));                                // Set next font.
-                            lastFontSet = fonts.get(stagedText.get(i).getFont());
-                        }
-                    }
-                    fontBatch.addString(stagedText.get(i).getText(),
-                            stagedText.get(i).getX(), stagedText.get(i).getY(),
-                            stagedText.get(i).getScale(), stagedText.get(i).getColor());
-                }
-            }
-            if (!fontBatch.isEmpty()) {
-                fontBatch.flush();                                                                                      // Must manually flush at the end to render any remaining characters in the batch.
-            }
+        frames.publish();
+    }
+
+
+    /**
+     * Acquires the most recently published frame to be drawn.
+     * This may only be called by the thread that owns the OpenGL context.
+     *
+     * @return whether a newly published frame was acquired (true) or not (false)
+     */
+    public boolean acquireFrame() {
+
+        return frames.acquire();
+    }
+
+
+    /**
+     * Draws the most recently acquired frame to the current render target, then clears it so that it can be recorded
+     * again.
+     * Any OpenGL tasks submitted before the frame finished being recorded are run first, followed by any changes to
+     * static batches and redraws of cached layers recorded in the frame.
+     * This may only be called by the thread that owns the OpenGL context.
+     */
+    public void drawFrame() {
+
+        RenderFrame frame = frames.getReadBuffer();
+        GlTaskQueue.runUntil(frame.getNumTasks());
+        uploadCamera(frame.getCameraMatrices());                                                                        // Upload camera matrices shared by all shaders (only if changed).
+
+        for (int i = 0; i < frame.getNumStaticBatchUploads(); i++) {
+            frame.getStaticBatchUpload(i).apply();
         }
 
+        for (int i = 0; i < frame.getNumLayerRedraws(); i++) {
+
+            LayerRedraw redraw = frame.getLayerRedraw(i);
+            redraw.getLayer().beginRedraw();
+            drawCommands(frame, redraw.getCommandQueue());
+            redraw.getLayer().endRedraw();
+        }
+        drawCommands(frame, frame.getCommandQueue());
+
         // Cleanup.
-        stagedText.clear();                                                                                             // Remove all staged text as it has already been rendered.
+        frame.clear();                                                                                                  // Remove all render commands and recycle all batches as they have already been rendered.
+        GlStateCache.endFrame();
+    }
+
+
+    /**
+     * Checks whether the most recently published frame has not yet been acquired to be drawn.
+     *
+     * @return whether a published frame is pending
+     */
+    public boolean isFramePending() {
+
+        return frames.isPending();
+    }
+
+
+    /**
+     * Records a redraw of the cached contents of a layer into the frame being recorded.
+     * Drawables and text added by the recorder are drawn into the layer (before the rest of the frame is drawn) instead
+     * of being added to the frame itself.
+     * The layer is considered up to date as soon as its redraw is recorded.
+     *
+     * @param layer CachedLayer instance to redraw
+     * @param recorder logic that adds the contents of the layer to the render pipeline
+     */
+    public void redrawLayer(CachedLayer layer, Runnable recorder) {
+
+        if (recordingLayer != null) {
+
+            UtilityTool.logError("Attempted to redraw a cached layer while another cached layer was being redrawn.");
+            return;
+        }
+        RenderFrame frame = frames.getWriteBuffer();
+        recordingLayer = frame.obtainLayerRedraw(layer);
+        frame.getBatchAllocator().closeOpenBatches();                                                                   // Keep drawables of the layer and of the frame in separate batches.
+        frame.getRoundedBatchAllocator().closeOpenBatches();
+
+        try {
+
+            recorder.run();
+        } finally {
+
+            recordingLayer = null;
+            frame.getBatchAllocator().closeOpenBatches();
+            frame.getRoundedBatchAllocator().closeOpenBatches();
+        }
+        layer.validate();
     }
 
 
@@ -143,6 +250,60 @@ public class Renderer {
     }
 
 
+    /**
+     * Adds a GPU tilemap layer to the render pipeline.
+     *
+     * @param layer TilemapLayer instance to add
+     * @param zIndex layer on which to render; tilemap layers will always be rendered before other drawables on the same
+     *               layer, regardless of the order in which they were added to the render pipeline
+     */
+    public void addTilemapLayer(TilemapLayer layer, ZIndex zIndex) {
+
+        if ((layer != null) && layer.isReady()) {
+
+            getRecordingQueue().push(zIndex.value, RenderPipeline.TILEMAP, 0, layer);
+        }
+    }
+
+
+    /**
+     * Adds a static batch of drawables to the render pipeline.
+     *
+     * @param batch StaticDrawableBatch instance to add
+     * @param zIndex layer on which to render; static batches will always be rendered before other drawables (except
+     *               tilemap layers) on the same layer, regardless of the order in which they were added to the render pipeline
+     */
+    public void addStaticBatch(StaticDrawableBatch batch, ZIndex zIndex) {
+
+        if ((batch != null) && batch.hasDrawable()) {
+
+            if (batch.isDirty()) {
+
+                batch.stage(frames.getWriteBuffer().obtainStaticBatchUpload());                                         // Copy changes so that the batch may keep changing while this frame is drawn.
+            }
+            getRecordingQueue().push(zIndex.value, RenderPipeline.STATIC, 0, batch);
+        }
+    }
+
+
+    /**
+     * Adds the cached contents of a layer to the render pipeline.
+     * If the layer is invalid, it must be redrawn before being added, otherwise nothing is added.
+     *
+     * @param layer CachedLayer instance to add
+     * @param zIndex layer on which to render; cached layers will always be rendered before other drawables (except
+     *               tilemap layers and static batches) on the same layer, regardless of the order in which they were
+     *               added to the render pipeline
+     */
+    public void addCachedLayer(CachedLayer layer, ZIndex zIndex) {
+
+        if ((layer != null) && layer.isValid()) {
+
+            getRecordingQueue().push(zIndex.value, RenderPipeline.LAYER, 0, layer);
+        }
+    }
+
+
     /**
      * Adds a string of characters to the render pipeline.
      *
@@ -157,7 +318,39 @@ public class Renderer {
      */
     public void addString(String text, float x, float y, float scale, Vector3f color, String font, ZIndex zIndex) {
 
-        stagedText.add(new Text(text, x, y, scale, color, font, zIndex));
+        addString(text, x, y, scale, color, font, zIndex, false);
+    }
+
+
+    /**
+     * Adds a string of characters to the render pipeline, optionally with a black drop shadow.
+     * The drop shadow is drawn by the font shader from the same glyph quads as the text itself, so a shadowed string
+     * costs no more to submit than an unshadowed one.
+     *
+     * @param text text to add
+     * @param x x-coordinate (leftmost)
+     * @param y y-coordinate (topmost)
+     * @param scale scale factor compared to native font size
+     * @param color color (r, g, b)
+     * @param font name of font to use
+     * @param zIndex layer on which to render; strings will always be rendered after other drawables on the same layer,
+     *               regardless of the order in which they were added to the render pipeline
+     * @param dropShadow whether to draw a drop shadow
+     */
+    public void addString(String text, float x, float y, float scale, Vector3f color, String font, ZIndex zIndex,
+                          boolean dropShadow) {
+
+        Integer fontState = fontStates.get(font);
+
+        if (fontState != null) {
+
+            GlyphSpan span = textLayout.layout(frames.getWriteBuffer(), text, x, y, scale, color, fonts.get(font),
+                    dropShadow);
+            getRecordingQueue().push(zIndex.value, RenderPipeline.TEXT, fontState, span);
+        } else {
+
+            UtilityTool.logError("Attempted to render text with an unloaded font named '" + font + "'.");
+        }
     }
 
 
@@ -188,7 +381,31 @@ public class Renderer {
     public void addRoundRectangle(Vector4f color, Transform transform, ZIndex zIndex, float radius) {
 
         updateMemoryRectangle(color, transform);
-        addDrawableToSingle(memoryRectangle, zIndex, radius);
+        addDrawableToRoundedBatch(memoryRectangle, zIndex, radius);
+    }
+
+
+    /**
+     * Saves the cache file of each loaded font.
+     * This should be called before the application shuts down so that characters loaded this session do not need to
+     * be generated again on the next launch.
+     */
+    public void saveFontCaches() {
+
+        for (CFont font : fonts.values()) {
+            font.saveCache();
+        }
+    }
+
+
+    /**
+     * Retrieves the allocator that manages batches of drawables recorded into the frame currently being recorded.
+     *
+     * @return batch allocator
+     */
+    public BatchAllocator getBatchAllocator() {
+
+        return frames.getWriteBuffer().getBatchAllocator();
     }
 
 
@@ -205,72 +422,125 @@ public class Renderer {
 
 
     /**
-     * Adds a single drawable to render.
+     * Draws render commands recorded in a frame.
+     * All render commands are sorted into drawing order by layer, then pipeline, then state, then submission order.
+     * Consecutive commands with compatible state (e.g., text sharing a font) are drawn together.
      *
-     * @param drawable drawable to add
-     * @param zIndex layer on which to render
-     * @param radius arc radius at four corners of quad
+     * @param frame frame that the commands were recorded in
+     * @param commandQueue commands to draw
      */
-    private void addDrawableToSingle(Drawable drawable, ZIndex zIndex, float radius) {
+    private void drawCommands(RenderFrame frame, RenderCommandQueue commandQueue) {
 
-        boolean added = false;
+        commandQueue.sort();
 
-        for (DrawableSingle single : drawableSingles) {
+        for (int i = 0; i < commandQueue.size(); i++) {
 
-            if (single.isAvailable()) {
+            Object payload = commandQueue.getPayload(i);
 
-                single.setDrawable(drawable);
-                single.setzIndex(zIndex);
-                single.setRadius(radius);
-                added = true;
-                break;
+            switch (commandQueue.getPipeline(i)) {
+                case TILEMAP:
+                    ((TilemapLayer)payload).render(frame.getViewRect(), frame.getAnimationTime());
+                    break;
+                case STATIC:
+                    ((StaticDrawableBatch)payload).render();
+                    break;
+                case LAYER:
+                    ((CachedLayer)payload).render();
+                    break;
+                case ROUNDED:
+                case BATCH:
+                    ((DrawableBatch)payload).flush();
+                    break;
+                case TEXT:
+                    GlyphSpan span = (GlyphSpan)payload;
+                    if (fontBatch.isEmpty()) {
+                        fontBatch.setFont(span.getFont());                                                              // Set font for this run of text.
+                    }
+                    fontBatch.addSpan(frame.getTextVertices(), span);
+                    if ((i + 1 == commandQueue.size()) || !commandQueue.isCompatible(i, i + 1)) {
+                        fontBatch.flush();                                                                              // Must manually flush at the end of a run to render any remaining characters in the batch.
+                    }
+                    break;
             }
         }
+    }
+
+
+    /**
+     * Uploads camera matrices to the camera uniform buffer shared by all shaders, creating the buffer if it does not
+     * exist yet.
+     * The upload is skipped if the matrices have not changed since the last upload.
+     * This may only be called by the thread that owns the OpenGL context.
+     *
+     * @param cameraMatrices projection matrix followed by view matrix (column-major)
+     */
+    private void uploadCamera(float[] cameraMatrices) {
+
+        if (cameraUboId == 0) {
 
-        if (!added) {
+            cameraUboId = glGenBuffers();
+            glBindBuffer(GL_UNIFORM_BUFFER, cameraUboId);
+            glBufferData(GL_UNIFORM_BUFFER, (long)cameraBuffer.capacity() * Float.BYTES, GL_DYNAMIC_DRAW);
+            glBindBufferBase(GL_UNIFORM_BUFFER, Camera.UNIFORM_BLOCK_BINDING, cameraUboId);
+        } else if (Arrays.equals(cameraMatrices, uploadedCameraMatrices)) {
 
-            DrawableSingle newSingle = new DrawableSingle(gp);
-            newSingle.setzIndex(zIndex);
-            newSingle.setRadius(radius);
-            newSingle.setDrawable(drawable);
-            drawableSingles.add(newSingle);
+            return;
         }
+        cameraBuffer.put(0, cameraMatrices);
+        glBindBuffer(GL_UNIFORM_BUFFER, cameraUboId);
+        glBufferSubData(GL_UNIFORM_BUFFER, 0, cameraBuffer);
+        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+        System.arraycopy(cameraMatrices, 0, uploadedCameraMatrices, 0, cameraMatrices.length);
     }
 
 
     /**
-     * Adds a drawable to a batch to render.
+     * Retrieves the render command queue that drawables and text are currently being recorded into.
+     *
+     * @return command queue of the cached layer redraw being recorded, if any, otherwise that of the frame being
+     * recorded
+     */
+    private RenderCommandQueue getRecordingQueue() {
+
+        return (recordingLayer != null) ? recordingLayer.getCommandQueue() : frames.getWriteBuffer().getCommandQueue();
+    }
+
+
+    /**
+     * Adds a drawable with rounded corners to a batch to render.
      *
      * @param drawable drawable to add
      * @param zIndex layer on which to render
+     * @param radius arc radius at four corners of quad
      */
-    private void addDrawableToBatch(Drawable drawable, ZIndex zIndex) {
+    private void addDrawableToRoundedBatch(Drawable drawable, ZIndex zIndex, float radius) {
 
-        boolean added = false;
+        BatchAllocator allocator = frames.getWriteBuffer().getRoundedBatchAllocator();
+        DrawableBatch batch = allocator.allocate(drawable.getTexture(), zIndex);
 
-        for (DrawableBatch batch : drawableBatches) {
+        if (!batch.hasDrawable()) {
 
-            if (batch.hasRoom()) {
+            getRecordingQueue().push(zIndex.value, RenderPipeline.ROUNDED, 0, batch);                                   // Batch was just opened, so submit it to be rendered in its allocation order.
+        }
+        batch.addDrawable(drawable, radius);
+    }
 
-                Texture texture = drawable.getTexture();
 
-                if (((texture == null) || (batch.hasTexture(texture) || batch.hasTextureRoom()))
-                        && (batch.getzIndex() == zIndex)) {
+    /**
+     * Adds a drawable to a batch to render.
+     *
+     * @param drawable drawable to add
+     * @param zIndex layer on which to render
+     */
+    private void addDrawableToBatch(Drawable drawable, ZIndex zIndex) {
 
-                    batch.addDrawable(drawable);
-                    added = true;
-                    break;
-                }
-            }
-        }
+        DrawableBatch batch = frames.getWriteBuffer().getBatchAllocator().allocate(drawable.getTexture(), zIndex);
 
-        if (!added) {
+        if (!batch.hasDrawable()) {
 
-            DrawableBatch newBatch = new DrawableBatch(gp);
-            newBatch.setzIndex(zIndex);
-            newBatch.addDrawable(drawable);
-            drawableBatches.add(newBatch);
+            getRecordingQueue().push(zIndex.value, RenderPipeline.BATCH, 0, batch);                                     // Batch was just opened, so submit it to be rendered in its allocation order.
         }
+        batch.addDrawable(drawable);
     }
 
 
@@ -295,8 +565,10 @@ public class Renderer {
 
         CFont font = new CFont("/fonts/PixelOperator.ttf", 128);
         fonts.put(font.getName(), font);
+        fontStates.put(font.getName(), fontStates.size());
 
         font = new CFont("/fonts/PixelOperator-Bold.ttf", 128);
         fonts.put(font.getName(), font);
+        fontStates.put(font.getName(), fontStates.size());
     }
 }
@@ -0,0 +1,346 @@
+package render;
+
+import org.joml.Vector2f;
+import org.joml.Vector4f;
+import asset.Sprite;
+import render.drawable.Drawable;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.glVertexAttribIPointer;
+import static org.lwjgl.opengl.GL33.glVertexAttribDivisor;
+
+/**
+ * This class defines the packed vertex and instance formats shared by all batch types, along with a shared quad
+ * element buffer.
+ * Colors are stored as normalized bytes, texture coordinates as normalized 16-bit integers, and texture slots as
+ * integer bytes, which keeps vertex data far smaller than storing every property as a float.
+ */
+public class VertexLayout {
+
+    /*
+     * Quad Vertex (20 bytes)
+     * ======================
+     * Position         Color                     Texture coordinates        Texture slot    (padding)
+     * float, float,    ubyte x4 (normalized),    ushort x2 (normalized),    ubyte,          ubyte x3
+     *
+     * Quad Instance (32 bytes)
+     * ========================
+     * Position         Scale            Texture rectangle (left, bottom, right, top)    Color                     Texture slot    Palette    Corner radius
+     * float, float,    float, float,    ushort x4 (normalized),                         ubyte x4 (normalized),    ubyte,          ubyte,     ushort (fixed point)
+     */
+
+    // FIELDS
+    /**
+     * Defines the offset (in bytes) of the start of the position floats in each vertex.
+     */
+    private static final int VERTEX_POSITION_OFFSET = 0;
+
+    /**
+     * Defines the offset (in bytes) of the start of the color bytes in each vertex.
+     */
+    private static final int VERTEX_COLOR_OFFSET = VERTEX_POSITION_OFFSET + 2 * Float.BYTES;
+
+    /**
+     * Defines the offset (in bytes) of the start of the texture coordinate shorts in each vertex.
+     */
+    private static final int VERTEX_TEXTURE_COORDS_OFFSET = VERTEX_COLOR_OFFSET + 4;
+
+    /**
+     * Defines the offset (in bytes) of the texture slot byte in each vertex.
+     */
+    private static final int VERTEX_TEXTURE_SLOT_OFFSET = VERTEX_TEXTURE_COORDS_OFFSET + 2 * Short.BYTES;
+
+    /**
+     * Total number of bytes in each vertex (padded to a multiple of four bytes).
+     */
+    public static final int VERTEX_SIZE_BYTES = 20;
+
+    /**
+     * Defines the offset (in bytes) of the start of the position floats in each instance.
+     */
+    private static final int INSTANCE_POSITION_OFFSET = 0;
+
+    /**
+     * Defines the offset (in bytes) of the start of the scale floats in each instance.
+     */
+    private static final int INSTANCE_SCALE_OFFSET = INSTANCE_POSITION_OFFSET + 2 * Float.BYTES;
+
+    /**
+     * Defines the offset (in bytes) of the start of the texture rectangle shorts in each instance.
+     */
+    private static final int INSTANCE_TEXTURE_RECT_OFFSET = INSTANCE_SCALE_OFFSET + 2 * Float.BYTES;
+
+    /**
+     * Defines the offset (in bytes) of the start of the color bytes in each instance.
+     */
+    private static final int INSTANCE_COLOR_OFFSET = INSTANCE_TEXTURE_RECT_OFFSET + 4 * Short.BYTES;
+
+    /**
+     * Defines the offset (in bytes) of the texture slot byte in each instance.
+     */
+    private static final int INSTANCE_TEXTURE_SLOT_OFFSET = INSTANCE_COLOR_OFFSET + 4;
+
+    /**
+     * Defines the offset (in bytes) of the palette byte in each instance.
+     */
+    private static final int INSTANCE_PALETTE_OFFSET = INSTANCE_TEXTURE_SLOT_OFFSET + 1;
+
+    /**
+     * Defines the offset (in bytes) of the corner radius short in each instance (aligned to two bytes).
+     */
+    private static final int INSTANCE_RADIUS_OFFSET = INSTANCE_PALETTE_OFFSET + 1;
+
+    /**
+     * Number of steps per world unit in which corner radii are stored (i.e., radii are stored as fixed-point values
+     * with four fractional bits).
+     */
+    private static final float RADIUS_STEPS_PER_UNIT = 16.0f;
+
+    /**
+     * Total number of bytes in each instance.
+     */
+    public static final int INSTANCE_SIZE_BYTES = 32;
+
+    /**
+     * Maximum number of quads that can be drawn with the shared quad element buffer.
+     * This is limited by the largest vertex index that fits in an unsigned short (four vertices per quad).
+     */
+    public static final int MAX_QUADS = 16383;
+
+    /**
+     * Element buffer object ID of the shared quad element buffer, or 0 if not yet created.
+     */
+    private static int quadEboId;
+
+
+    // METHODS
+    /**
+     * Binds the shared quad element buffer to the currently bound vertex array object.
+     * The buffer is created and uploaded to the GPU the first time it is bound.
+     * Each quad is composed of four vertices ordered clockwise, starting from top-right, and is drawn as two triangles
+     * using six unsigned short indices.
+     */
+    public static void bindQuadElementBuffer() {
+
+        if (quadEboId == 0) {
+
+            short[] elements = new short[6 * MAX_QUADS];                                                                // 6 indices per quad (3 per triangle).
+
+            for (int i = 0; i < MAX_QUADS; i++) {
+
+                int offsetArrayIndex = 6 * i;
+                int offset = 4 * i;
+
+                // Triangle 1.
+                elements[offsetArrayIndex] = (short)(offset + 3);
+                elements[offsetArrayIndex + 1] = (short)(offset + 2);
+                elements[offsetArrayIndex + 2] = (short)(offset + 0);
+
+                // Triangle 2.
+                elements[offsetArrayIndex + 3] = (short)(offset + 0);
+                elements[offsetArrayIndex + 4] = (short)(offset + 2);
+                elements[offsetArrayIndex + 5] = (short)(offset + 1);
+            }
+            quadEboId = glGenBuffers();
+            glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, quadEboId);
+            glBufferData(GL_ELEMENT_ARRAY_BUFFER, elements, GL_STATIC_DRAW);
+        } else {
+
+            glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, quadEboId);
+        }
+    }
+
+
+    /**
+     * Sets the vertex attribute pointers for the quad vertex format on the currently bound vertex array object.
+     * The vertex buffer to read from must already be bound.
+     * Attributes occupy locations 0 (position), 1 (color), 2 (texture coordinates), and 3 (texture slot).
+     */
+    public static void enableVertexAttributes() {
+
+        glVertexAttribPointer(0, 2, GL_FLOAT, false, VERTEX_SIZE_BYTES, VERTEX_POSITION_OFFSET);
+        glEnableVertexAttribArray(0);
+        glVertexAttribPointer(1, 4, GL_UNSIGNED_BYTE, true, VERTEX_SIZE_BYTES, VERTEX_COLOR_OFFSET);
+        glEnableVertexAttribArray(1);
+        glVertexAttribPointer(2, 2, GL_UNSIGNED_SHORT, true, VERTEX_SIZE_BYTES, VERTEX_TEXTURE_COORDS_OFFSET);
+        glEnableVertexAttribArray(2);
+        glVertexAttribIPointer(3, 1, GL_UNSIGNED_BYTE, VERTEX_SIZE_BYTES, VERTEX_TEXTURE_SLOT_OFFSET);
+        glEnableVertexAttribArray(3);
+    }
+
+
+    /**
+     * Sets the vertex attribute pointers for the quad instance format on the currently bound vertex array object.
+     * The instance buffer to read from must already be bound.
+     * Attributes occupy locations 1 (position), 2 (scale), 3 (texture rectangle), 4 (color), 5 (texture slot), 6
+     * (corner radius, in fixed-point steps), and 7 (palette), and advance once per instance; location 0 is left for
+     * the unit quad corner.
+     */
+    public static void enableInstanceAttributes() {
+
+        glVertexAttribPointer(1, 2, GL_FLOAT, false, INSTANCE_SIZE_BYTES, INSTANCE_POSITION_OFFSET);
+        glVertexAttribPointer(2, 2, GL_FLOAT, false, INSTANCE_SIZE_BYTES, INSTANCE_SCALE_OFFSET);
+        glVertexAttribPointer(3, 4, GL_UNSIGNED_SHORT, true, INSTANCE_SIZE_BYTES, INSTANCE_TEXTURE_RECT_OFFSET);
+        glVertexAttribPointer(4, 4, GL_UNSIGNED_BYTE, true, INSTANCE_SIZE_BYTES, INSTANCE_COLOR_OFFSET);
+        glVertexAttribIPointer(5, 1, GL_UNSIGNED_BYTE, INSTANCE_SIZE_BYTES, INSTANCE_TEXTURE_SLOT_OFFSET);
+        glVertexAttribPointer(6, 1, GL_UNSIGNED_SHORT, false, INSTANCE_SIZE_BYTES, INSTANCE_RADIUS_OFFSET);
+        glVertexAttribIPointer(7, 1, GL_UNSIGNED_BYTE, INSTANCE_SIZE_BYTES, INSTANCE_PALETTE_OFFSET);
+        for (int attribute = 1; attribute <= 7; attribute++) {
+            glEnableVertexAttribArray(attribute);
+            glVertexAttribDivisor(attribute, 1);
+        }
+    }
+
+
+    /**
+     * Writes a single vertex in the quad vertex format.
+     *
+     * @param buffer buffer to write to
+     * @param offset offset (in bytes) of the vertex in the buffer
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @param color color (r, g, b, a), each from 0 to 255
+     * @param u texture x-coordinate (normalized from 0 to 1)
+     * @param v texture y-coordinate (normalized from 0 to 1)
+     * @param textureSlot texture slot (0 for no texture)
+     */
+    public static void putVertex(ByteBuffer buffer, int offset, float x, float y, Vector4f color,
+                                 float u, float v, int textureSlot) {
+
+        buffer.putFloat(offset + VERTEX_POSITION_OFFSET, x);
+        buffer.putFloat(offset + VERTEX_POSITION_OFFSET + Float.BYTES, y);
+        putColor(buffer, offset + VERTEX_COLOR_OFFSET, color.x, color.y, color.z, color.w);
+        buffer.putShort(offset + VERTEX_TEXTURE_COORDS_OFFSET, packTextureCoord(u));
+        buffer.putShort(offset + VERTEX_TEXTURE_COORDS_OFFSET + Short.BYTES, packTextureCoord(v));
+        buffer.put(offset + VERTEX_TEXTURE_SLOT_OFFSET, (byte)textureSlot);
+    }
+
+
+    /**
+     * Writes a single vertex in the quad vertex format.
+     *
+     * @param buffer buffer to write to
+     * @param offset offset (in bytes) of the vertex in the buffer
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @param r red, from 0 to 255
+     * @param g green, from 0 to 255
+     * @param b blue, from 0 to 255
+     * @param a alpha, from 0 to 255
+     * @param u texture x-coordinate (normalized from 0 to 1)
+     * @param v texture y-coordinate (normalized from 0 to 1)
+     * @param textureSlot texture slot (0 for no texture)
+     */
+    public static void putVertex(ByteBuffer buffer, int offset, float x, float y, float r, float g, float b, float a,
+                                 float u, float v, int textureSlot) {
+
+        buffer.putFloat(offset + VERTEX_POSITION_OFFSET, x);
+        buffer.putFloat(offset + VERTEX_POSITION_OFFSET + Float.BYTES, y);
+        putColor(buffer, offset + VERTEX_COLOR_OFFSET, r, g, b, a);
+        buffer.putShort(offset + VERTEX_TEXTURE_COORDS_OFFSET, packTextureCoord(u));
+        buffer.putShort(offset + VERTEX_TEXTURE_COORDS_OFFSET + Short.BYTES, packTextureCoord(v));
+        buffer.put(offset + VERTEX_TEXTURE_SLOT_OFFSET, (byte)textureSlot);
+    }
+
+
+    /**
+     * Writes a drawable as a single instance in the quad instance format.
+     * If the sprite of the drawable had transparent borders trimmed from its parent texture, the quad is inset to
+     * cover only the stored pixels, in proportion to the scale of the drawable.
+     *
+     * @param buffer buffer to write to
+     * @param offset offset (in bytes) of the instance in the buffer
+     * @param drawable drawable to write
+     * @param textureSlot texture slot (0 for no texture)
+     * @param radius corner radius (0 for square corners)
+     */
+    public static void putInstance(ByteBuffer buffer, int offset, Drawable drawable, int textureSlot, float radius) {
+
+        float x = drawable.transform.position.x;
+        float y = drawable.transform.position.y;
+        float width = drawable.transform.scale.x;
+        float height = drawable.transform.scale.y;
+        Sprite sprite = drawable.getSprite();
+
+        if (sprite.isTrimmed()) {
+
+            float unitX = width / sprite.getNativeWidth();                                                              // World width of one native sprite pixel.
+            float unitY = height / sprite.getNativeHeight();                                                            // World height of one native sprite pixel.
+            x += sprite.getTrimLeft() * unitX;
+            y += sprite.getTrimTop() * unitY;
+            width = sprite.getTrimmedWidth() * unitX;
+            height = sprite.getTrimmedHeight() * unitY;
+        }
+        putInstance(buffer, offset, x, y, width, height, drawable.getTextureCoords(), drawable.getColor(),
+                textureSlot, sprite.getPalette(), radius);
+    }
+
+
+    /**
+     * Writes a single instance in the quad instance format.
+     *
+     * @param buffer buffer to write to
+     * @param offset offset (in bytes) of the instance in the buffer
+     * @param x x-coordinate (leftmost)
+     * @param y y-coordinate (topmost)
+     * @param width width
+     * @param height height
+     * @param textureCoords sprite texture coordinates (top-right, bottom-right, bottom-left, top-left)
+     * @param color color (r, g, b, a), each from 0 to 255
+     * @param textureSlot texture slot (0 for no texture)
+     * @param palette palette number if the texture is indexed (0 for a direct-color texture)
+     * @param radius corner radius (0 for square corners)
+     */
+    public static void putInstance(ByteBuffer buffer, int offset, float x, float y, float width, float height,
+                                   Vector2f[] textureCoords, Vector4f color, int textureSlot, int palette,
+                                   float radius) {
+
+        buffer.putFloat(offset + INSTANCE_POSITION_OFFSET, x);
+        buffer.putFloat(offset + INSTANCE_POSITION_OFFSET + Float.BYTES, y);
+        buffer.putFloat(offset + INSTANCE_SCALE_OFFSET, width);
+        buffer.putFloat(offset + INSTANCE_SCALE_OFFSET + Float.BYTES, height);
+        buffer.putShort(offset + INSTANCE_TEXTURE_RECT_OFFSET, packTextureCoord(textureCoords[2].x));                   // Left.
+        buffer.putShort(offset + INSTANCE_TEXTURE_RECT_OFFSET + Short.BYTES, packTextureCoord(textureCoords[1].y));     // Bottom.
+        buffer.putShort(offset + INSTANCE_TEXTURE_RECT_OFFSET + 2 * Short.BYTES, packTextureCoord(textureCoords[0].x)); // Right.
+        buffer.putShort(offset + INSTANCE_TEXTURE_RECT_OFFSET + 3 * Short.BYTES, packTextureCoord(textureCoords[0].y)); // Top.
+        putColor(buffer, offset + INSTANCE_COLOR_OFFSET, color.x, color.y, color.z, color.w);
+        buffer.put(offset + INSTANCE_TEXTURE_SLOT_OFFSET, (byte)textureSlot);
+        buffer.put(offset + INSTANCE_PALETTE_OFFSET, (byte)palette);
+        buffer.putShort(offset + INSTANCE_RADIUS_OFFSET,
+                (short)Math.round(Math.min(Math.max(radius, 0.0f) * RADIUS_STEPS_PER_UNIT, 65535.0f)));
+    }
+
+
+    /**
+     * Writes a color as four bytes.
+     *
+     * @param buffer buffer to write to
+     * @param offset offset (in bytes) of the color in the buffer
+     * @param r red, from 0 to 255
+     * @param g green, from 0 to 255
+     * @param b blue, from 0 to 255
+     * @param a alpha, from 0 to 255
+     */
+    private static void putColor(ByteBuffer buffer, int offset, float r, float g, float b, float a) {
+
+        buffer.put(offset, (byte)r);
+        buffer.put(offset + 1, (byte)g);
+        buffer.put(offset + 2, (byte)b);
+        buffer.put(offset + 3, (byte)a);
+    }
+
+
+    /**
+     * Packs a normalized texture coordinate into a normalized unsigned short.
+     *
+     * @param coord texture coordinate (normalized from 0 to 1)
+     * @return packed texture coordinate
+     */
+    private static short packTextureCoord(float coord) {
+
+        return (short)Math.round(Math.min(Math.max(coord, 0.0f), 1.0f) * 65535.0f);
+    }
+}
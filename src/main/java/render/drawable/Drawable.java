@@ -117,6 +117,10 @@ public class Drawable {
         return sprite.getTexture();
     }
 
+    public Sprite getSprite() {
+        return sprite;
+    }
+
     public int getNativeSpriteWidth() {
         return sprite.getNativeWidth();
     }
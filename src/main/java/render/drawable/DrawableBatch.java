@@ -1,150 +1,117 @@
 package render.drawable;
 
 import core.GamePanel;
-import org.joml.Vector2f;
-import org.joml.Vector4f;
 import asset.Shader;
-import asset.Sprite;
 import asset.Texture;
+import render.GlStateCache;
+import render.GlTaskQueue;
+import render.VertexLayout;
 import render.enumeration.ZIndex;
 import asset.AssetPool;
+import asset.PaletteTable;
+import org.lwjgl.BufferUtils;
 import utility.LimitedArrayList;
 
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 
 import static org.lwjgl.opengl.GL15.*;
 import static org.lwjgl.opengl.GL20.*;
-import static org.lwjgl.opengl.GL20.glDisableVertexAttribArray;
-import static org.lwjgl.opengl.GL30.glBindVertexArray;
+import static org.lwjgl.opengl.GL30.glDeleteVertexArrays;
 import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+import static org.lwjgl.opengl.GL31.glDrawElementsInstanced;
 
 /**
  * This class holds a batch of drawables to be sent to the GPU and rendered in a single call.
  * Sending drawables to the GPU to render as a single batch significantly improves performance.
+ * Each drawable is rendered as an instance of a single static unit quad; only per-instance properties are uploaded.
+ * Any shader that reads the shared quad instance format may be attached (e.g., to draw quads with rounded corners).
+ * Drawables are added on the thread that records frames, while the batch is flushed on the thread that owns the OpenGL
+ * context once the frame it was recorded into is drawn; it is only created on the GPU when first flushed.
  */
 public class DrawableBatch {
 
     /*
-     * Vertex in Vertex Array
-     * ======================
-     * Position         Color                          Texture coordinates     Texture ID
-     * float, float,    float, float, float, float,    float, float,           float
+     * Vertex in Unit Quad Array (static)
+     * ==================================
+     * Corner
+     * float, float
+     *
+     * Each drawable is written as one instance in the shared quad instance format (see VertexLayout).
      */
 
     // FIELDS
     private final GamePanel gp;
 
     /**
-     * Defines two position floats in the vertex array for each vertex.
-     */
-    private static final int POSITION_SIZE = 2;
-
-    /**
-     * Defines four color floats in the vertex array for each vertex.
-     */
-    private static final int COLOR_SIZE = 4;
-
-    /**
-     * Defines two texture coordinate floats in the vertex array for each vertex.
-     */
-    private static final int TEXTURE_COORDS_SIZE = 2;
-
-    /**
-     * Defines one texture ID float in the vertex array for each vertex.
-     */
-    private static final int TEXTURE_ID_SIZE = 1;
-
-    /**
-     * Defines the offset (in bytes) of the start of the position floats in the vertex array for each vertex.
-     * Here, the position starts at the beginning of a vertex definition, so it has zero offset.
-     */
-    private static final int POSITION_OFFSET = 0;
-
-    /**
-     * Defines the offset (in bytes) of the start of the color floats in the vertex array for each vertex.
-     * Here, the color starts after the position in a vertex definition, so it has an offset determined by the position.
-     */
-    private static final int COLOR_OFFSET = POSITION_OFFSET + POSITION_SIZE * Float.BYTES;
-
-    /**
-     * Defines the offset (in bytes) of the start of the texture coordinate floats in the vertex array for each vertex.
-     * Here, the texture coordinates start after the color in a vertex definition, so it has an offset determined by the
-     * color.
-     */
-    private static final int TEXTURE_COORDS_OFFSET = COLOR_OFFSET + COLOR_SIZE * Float.BYTES;
-
-    /**
-     * Defines the offset (in bytes) of the start of the texture ID float in the vertex array for each vertex.
-     * Here, the texture ID starts after the texture coordinates in a vertex definition, so it has an offset determined
-     * by the texture coordinates.
+     * Maximum number of drawables that can be added to this batch.
      */
-    private static final int TEXTURE_ID_OFFSET = TEXTURE_COORDS_OFFSET + TEXTURE_COORDS_SIZE * Float.BYTES;
+    private static final int MAX_BATCH_SIZE = 1000;
 
     /**
-     * Total number of floats in each vertex of the vertex array.
-     * Remember that a vertex represents a corner of a quad being rendered in this case.
+     * Actual number of drawables added to this batch (array of instances) thus far.
      */
-    private static final int VERTEX_SIZE = 9;
+    private int numDrawables;
 
     /**
-     * Maximum number of drawables that can be added to this batch.
+     * Boolean indicating whether any more drawables can be added to this batch.
      */
-    private static final int MAX_BATCH_SIZE = 1000;
+    private boolean hasRoom = true;
 
     /**
-     * Actual number of drawables added to this batch (array of drawables) thus far.
+     * Number of instance buffers in the streaming ring.
+     * Cycling through multiple buffers lets the CPU write the next flush while the GPU may still be reading from the
+     * previous one.
      */
-    private int numDrawables;
+    private static final int RING_SIZE = 3;
 
     /**
-     * Array to store drawables that will be rendered with this batch.
+     * Instance array (off-heap staging buffer).
+     * Each drawable to render requires one instance.
+     * Only the range occupied by added drawables is uploaded to the GPU when rendering.
      */
-    private final Drawable[] drawables = new Drawable[MAX_BATCH_SIZE];
+    private final ByteBuffer instances = BufferUtils.createByteBuffer(MAX_BATCH_SIZE * VertexLayout.INSTANCE_SIZE_BYTES);
 
     /**
-     * Placeholder sprite to reset drawables with.
-     * This allows the same sprite in memory to be used to reset all drawables.
+     * Vertex array object IDs, one per instance buffer in the streaming ring.
      */
-    private final Sprite placeholderSprite = new Sprite();
+    private final int[] vaoIds = new int[RING_SIZE];
 
     /**
-     * Boolean indicating whether any more drawables can be added to this batch.
+     * Instance buffer object IDs composing the streaming ring.
      */
-    private boolean hasRoom = true;
+    private final int[] vboIds = new int[RING_SIZE];
 
     /**
-     * Vertex array.
-     * Note that there are four vertices per quad.
-     * We would like a number of drawables equal to the maximum batch size, hence the multiplication by four.
-     * Each drawable to render requires a quad.
+     * Index of the instance buffer in the streaming ring that was most recently uploaded to.
      */
-    private final float[] vertices = new float[MAX_BATCH_SIZE * 4 * VERTEX_SIZE];
+    private int ringIndex;
 
     /**
-     * Vertex array object ID.
+     * Vertex buffer object ID of the static unit quad (shared by all vertex array objects in the streaming ring).
      */
-    private int vaoId;
+    private int quadVboId;
 
     /**
-     * Vertex buffer object ID.
+     * Boolean indicating whether this batch has been created on the GPU.
      */
-    private int vboId;
+    private boolean initialized;
 
     /**
      * Slots available to bind textures for sampling during a draw in this batch.
-     * Here, the number available is limited eight textures to ensure that lower-end GPUs are supported, even though
-     * OpenGL specifies a minimum of 16 available slots.
+     * Here, the number available is limited to seven slots, plus one texture unit for the palette table (see
+     * `PaletteTable.TEXTURE_UNIT`), to ensure that lower-end GPUs that support only eight texture units are supported,
+     * even though OpenGL specifies a minimum of 16 available slots.
      * This will index into the appropriate texture from the textures list.
      * In other words, this correlates directly to the textures in the textures list being bound in the GPU.
      * Note that slot zero is reserved for the empty texture.
      */
-    private final int[] textureSlots = {0, 1, 2, 3, 4, 5, 6, 7};
+    private final int[] textureSlots = {0, 1, 2, 3, 4, 5, 6};
 
     /**
      * List to store the textures available in this batch.
      * As a reminder, a texture is an entire spritesheet, while a sprite is a section of a spritesheet (i.e., texture).
      */
-    private final LimitedArrayList<Texture> textures = new LimitedArrayList<>(8);
+    private final LimitedArrayList<Texture> textures = new LimitedArrayList<>(6);
 
     /**
      * Shader attached to this batch.
@@ -157,25 +124,33 @@ public class DrawableBatch {
     private ZIndex zIndex = ZIndex.THIRD_LAYER;
 
 
-    // CONSTRUCTOR
+    // CONSTRUCTORS
     /**
-     * Constructs a BatchRenderer instance.
+     * Constructs a DrawableBatch instance with the default shader attached.
      *
      * @param gp GamePanel instance
      */
     public DrawableBatch(GamePanel gp) {
+        this(gp, "/shaders/default.glsl");
+    }
+
+
+    /**
+     * Constructs a DrawableBatch instance.
+     *
+     * @param gp GamePanel instance
+     * @param shaderFilePath file path of shader to attach (must already be loaded in the asset pool)
+     */
+    public DrawableBatch(GamePanel gp, String shaderFilePath) {
         this.gp = gp;
-        this.shader = AssetPool.getShader("/shaders/default.glsl");
-        for (int i = 0; i < drawables.length; i++) {
-            drawables[i] = new Drawable();
-        }
-        init();
+        this.shader = AssetPool.getShader(shaderFilePath);
     }
 
 
     // METHODS
     /**
      * Renders this batch then clears it of all drawables.
+     * This may only be called from the thread that owns the OpenGL context.
      */
     public void flush() {
 
@@ -186,25 +161,36 @@ public class DrawableBatch {
 
     /**
      * Adds a drawable to this batch.
+     * The properties of the drawable are written directly to the instance array, so the drawable may be freely
+     * modified after being added.
      *
      * @param drawable Drawable instance to add
      */
     public void addDrawable(Drawable drawable) {
 
-        // Get index and add render object.
-        int index = numDrawables;
-        drawable.copy(drawables[index]);
-        numDrawables++;
+        addDrawable(drawable, 0);
+    }
+
+
+    /**
+     * Adds a drawable with rounded corners to this batch.
+     * Note that corners are only rounded if the attached shader supports it.
+     *
+     * @param drawable Drawable instance to add
+     * @param radius arc radius at four corners of drawable
+     */
+    public void addDrawable(Drawable drawable, float radius) {
 
         // Check if drawable has texture; if so, add to list if not already loaded.
         if (drawable.getTexture() != null) {
-            if (!textures.contains(drawable.getTexture())) {
+            if (findTextureSlot(drawable.getTexture()) == 0) {
                 textures.add(drawable.getTexture());
             }
         }
 
-        // Add properties to local vertices array.
-        loadVertexProperties(index);
+        // Add properties to local instance array.
+        loadInstanceProperties(drawable, numDrawables, radius);
+        numDrawables++;
 
         // Check if batch has run out of room.
         if (numDrawables >= MAX_BATCH_SIZE) {
@@ -224,67 +210,71 @@ public class DrawableBatch {
     }
 
 
+    /**
+     * Frees this batch from GPU memory if it is finished being used.
+     * Note that this does not destruct this DrawableBatch instance, which must be managed by JVM garbage collection.
+     */
+    public void delete() {
+
+        GlTaskQueue.submit(() -> {
+            if (initialized) {
+                for (int i = 0; i < RING_SIZE; i++) {
+                    glDeleteBuffers(vboIds[i]);
+                    GlStateCache.invalidateVertexArray(vaoIds[i]);
+                    glDeleteVertexArrays(vaoIds[i]);
+                }
+                glDeleteBuffers(quadVboId);
+                initialized = false;
+            }
+        });
+    }
+
+
     /**
      * Renders all drawables in this batch.
      */
     private void render() {
 
-        // Rebuffer all data.
-        glBindBuffer(GL_ARRAY_BUFFER, vboId);
-        glBufferSubData(GL_ARRAY_BUFFER, 0, vertices);
+        if (!initialized) {
+
+            init();
+        }
+
+        // Advance to next buffer in streaming ring.
+        ringIndex = (ringIndex + 1) % RING_SIZE;
+
+        // Orphan previous buffer storage, then upload only the used range of instance data.
+        glBindBuffer(GL_ARRAY_BUFFER, vboIds[ringIndex]);
+        glBufferData(GL_ARRAY_BUFFER, instances.capacity(), GL_STREAM_DRAW);                                            // Orphaning lets the driver hand back fresh storage instead of stalling on a buffer still in use.
+        instances.limit(numDrawables * VertexLayout.INSTANCE_SIZE_BYTES);
+        glBufferSubData(GL_ARRAY_BUFFER, 0, instances);
+        instances.clear();                                                                                              // Restore limit to full capacity (contents are untouched).
 
         // Bind shader program.
         shader.use();
 
-        // Camera.
-        shader.uploadMat4f("uProjection", gp.getCamera().getProjectionMatrix());
-        shader.uploadMat4f("uView", gp.getCamera().getViewMatrix());
-
         // Bind textures.
         for (int i = 0; i < textures.size(); i++) {
-            glActiveTexture(GL_TEXTURE0 + i + 1);                                                                       // Activate texture in appropriate slot; slot 0 is reserved for the empty texture.
-            textures.get(i).bind();
+            textures.get(i).bind(i + 1);                                                                                // Bind texture in appropriate slot; slot 0 is reserved for the empty texture.
         }
-        shader.uploadIntArray("uTextures", textureSlots);                                                               // Use multiple textures in shader (up to seven plus the empty texture).
+        shader.uploadIntArray("uTextures", textureSlots);                                                               // Use multiple textures in shader (up to six plus the empty texture).
+        AssetPool.getPaletteTable().bind();
+        shader.uploadInt("uPalettes", PaletteTable.TEXTURE_UNIT);                                                       // Resolves instances drawn from indexed textures.
 
         // Bind VAO being used.
-        glBindVertexArray(vaoId);
+        GlStateCache.bindVertexArray(vaoIds[ringIndex]);
 
-        // Enable vertex attribute pointers.
-        glEnableVertexAttribArray(0);
-        glEnableVertexAttribArray(1);
-
-        // Draw.
-        glDrawElements(GL_TRIANGLES, (numDrawables * 6), GL_UNSIGNED_INT, 0);
-
-        // Unbind after drawing.
-        glDisableVertexAttribArray(0);
-        glDisableVertexAttribArray(1);
-        glBindVertexArray(0);                                                                                           // 0 is a flag that states to bind nothing.
-        shader.detach();                                                                                                // Detach shader program.
-        for (int i = 0; i < textures.size(); i++) {
-            textures.get(i).unbind();
-        }
+        // Draw (one unit quad per drawable).
+        glDrawElementsInstanced(GL_TRIANGLES, 6, GL_UNSIGNED_SHORT, 0, numDrawables);
     }
 
 
     /**
      * Clears this batch of all drawables, resetting it to its default initialized state.
+     * Instance data is not zeroed since the used range is always overwritten before it is uploaded again.
      */
     private void clear() {
 
-        Arrays.fill(vertices, 0);
-        for (int i = 0; i < drawables.length; i++) {
-            drawables[i].transform.position.x = 0;
-            drawables[i].transform.position.y = 0;
-            drawables[i].transform.scale.x = 0;
-            drawables[i].transform.scale.y = 0;
-            drawables[i].getColor().x = 0;
-            drawables[i].getColor().y = 0;
-            drawables[i].getColor().z = 0;
-            drawables[i].getColor().y = 0;
-            drawables[i].setSprite(placeholderSprite);
-        }
         numDrawables = 0;
         textures.clear();
         hasRoom = true;
@@ -298,139 +288,77 @@ public class DrawableBatch {
      */
     private void init() {
 
-        // Generate and bind a vertex array object.
-        vaoId = glGenVertexArrays();
-        glBindVertexArray(vaoId);
-
-        // Allocate space for vertices.
-        vboId = glGenBuffers();
-        glBindBuffer(GL_ARRAY_BUFFER, vboId);
-        glBufferData(GL_ARRAY_BUFFER, vertices.length * Float.BYTES, GL_DYNAMIC_DRAW);
-
-        // Create and upload indices buffer.
-        int eboId = glGenBuffers();
-        int[] indices = generateIndices();
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, eboId);
-        glBufferData(GL_ELEMENT_ARRAY_BUFFER, indices, GL_STATIC_DRAW);
-
-        // Enable buffer attribute pointers.
-        int stride = VERTEX_SIZE * Float.BYTES;                                                                          // Size of the vertex array in bytes.
-        glVertexAttribPointer(0, POSITION_SIZE, GL_FLOAT, false, stride, POSITION_OFFSET);
-        glEnableVertexAttribArray(0);
-        glVertexAttribPointer(1, COLOR_SIZE, GL_FLOAT, false, stride, COLOR_OFFSET);
-        glEnableVertexAttribArray(1);
-        glVertexAttribPointer(2, TEXTURE_COORDS_SIZE, GL_FLOAT, false, stride, TEXTURE_COORDS_OFFSET);
-        glEnableVertexAttribArray(2);
-        glVertexAttribPointer(3, TEXTURE_ID_SIZE, GL_FLOAT, false, stride, TEXTURE_ID_OFFSET);
-        glEnableVertexAttribArray(3);
-    }
-
-
-    /**
-     * Generates indices for all quads in this batch.
-     * The number of quads generated is determined by the maximum batch size.
-     *
-     * @return indices
-     */
-    private int[] generateIndices() {
-
-        int[] elements = new int[6 * MAX_BATCH_SIZE];                                                                     // 6 indices per quad (3 per triangle).
-
-        for (int i = 0; i < MAX_BATCH_SIZE; i++) {
-
-            loadElementIndices(elements, i);
+        // Create and upload unit quad (shared by all vertex array objects in the streaming ring).
+        // Corners are listed clockwise, starting from top-right, matching the order of sprite texture coordinates and
+        // the first quad in the shared quad element buffer.
+        float[] quad = {
+                1.0f, 1.0f,
+                1.0f, 0.0f,
+                0.0f, 0.0f,
+                0.0f, 1.0f
+        };
+        quadVboId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, quadVboId);
+        glBufferData(GL_ARRAY_BUFFER, quad, GL_STATIC_DRAW);
+
+        for (int i = 0; i < RING_SIZE; i++) {
+
+            // Generate and bind a vertex array object.
+            vaoIds[i] = glGenVertexArrays();
+            GlStateCache.bindVertexArray(vaoIds[i]);
+
+            // Bind unit quad and its indices.
+            VertexLayout.bindQuadElementBuffer();
+            glBindBuffer(GL_ARRAY_BUFFER, quadVboId);
+            glVertexAttribPointer(0, 2, GL_FLOAT, false, 2 * Float.BYTES, 0);
+            glEnableVertexAttribArray(0);
+
+            // Allocate space for instances.
+            vboIds[i] = glGenBuffers();
+            glBindBuffer(GL_ARRAY_BUFFER, vboIds[i]);
+            glBufferData(GL_ARRAY_BUFFER, instances.capacity(), GL_STREAM_DRAW);
+
+            // Enable buffer attribute pointers (advanced once per instance rather than once per vertex).
+            VertexLayout.enableInstanceAttributes();
         }
-        return elements;
+        GlStateCache.bindVertexArray(0);
+        initialized = true;
     }
 
 
     /**
-     * Loads the indices for a single quad in an array of indices.
+     * Loads the instance properties of the specified drawable.
      *
-     * @param elements array of indices that contains the target quad
-     * @param index first index of the target quad in the array of indices (each quad is composed of six sequential
-     *              indices, since each quad is made of two triangles)
+     * @param drawable drawable to load
+     * @param index index of target instance in the instance array
+     * @param radius arc radius at four corners of drawable
      */
-    private void loadElementIndices(int[] elements, int index) {
-
-        int offsetArrayIndex = 6 * index;
-        int offset = 4 * index;
+    private void loadInstanceProperties(Drawable drawable, int index, float radius) {
 
-        // Triangle 1.
-        elements[offsetArrayIndex] = offset + 3;
-        elements[offsetArrayIndex + 1] = offset + 2;
-        elements[offsetArrayIndex + 2] = offset + 0;
-
-        // Triangle 2.
-        elements[offsetArrayIndex + 3] = offset + 0;
-        elements[offsetArrayIndex + 4] = offset + 2;
-        elements[offsetArrayIndex + 5] = offset + 1;
+        int textureSlot = 0;
+        if (drawable.getTexture() != null) {
+            textureSlot = findTextureSlot(drawable.getTexture());
+        }
+        VertexLayout.putInstance(instances, index * VertexLayout.INSTANCE_SIZE_BYTES, drawable, textureSlot, radius);
     }
 
 
     /**
-     * Loads the vertex properties of the specified drawable.
+     * Finds the slot that a texture is bound to in this batch.
+     * Textures are compared by memory address since loaded textures are pooled (i.e., the same texture is always the
+     * same instance); this avoids the far more expensive file path comparison performed by `.equals()`.
      *
-     * @param index index of target drawables in the list of drawables to be rendered with this batch
+     * @param texture target texture
+     * @return texture slot, or 0 if the texture is not in this batch (slot 0 is reserved for the empty texture)
      */
-    private void loadVertexProperties(int index) {
-
-        Drawable drawable = drawables[index];
-
-        // Find offset within array (4 vertices per drawable).
-        int offset = index * 4 * VERTEX_SIZE;
-
-        // Color.
-        Vector4f color = drawable.getColor();
+    private int findTextureSlot(Texture texture) {
 
-        // Texture.
-        Vector2f[] textureCoords = drawable.getTextureCoords();
-        int textureId = 0;
-        if (drawable.getTexture() != null) {
-            for (int i = 0; i < textures.size(); i++) {                                                                 // Find the texture ID; loop through all textures in this batch until we find a match, then assign corresponding ID.
-                if (textures.get(i).equals(drawable.getTexture())) {                                                    // Use `.equals()` because == only compares memory address of two objects, not actual contents.
-                    textureId = i + 1;                                                                                  // Texture slot 0 is reserved for no bound texture to sprite, hence why 1 is added.
-                    break;
-                }
-            }
-        }
-
-        // Add vertices with appropriate properties.
-        // This assumes positioning everything according to bottom-left corner.
-        // Add clockwise, starting from top-right.
-        // *    *
-        // *    *
-        float xAdd = 1.0f;
-        float yAdd = 1.0f;
-        for (int i = 0; i < 4; i++) {
-            if (i == 1) {
-                yAdd = 0.0f;
-            } else if (i == 2) {
-                xAdd = 0.0f;
-            } else if (i == 3) {
-                yAdd = 1.0f;
+        for (int i = 0; i < textures.size(); i++) {
+            if (textures.get(i) == texture) {
+                return i + 1;                                                                                           // Texture slot 0 is reserved for no bound texture to sprite, hence why 1 is added.
             }
-
-            // Load position.
-            vertices[offset] = drawable.transform.position.x + (xAdd * drawable.transform.scale.x);
-            vertices[offset + 1] = drawable.transform.position.y + (yAdd * drawable.transform.scale.y);
-
-            // Load color.
-            vertices[offset + 2] = color.x / 255;                                                                       // Red information.
-            vertices[offset + 3] = color.y / 255;                                                                       // Green information.
-            vertices[offset + 4] = color.z / 255;                                                                       // Blue information.
-            vertices[offset + 5] = color.w / 255;                                                                       // Alpha information.
-
-            // Load texture coordinates.
-            vertices[offset + 6] = textureCoords[i].x;
-            vertices[offset + 7] = textureCoords[i].y;
-
-            // Load texture ID.
-            vertices[offset + 8] = textureId;
-
-            // Increment.
-            offset += VERTEX_SIZE;
         }
+        return 0;
     }
 
 
@@ -444,11 +372,11 @@ public class DrawableBatch {
     }
 
     public boolean hasTextureRoom() {
-        return textures.size() < 8;
+        return textures.size() < 6;
     }
 
     public boolean hasTexture(Texture texture) {
-        return textures.contains(texture);
+        return findTextureSlot(texture) != 0;
     }
 
     public ZIndex getzIndex() {
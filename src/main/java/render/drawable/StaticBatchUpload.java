@@ -0,0 +1,117 @@
+package render.drawable;
+
+import asset.Texture;
+import org.lwjgl.BufferUtils;
+import utility.LimitedArrayList;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class holds a copy of the instances of a static batch that changed before it was recorded into a frame, along
+ * with the number of instances and textures that the batch is drawn with as of that frame.
+ * Copies are pooled by each frame (see RenderFrame) and applied to the batch on the thread that owns the OpenGL
+ * context right before the frame is drawn, so the batch may keep being modified while the frame waits to be drawn.
+ */
+public class StaticBatchUpload {
+
+    // FIELDS
+    /**
+     * Batch that this copy is applied to, or null if this copy is not in use.
+     */
+    private StaticDrawableBatch batch;
+
+    /**
+     * Copy of the changed range of instance data.
+     * This grows as needed and is reused each time this copy is.
+     */
+    private ByteBuffer instances = BufferUtils.createByteBuffer(0);
+
+    /**
+     * Byte offset of the changed range in the instance buffer of the batch.
+     */
+    private int offset;
+
+    /**
+     * Number of instances drawn by the batch.
+     */
+    private int numInstances;
+
+    /**
+     * Textures available in the batch, indexed by texture slot minus one.
+     */
+    private final Texture[] textures = new Texture[6];
+
+    /**
+     * Number of textures available in the batch.
+     */
+    private int numTextures;
+
+
+    // METHODS
+    /**
+     * Copies the changed range of instances of a batch, along with the number of instances and textures it is drawn
+     * with.
+     *
+     * @param batch batch to apply this copy to
+     * @param source instance array of the batch
+     * @param offset byte offset of the changed range in the instance array
+     * @param length byte length of the changed range
+     * @param numInstances number of instances drawn by the batch
+     * @param textures textures available in the batch
+     */
+    void set(StaticDrawableBatch batch, ByteBuffer source, int offset, int length, int numInstances,
+             LimitedArrayList<Texture> textures) {
+
+        if (instances.capacity() < length) {
+
+            instances = BufferUtils.createByteBuffer(Math.max(length, instances.capacity() * 2));
+        }
+        instances.clear();
+        source.limit(offset + length);
+        source.position(offset);
+        instances.put(source);
+        instances.flip();
+        source.clear();                                                                                                 // Restore position and limit (contents are untouched).
+        this.batch = batch;
+        this.offset = offset;
+        this.numInstances = numInstances;
+        numTextures = textures.size();
+
+        for (int i = 0; i < numTextures; i++) {
+            this.textures[i] = textures.get(i);
+        }
+    }
+
+
+    /**
+     * Applies this copy to its batch, then releases this copy so that it can be reused.
+     * This may only be called from the thread that owns the OpenGL context.
+     */
+    public void apply() {
+
+        batch.upload(this);
+        batch = null;
+    }
+
+
+    // GETTERS
+    ByteBuffer getInstances() {
+        return instances;
+    }
+
+    int getOffset() {
+        return offset;
+    }
+
+    int getNumInstances() {
+        return numInstances;
+    }
+
+    Texture[] getTextures() {
+        return textures;
+    }
+
+    int getNumTextures() {
+        return numTextures;
+    }
+}
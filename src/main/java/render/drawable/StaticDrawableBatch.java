@@ -0,0 +1,353 @@
+package render.drawable;
+
+import asset.AssetPool;
+import asset.PaletteTable;
+import asset.Shader;
+import asset.Texture;
+import org.lwjgl.BufferUtils;
+import render.GlStateCache;
+import render.GlTaskQueue;
+import render.VertexLayout;
+import utility.LimitedArrayList;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.glDeleteVertexArrays;
+import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+import static org.lwjgl.opengl.GL31.glDrawElementsInstanced;
+
+/**
+ * This class holds a fixed set of drawables that stays resident on the GPU between frames.
+ * Unlike a DrawableBatch, which is rebuilt and uploaded every frame, each drawable in this batch occupies a fixed
+ * instance index; only instances that have been changed since the last render are uploaded again.
+ * This suits geometry that rarely changes (e.g., map tiles), which can then be drawn each frame at almost no CPU cost.
+ * Drawables are set on the thread that records frames, while the batch is drawn on the thread that owns the OpenGL
+ * context; changes reach the GPU through a copy taken each time this batch is recorded into a frame (see
+ * StaticBatchUpload), so the two threads never share instance data.
+ */
+public class StaticDrawableBatch {
+
+    /*
+     * Vertex in Unit Quad Array (static)
+     * ==================================
+     * Corner
+     * float, float
+     *
+     * Each drawable is written as one instance in the shared quad instance format (see VertexLayout).
+     */
+
+    // FIELDS
+    /**
+     * Maximum number of drawables that can be stored in this batch.
+     */
+    private final int capacity;
+
+    /**
+     * Number of instances drawn by this batch (one past the highest instance index set thus far).
+     */
+    private int numInstances;
+
+    /**
+     * Instance array (off-heap staging buffer).
+     * This mirrors the contents of the instance buffer on the GPU once all changes have been uploaded.
+     */
+    private final ByteBuffer instances;
+
+    /**
+     * Lowest instance index changed since this batch was last uploaded, or -1 if none has changed.
+     */
+    private int dirtyStart = -1;
+
+    /**
+     * Highest instance index changed since this batch was last uploaded, or -1 if none has changed.
+     */
+    private int dirtyEnd = -1;
+
+    /**
+     * Number of instances drawn as of the last upload to the GPU.
+     */
+    private int numUploadedInstances;
+
+    /**
+     * Textures available in this batch as of the last upload to the GPU, indexed by texture slot minus one.
+     */
+    private final Texture[] uploadedTextures = new Texture[6];
+
+    /**
+     * Number of textures available in this batch as of the last upload to the GPU.
+     */
+    private int numUploadedTextures;
+
+    /**
+     * Boolean indicating whether this batch has been created on the GPU.
+     */
+    private boolean initialized;
+
+    /**
+     * Vertex array object ID.
+     */
+    private int vaoId;
+
+    /**
+     * Instance buffer object ID.
+     */
+    private int vboId;
+
+    /**
+     * Vertex buffer object ID of the static unit quad.
+     */
+    private int quadVboId;
+
+    /**
+     * Slots available to bind textures for sampling during a draw in this batch.
+     * As with DrawableBatch, seven slots plus the palette table keep each draw within eight texture units.
+     * Note that slot zero is reserved for the empty texture.
+     */
+    private final int[] textureSlots = {0, 1, 2, 3, 4, 5, 6};
+
+    /**
+     * List to store the textures available in this batch (up to six plus the empty texture).
+     */
+    private final LimitedArrayList<Texture> textures = new LimitedArrayList<>(6);
+
+    /**
+     * Shader attached to this batch.
+     */
+    private final Shader shader;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a StaticDrawableBatch instance.
+     *
+     * @param capacity maximum number of drawables that can be stored
+     * @param shaderFilePath file path of shader to attach (must already be loaded in the asset pool)
+     * @throws IllegalArgumentException if the specified capacity is zero, negative, or greater than the number of quads
+     * that can be drawn with the shared quad element buffer
+     */
+    public StaticDrawableBatch(int capacity, String shaderFilePath) {
+        if ((capacity <= 0) || (capacity > VertexLayout.MAX_QUADS)) {
+            throw new IllegalArgumentException("Illegal static batch capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        this.instances = BufferUtils.createByteBuffer(capacity * VertexLayout.INSTANCE_SIZE_BYTES);
+        this.shader = AssetPool.getShader(shaderFilePath);
+    }
+
+
+    // METHODS
+    /**
+     * Writes a drawable to an instance index in this batch.
+     * The properties of the drawable are copied, so the drawable may be freely modified afterwards.
+     * The change is uploaded to the GPU before the next frame that this batch is recorded into is drawn.
+     *
+     * @param index instance index to write to
+     * @param drawable Drawable instance to write
+     * @return whether the drawable was written (false if its texture could not be added to this batch)
+     * @throws IndexOutOfBoundsException if the specified index is outside the capacity of this batch
+     */
+    public boolean set(int index, Drawable drawable) {
+
+        if ((index < 0) || (index >= capacity)) {
+            throw new IndexOutOfBoundsException("Instance index " + index + " out of bounds for capacity " + capacity);
+        }
+        int textureSlot = 0;
+
+        if (drawable.getTexture() != null) {
+
+            textureSlot = findTextureSlot(drawable.getTexture());
+
+            if (textureSlot == 0) {
+
+                if (textures.size() == textures.maxCapacity()) {
+
+                    return false;
+                }
+                textures.add(drawable.getTexture());
+                textureSlot = textures.size();
+            }
+        }
+        VertexLayout.putInstance(instances, index * VertexLayout.INSTANCE_SIZE_BYTES, drawable, textureSlot, 0);
+        numInstances = Math.max(numInstances, index + 1);
+
+        if ((dirtyStart == -1) || (index < dirtyStart)) {
+            dirtyStart = index;
+        }
+        if (index > dirtyEnd) {
+            dirtyEnd = index;
+        }
+        return true;
+    }
+
+
+    /**
+     * Copies the instances changed since this batch was last staged, along with the number of instances and textures
+     * this batch is currently drawn with, so that they can be uploaded to the GPU before a frame is drawn.
+     * This should be called whenever this batch is recorded into a frame and has changed (see `isDirty()`).
+     *
+     * @param upload copy to fill, owned by the frame that this batch is being recorded into
+     */
+    public void stage(StaticBatchUpload upload) {
+
+        int offset = (dirtyStart == -1) ? 0 : dirtyStart * VertexLayout.INSTANCE_SIZE_BYTES;
+        int length = (dirtyStart == -1) ? 0 : (dirtyEnd + 1 - dirtyStart) * VertexLayout.INSTANCE_SIZE_BYTES;
+        upload.set(this, instances, offset, length, numInstances, textures);
+        dirtyStart = -1;
+        dirtyEnd = -1;
+    }
+
+
+    /**
+     * Renders all drawables in this batch, as of the last upload to the GPU.
+     * This may only be called from the thread that owns the OpenGL context.
+     */
+    public void render() {
+
+        if (numUploadedInstances == 0) {
+
+            return;
+        }
+
+        // Bind shader program.
+        shader.use();
+
+        // Bind textures.
+        for (int i = 0; i < numUploadedTextures; i++) {
+            uploadedTextures[i].bind(i + 1);                                                                            // Bind texture in appropriate slot; slot 0 is reserved for the empty texture.
+        }
+        shader.uploadIntArray("uTextures", textureSlots);
+        AssetPool.getPaletteTable().bind();
+        shader.uploadInt("uPalettes", PaletteTable.TEXTURE_UNIT);                                                       // Resolves instances drawn from indexed textures.
+
+        // Bind VAO and draw (one unit quad per drawable).
+        GlStateCache.bindVertexArray(vaoId);
+        glDrawElementsInstanced(GL_TRIANGLES, 6, GL_UNSIGNED_SHORT, 0, numUploadedInstances);
+    }
+
+
+    /**
+     * Clears this batch of all drawables.
+     * Instance data is not zeroed since every instance drawn is always set again before it is rendered.
+     */
+    public void clear() {
+
+        numInstances = 0;
+        textures.clear();
+        dirtyStart = -1;
+        dirtyEnd = -1;
+    }
+
+
+    /**
+     * Frees this batch from GPU memory if it is finished being used.
+     * Note that this does not destruct this StaticDrawableBatch instance, which must be managed by JVM garbage
+     * collection.
+     */
+    public void delete() {
+
+        GlTaskQueue.submit(() -> {
+            if (initialized) {
+                glDeleteBuffers(vboId);
+                glDeleteBuffers(quadVboId);
+                GlStateCache.invalidateVertexArray(vaoId);
+                glDeleteVertexArrays(vaoId);
+                initialized = false;
+            }
+        });
+    }
+
+
+    /**
+     * Uploads a copy of changed instances to the GPU and adopts the number of instances and textures it was taken
+     * with.
+     * This batch is created on the GPU first if it has not been already.
+     *
+     * @param upload copy to upload
+     */
+    void upload(StaticBatchUpload upload) {
+
+        if (!initialized) {
+
+            init();
+        }
+
+        if (upload.getInstances().hasRemaining()) {
+
+            glBindBuffer(GL_ARRAY_BUFFER, vboId);
+            glBufferSubData(GL_ARRAY_BUFFER, upload.getOffset(), upload.getInstances());
+        }
+        numUploadedInstances = upload.getNumInstances();
+        numUploadedTextures = upload.getNumTextures();
+        System.arraycopy(upload.getTextures(), 0, uploadedTextures, 0, numUploadedTextures);
+    }
+
+
+    /**
+     * Initializes this batch.
+     * All necessary data is created on the GPU.
+     */
+    private void init() {
+
+        // Create and upload unit quad.
+        // Corners are listed clockwise, starting from top-right, matching the order of sprite texture coordinates and
+        // the first quad in the shared quad element buffer.
+        float[] quad = {
+                1.0f, 1.0f,
+                1.0f, 0.0f,
+                0.0f, 0.0f,
+                0.0f, 1.0f
+        };
+        vaoId = glGenVertexArrays();
+        GlStateCache.bindVertexArray(vaoId);
+
+        VertexLayout.bindQuadElementBuffer();
+        quadVboId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, quadVboId);
+        glBufferData(GL_ARRAY_BUFFER, quad, GL_STATIC_DRAW);
+        glVertexAttribPointer(0, 2, GL_FLOAT, false, 2 * Float.BYTES, 0);
+        glEnableVertexAttribArray(0);
+
+        // Allocate space for instances (written rarely, drawn every frame).
+        vboId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, vboId);
+        glBufferData(GL_ARRAY_BUFFER, instances.capacity(), GL_STATIC_DRAW);
+        VertexLayout.enableInstanceAttributes();
+
+        GlStateCache.bindVertexArray(0);
+        initialized = true;
+    }
+
+
+    /**
+     * Finds the slot that a texture is bound to in this batch.
+     * Textures are compared by memory address since loaded textures are pooled.
+     *
+     * @param texture target texture
+     * @return texture slot, or 0 if the texture is not in this batch (slot 0 is reserved for the empty texture)
+     */
+    private int findTextureSlot(Texture texture) {
+
+        for (int i = 0; i < textures.size(); i++) {
+            if (textures.get(i) == texture) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+
+    // GETTERS
+    public boolean hasDrawable() {
+        return numInstances > 0;
+    }
+
+    public boolean isDirty() {
+        return dirtyStart != -1;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
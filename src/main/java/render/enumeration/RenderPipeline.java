@@ -0,0 +1,21 @@
+package render.enumeration;
+
+/**
+ * This enum defines the pipelines through which render commands are drawn.
+ * Within a single layer, pipelines are drawn in ascending order of their value.
+ */
+public enum RenderPipeline {
+
+    TILEMAP(0),
+    STATIC(1),
+    LAYER(2),
+    ROUNDED(3),
+    BATCH(4),
+    TEXT(5);
+
+    public final int value;
+
+    private RenderPipeline(int value) {
+        this.value = value;
+    }
+}
@@ -1,18 +1,37 @@
 package render.font;
 
 import org.lwjgl.BufferUtils;
+import render.GlStateCache;
+import render.GlTaskQueue;
+import utility.DistanceField;
+import utility.ShelfPacker;
+import utility.UtilityTool;
 import utility.exceptions.AssetLoadException;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
-import java.util.HashMap;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
 
 import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
+import static org.lwjgl.opengl.GL30.GL_R8;
 
 /**
  * This class represents a loaded font.
+ * Glyphs are stored on the GPU as a signed distance field, so a single texture serves text rendered at any scale.
+ * Each glyph is rasterized on first use and packed into an atlas that grows as needed.
+ * The atlas and glyph metrics are saved to a cache file so that later launches can load them without rasterizing.
  */
 public class CFont {
 
@@ -23,22 +42,68 @@ public class CFont {
     private final String filePath;
 
     /**
-     * Font scale (controls font resolution).
+     * Font scale (controls resolution at which glyphs are rasterized before being converted to a distance field).
+     * Note that all character metrics are native to this size.
      */
     private final int fontSize;
 
+    /**
+     * Checksum of the font file contents.
+     * This is stored in the cache file so that a cache file written for a different version of the same font file is
+     * discarded.
+     */
+    private final long fontChecksum;
+
     /**
      * Font name.
      */
     private String name;
 
     /**
-     * Map to store information on all characters contained in this font.
+     * Number of codepoints (starting from zero) whose characters are stored in directly indexed arrays.
+     * This covers the ASCII and Latin-1 ranges, which contain all text used in-game.
+     */
+    private static final int DENSE_RANGE = 256;
+
+    /**
+     * Character returned when retrieving a character not contained in this font.
+     */
+    private static final CharInfo EMPTY_CHARACTER = new CharInfo(0, 0, 0, 0, 0);
+
+    /**
+     * Array to store information on characters in the dense range, indexed by codepoint.
+     * An entry is null if the character has not been loaded yet, or the empty character if this font does not contain
+     * the character.
+     */
+    private final CharInfo[] denseChars = new CharInfo[DENSE_RANGE];
+
+    /**
+     * Array to store the native advance width of characters in the dense range, indexed by codepoint.
+     * An entry is zero if the character has not been loaded yet or this font does not contain the character.
+     */
+    private final float[] advances = new float[DENSE_RANGE];
+
+    /**
+     * Codepoints of loaded characters outside the dense range, sorted in ascending order.
+     * Only the first `numSparseChars` entries are in use.
      */
-    private final HashMap<Integer, CharInfo> charMap = new HashMap<>();
+    private int[] sparseCodepoints = new int[16];
 
     /**
-     * Texture ID of rendered parent texture containing this font.
+     * Information on loaded characters outside the dense range.
+     * Each entry corresponds to the codepoint at the same index in `sparseCodepoints`.
+     */
+    private CharInfo[] sparseChars = new CharInfo[16];
+
+    /**
+     * Number of loaded characters outside the dense range.
+     */
+    private int numSparseChars;
+
+    /**
+     * Texture ID of atlas texture containing this font.
+     * This is assigned on the thread that owns the OpenGL context (see GlTaskQueue), so it must only be read from that
+     * thread.
      */
     private int textureId;
 
@@ -50,17 +115,94 @@ public class CFont {
     private static final int HEIGHT_ADJUSTMENT = 50;
 
     /**
-     * Spacing adjustment for space between all characters drawn onto the generated parent font image.
-     * This amount is added to the spacing between each character in this image.
-     * Increased spacing helps to prevent bleed-over from neighboring characters when rendering a target character.
+     * Padding (in rasterized pixels) surrounding each glyph when it is rasterized.
+     * This matches the distance field spread so that the distance field of a glyph fully fades out before reaching
+     * neighboring glyphs in the atlas.
+     */
+    private static final int GLYPH_PADDING = 16;
+
+    /**
+     * Factor by which the resolution of the uploaded signed distance field texture is reduced compared to rasterized
+     * glyphs.
+     * Since distances are interpolated when sampled, glyphs remain crisp even though the texture is much smaller.
+     */
+    private static final int SDF_DOWNSAMPLE = 4;
+
+    /**
+     * Distance (in rasterized pixels) from the edge of a glyph at which encoded distances saturate.
+     */
+    private static final float SDF_SPREAD = 16;
+
+    /**
+     * Width of atlas (texels).
+     */
+    static final int ATLAS_WIDTH = 512;
+
+    /**
+     * Initial height of atlas (texels).
+     * The height is doubled each time the atlas runs out of room.
+     */
+    private static final int INITIAL_ATLAS_HEIGHT = 128;
+
+    /**
+     * Maximum height of atlas (texels).
+     * This is well within the minimum maximum texture size guaranteed by OpenGL.
+     * Texture coordinates of characters are normalized against the maximum size of the atlas rather than its current
+     * size, so that they remain valid when the atlas grows; the font shader rescales them to the current size.
+     */
+    static final int MAX_ATLAS_HEIGHT = 4096;
+
+    /**
+     * Packer that places glyphs in the atlas (in texels).
+     */
+    private ShelfPacker packer;
+
+    /**
+     * Copy of atlas texels, row by row (topmost row first).
+     * This is retained so that the atlas can be resized and saved to the cache file.
+     */
+    private byte[] atlas;
+
+    /**
+     * Java font used to rasterize glyphs.
+     * This is only created once a glyph that is not already in the cache must be rasterized.
+     */
+    private Font awtFont;
+
+    /**
+     * Metrics of Java font used to rasterize glyphs.
+     */
+    private FontMetrics fontMetrics;
+
+    /**
+     * Boolean indicating whether glyphs have been loaded since the cache file was last read or written.
+     */
+    private boolean cacheDirty;
+
+    /**
+     * Directory in which cache files are stored.
+     */
+    private static final String CACHE_DIRECTORY = "./cache/fonts/";
+
+    /**
+     * Identifier written at the start of each cache file.
+     */
+    private static final int CACHE_MAGIC = 0x43464E54;                                                                  // "CFNT" in ASCII.
+
+    /**
+     * Version of the cache file format.
+     * This must be incremented whenever the format or the way glyphs are rasterized changes so that outdated cache
+     * files are discarded.
+     * Changes to a font file itself are detected by its checksum instead.
      */
-    private static final int SPACING_ADJUSTMENT = 10;
+    private static final int CACHE_VERSION = 2;
 
 
     // CONSTRUCTOR
     /**
      * Constructs a CFont instance.
-     * The font provided at the provided file path is loaded upon construction.
+     * The atlas is loaded from the cache file if one is available; otherwise, the font provided at the provided file
+     * path is registered and an empty atlas is created.
      *
      * @param filePath file path of font from resources directory
      * @param fontSize font scale (controls font resolution)
@@ -68,13 +210,20 @@ public class CFont {
     public CFont(String filePath, int fontSize) {
         this.filePath = filePath;
         this.fontSize = fontSize;
-        generateBitmap();
+        fontChecksum = calculateFontChecksum();
+        if (!loadCache()) {
+            initAwtFont();
+            packer = new ShelfPacker(ATLAS_WIDTH, INITIAL_ATLAS_HEIGHT);
+            atlas = new byte[ATLAS_WIDTH * INITIAL_ATLAS_HEIGHT];
+        }
+        uploadAtlas();
     }
 
 
     // METHODS
     /**
      * Retrieves a character from this font.
+     * The character is rasterized and added to the atlas if not already loaded.
      * Note that any lengths (width or height) are native and will need to be adjusted to the correct size by
      * multiplying by the scale.
      *
@@ -83,113 +232,424 @@ public class CFont {
      */
     public CharInfo getCharacter(int codepoint) {
 
-        return charMap.getOrDefault(codepoint, new CharInfo(0, 0, 0, 0, 0));
+        if ((codepoint >= 0) && (codepoint < DENSE_RANGE)) {
+
+            CharInfo charInfo = denseChars[codepoint];
+            return (charInfo != null) ? charInfo : loadGlyph(codepoint);
+        }
+        int index = Arrays.binarySearch(sparseCodepoints, 0, numSparseChars, codepoint);
+        return (index >= 0) ? sparseChars[index] : loadGlyph(codepoint);
     }
 
 
     /**
-     * Generates a bitmap for this font and uploads the result to the GPU.
+     * Retrieves the native advance width of a character from this font.
+     * Note that this will need to be adjusted to the correct size by multiplying by the scale.
+     *
+     * @param codepoint character to retrieve (!, A, B, C, etc.)
+     * @return native advance width
      */
-    private void generateBitmap() {
+    public float getAdvance(int codepoint) {
 
-        // Create new font from loaded file.
-        Font font = registerFont();
-        font = new Font(font.getName(), Font.PLAIN, fontSize);
-        name = font.getName();
+        if ((codepoint >= 0) && (codepoint < DENSE_RANGE) && (denseChars[codepoint] != null)) {
 
-        // Create fake image to get font information.
-        BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2d = image.createGraphics();
-        g2d.setFont(font);
-        FontMetrics fontMetrics = g2d.getFontMetrics();
-
-        // Initialize fake image dimensions.
-        int estimatedWidth = (int)Math.sqrt(font.getNumGlyphs()) * font.getSize()
-                + ((int)Math.sqrt(font.getNumGlyphs()) * SPACING_ADJUSTMENT);
-        int width = 0;                                                                                                  // Width of rendered image containing all characters.
-        int height = fontMetrics.getHeight();                                                                           // Height of rendered image containing all characters.
-        int x = 0;
-        int y = fontMetrics.getHeight();
-
-        // Loop through all glyphs and calculate what actual image dimensions must be.
-        for (int i = 0; i < font.getNumGlyphs(); i++) {
-            if (font.canDisplay(i)) {
-                CharInfo charInfo = new CharInfo(x, y,
-                        fontMetrics.charWidth(i), fontMetrics.getHeight() - HEIGHT_ADJUSTMENT, fontMetrics.getDescent());
-                charMap.put(i, charInfo);
-                width = Math.max(x + fontMetrics.charWidth(i), width);                                                  // Take whichever width is bigger.
-                x += charInfo.getWidth() + SPACING_ADJUSTMENT;
-                if (x > estimatedWidth) {
-                    x = 0;
-                    y += fontMetrics.getHeight();
-                    height += fontMetrics.getHeight();
-                }
+            return advances[codepoint];
+        }
+        return getCharacter(codepoint).getWidth();
+    }
+
+
+    /**
+     * Calculates the native width of a string of text rendered in this font.
+     * Note that this will need to be adjusted to the correct size by multiplying by the scale.
+     *
+     * @param text text to measure
+     * @return native width
+     */
+    public float measureString(CharSequence text) {
+
+        float width = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+
+            char c = text.charAt(i);
+            width += ((c < DENSE_RANGE) && (denseChars[c] != null)) ? advances[c] : getCharacter(c).getWidth();
+        }
+        return width;
+    }
+
+
+    /**
+     * Loads all characters in a string of text that have not already been loaded.
+     *
+     * @param text text whose characters to load
+     */
+    public void loadCharacters(CharSequence text) {
+
+        for (int i = 0; i < text.length(); i++) {
+            getCharacter(text.charAt(i));
+        }
+    }
+
+
+    /**
+     * Checks whether all characters in a string of text have already been loaded.
+     * If not, retrieving the missing characters will modify the atlas (and may resize it).
+     *
+     * @param text text to check
+     * @return whether all characters are loaded
+     */
+    public boolean isLoaded(CharSequence text) {
+
+        for (int i = 0; i < text.length(); i++) {
+
+            char c = text.charAt(i);
+
+            if ((c < DENSE_RANGE)
+                    ? (denseChars[c] == null)
+                    : (Arrays.binarySearch(sparseCodepoints, 0, numSparseChars, c) < 0)) {
+
+                return false;
             }
         }
-        height += fontMetrics.getHeight();
+        return true;
+    }
 
-        // Dispose of graphics context of fake image since no longer needed.
-        g2d.dispose();
 
-        // Create real image.
-        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        g2d = image.createGraphics();
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setFont(font);
-        g2d.setColor(Color.WHITE);
-
-        // Draw glyphs onto real image.
-        for (int i = 0; i < font.getNumGlyphs(); i++) {
-            if (font.canDisplay(i)) {
-                CharInfo info = charMap.get(i);
-                charMap.get(i).calculateTextureCoordinates(width, height);
-                g2d.drawString("" + (char)i, info.getSourceX(), info.getSourceY());
+    /**
+     * Writes the atlas and metrics of all loaded characters to the cache file if any characters have been loaded
+     * since it was last read or written.
+     */
+    public void saveCache() {
+
+        if (!cacheDirty) {
+
+            return;
+        }
+        Path path = getCachePath();
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try {
+
+            Files.createDirectories(path.getParent());
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+
+                out.writeInt(CACHE_MAGIC);
+                out.writeInt(CACHE_VERSION);
+                out.writeUTF(filePath);
+                out.writeInt(fontSize);
+                out.writeLong(fontChecksum);
+                out.writeUTF(name);
+                packer.write(out);
+                out.write(atlas);
+
+                int numGlyphs = numSparseChars;
+                for (CharInfo charInfo : denseChars) {
+                    if (charInfo != null) {
+                        numGlyphs++;
+                    }
+                }
+                out.writeInt(numGlyphs);
+
+                for (int i = 0; i < DENSE_RANGE; i++) {
+                    if (denseChars[i] != null) {
+                        writeGlyph(out, i, denseChars[i]);
+                    }
+                }
+
+                for (int i = 0; i < numSparseChars; i++) {
+                    writeGlyph(out, sparseCodepoints[i], sparseChars[i]);
+                }
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);                                            // Replace only once fully written so that a partial file is never read.
+            cacheDirty = false;
+
+            if (UtilityTool.VERBOSE_LOGGING) {
+                UtilityTool.logInfo("Saved font cache '" + path + "'.");
             }
+
+        } catch (IOException e) {
+
+            UtilityTool.logError("Failed to write font cache '" + path + "'.");
         }
+    }
 
-        // Dispose of graphics context of real image (buffered image still contains all data).
-        g2d.dispose();
 
-        // Create texture from real image.
-        uploadTexture(image);
+    /**
+     * Rasterizes a character, converts it into a distance field, and adds it to the atlas.
+     *
+     * @param codepoint character to load
+     * @return character, or the empty character if this font does not contain it or the atlas is full
+     */
+    private CharInfo loadGlyph(int codepoint) {
+
+        if (awtFont == null) {
+
+            initAwtFont();
+        }
+        CharInfo charInfo = EMPTY_CHARACTER;
+
+        if (awtFont.canDisplay(codepoint)) {
+
+            int width = fontMetrics.charWidth(codepoint);
+            int height = fontMetrics.getHeight() - HEIGHT_ADJUSTMENT;
+            int descent = fontMetrics.getDescent();
+            int imageWidth = roundUpToTexel(width + SDF_DOWNSAMPLE + (2 * GLYPH_PADDING));                              // Extra texel covers the width adjustment applied to texture coordinates.
+            int imageHeight = roundUpToTexel(height + descent + (2 * GLYPH_PADDING));
+
+            // Rasterize glyph.
+            BufferedImage image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2d = image.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setFont(awtFont);
+            g2d.setColor(Color.WHITE);
+            g2d.drawString(new String(Character.toChars(codepoint)), GLYPH_PADDING, GLYPH_PADDING + height);
+            g2d.dispose();
+
+            // Convert glyph into distance field.
+            int[] pixels = image.getRGB(0, 0, imageWidth, imageHeight, null, 0, imageWidth);
+            for (int i = 0; i < pixels.length; i++) {
+                pixels[i] = (pixels[i] >> 24) & 0xFF;
+            }
+            byte[] texels = DistanceField.generate(pixels, imageWidth, imageHeight, SDF_SPREAD, SDF_DOWNSAMPLE);
+            int texelWidth = imageWidth / SDF_DOWNSAMPLE;
+            int texelHeight = imageHeight / SDF_DOWNSAMPLE;
+
+            // Pack distance field into atlas.
+            int[] position = packer.pack(texelWidth, texelHeight);
+            while ((position == null) && (packer.getHeight() < MAX_ATLAS_HEIGHT)) {
+                growAtlas();
+                position = packer.pack(texelWidth, texelHeight);
+            }
+
+            if (position != null) {
+
+                for (int row = 0; row < texelHeight; row++) {
+                    System.arraycopy(texels, row * texelWidth,
+                            atlas, ((position[1] + row) * ATLAS_WIDTH) + position[0], texelWidth);
+                }
+                uploadAtlasRegion(texels, position[0], position[1], texelWidth, texelHeight);
+                charInfo = new CharInfo((position[0] * SDF_DOWNSAMPLE) + GLYPH_PADDING,
+                        (position[1] * SDF_DOWNSAMPLE) + GLYPH_PADDING + height, width, height, descent);
+                charInfo.calculateTextureCoordinates(ATLAS_WIDTH * SDF_DOWNSAMPLE, MAX_ATLAS_HEIGHT * SDF_DOWNSAMPLE);
+            } else {
+
+                UtilityTool.logError("Failed to add character '" + new String(Character.toChars(codepoint))
+                        + "' to atlas of font '" + name + "' since the atlas is full.");
+            }
+        }
+        storeGlyph(codepoint, charInfo);
+        cacheDirty = true;
+        return charInfo;
     }
 
 
     /**
-     * Uploads the passed image to the GPU as a texture.
+     * Stores a loaded character.
      *
-     * @param image target image
-     */
-    private void uploadTexture(BufferedImage image) {
-
-        // Place all pixels from image into an array.
-        int[] pixels = new int[image.getHeight() * image.getWidth()];
-        image.getRGB(0, 0, image.getWidth(), image.getHeight(), pixels, 0, image.getWidth());
-
-        // Create ByteBuffer.
-        ByteBuffer buffer = BufferUtils.createByteBuffer(image.getWidth() * image.getHeight() * 4);                     // Multiply by four since four bytes (rgba) are in one integer.
-        for (int y = 0; y < image.getHeight(); y++) {
-            for (int x = 0; x < image.getWidth(); x++) {
-                int pixel = pixels[y * image.getWidth() + x];
-                byte alphaComponent = (byte)((pixel >> 24) & 0xFF);
-                buffer.put(alphaComponent);
-                buffer.put(alphaComponent);
-                buffer.put(alphaComponent);
-                buffer.put(alphaComponent);
+     * @param codepoint character to store
+     * @param charInfo character data
+     */
+    private void storeGlyph(int codepoint, CharInfo charInfo) {
+
+        if ((codepoint >= 0) && (codepoint < DENSE_RANGE)) {
+
+            denseChars[codepoint] = charInfo;
+            advances[codepoint] = charInfo.getWidth();
+            return;
+        }
+        int index = Arrays.binarySearch(sparseCodepoints, 0, numSparseChars, codepoint);
+
+        if (index < 0) {
+
+            index = -(index + 1);                                                                                       // Insertion point that keeps codepoints sorted.
+
+            if (numSparseChars == sparseCodepoints.length) {
+                sparseCodepoints = Arrays.copyOf(sparseCodepoints, numSparseChars * 2);
+                sparseChars = Arrays.copyOf(sparseChars, numSparseChars * 2);
             }
+            System.arraycopy(sparseCodepoints, index, sparseCodepoints, index + 1, numSparseChars - index);
+            System.arraycopy(sparseChars, index, sparseChars, index + 1, numSparseChars - index);
+            numSparseChars++;
         }
+        sparseCodepoints[index] = codepoint;
+        sparseChars[index] = charInfo;
+    }
+
+
+    /**
+     * Doubles the height of the atlas.
+     * Existing characters keep their positions in the atlas, so their texture coordinates (normalized against the
+     * maximum size of the atlas) are unchanged.
+     */
+    private void growAtlas() {
+
+        int height = packer.getHeight() * 2;
+        packer.grow(height);
+        atlas = Arrays.copyOf(atlas, ATLAS_WIDTH * height);
+        uploadAtlas();
+    }
+
+
+    /**
+     * Submits the entire atlas to be uploaded to the GPU as a single-channel texture, creating the texture if it does
+     * not exist yet.
+     */
+    private void uploadAtlas() {
+
+        ByteBuffer buffer = BufferUtils.createByteBuffer(atlas.length);
+        buffer.put(atlas);
+        buffer.flip();
+        int height = packer.getHeight();
+
+        GlTaskQueue.submit(() -> {
+            if (textureId == 0) {
+
+                textureId = glGenTextures();
+                GlStateCache.bindTexture(textureId);
+                glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+                glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+                glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+                glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+            } else {
+
+                GlStateCache.bindTexture(textureId);
+            }
+            glPixelStorei(GL_UNPACK_ALIGNMENT, 1);                                                                      // Rows of a single-channel texture are not necessarily four-byte aligned.
+            glTexImage2D(GL_TEXTURE_2D, 0, GL_R8, ATLAS_WIDTH, height, 0, GL_RED, GL_UNSIGNED_BYTE, buffer);
+            glPixelStorei(GL_UNPACK_ALIGNMENT, 4);                                                                      // Restore default alignment.
+        });
+    }
+
+
+    /**
+     * Submits a region of the atlas to be uploaded to the GPU.
+     *
+     * @param texels texels of region, row by row (topmost row first)
+     * @param x x-coordinate (leftmost) of region in atlas
+     * @param y y-coordinate (topmost) of region in atlas
+     * @param width width of region
+     * @param height height of region
+     */
+    private void uploadAtlasRegion(byte[] texels, int x, int y, int width, int height) {
+
+        ByteBuffer buffer = BufferUtils.createByteBuffer(texels.length);
+        buffer.put(texels);
         buffer.flip();
 
-        // Upload image to GPU.
-        textureId = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D, textureId);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_REPEAT);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_REPEAT);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
-        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, image.getWidth(), image.getHeight(),
-                0, GL_RGBA, GL_UNSIGNED_BYTE, buffer);
-        buffer.clear();                                                                                                 // Clear allocated memory for buffer.
+        GlTaskQueue.submit(() -> {
+            GlStateCache.bindTexture(textureId);
+            glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
+            glTexSubImage2D(GL_TEXTURE_2D, 0, x, y, width, height, GL_RED, GL_UNSIGNED_BYTE, buffer);
+            glPixelStorei(GL_UNPACK_ALIGNMENT, 4);
+        });
+    }
+
+
+    /**
+     * Reads the atlas and metrics of all previously loaded characters from the cache file.
+     * Cache files written by a different version, for a different font, or for different font file contents are
+     * ignored.
+     *
+     * @return whether the cache file was successfully read
+     */
+    private boolean loadCache() {
+
+        Path path = getCachePath();
+
+        if (!Files.exists(path)) {
+
+            return false;
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(path)))) {
+
+            if ((in.readInt() != CACHE_MAGIC)
+                    || (in.readInt() != CACHE_VERSION)
+                    || !in.readUTF().equals(filePath)
+                    || (in.readInt() != fontSize)
+                    || (in.readLong() != fontChecksum)) {
+
+                if (UtilityTool.VERBOSE_LOGGING) {
+                    UtilityTool.logInfo("Ignored outdated font cache '" + path + "'.");
+                }
+                return false;
+            }
+            name = in.readUTF();
+            packer = ShelfPacker.read(in);
+            atlas = new byte[ATLAS_WIDTH * packer.getHeight()];
+            in.readFully(atlas);
+            int numGlyphs = in.readInt();
+
+            for (int i = 0; i < numGlyphs; i++) {
+
+                int codepoint = in.readInt();
+                CharInfo charInfo = EMPTY_CHARACTER;
+
+                if (in.readBoolean()) {
+
+                    charInfo = new CharInfo(in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+                    charInfo.calculateTextureCoordinates(
+                            ATLAS_WIDTH * SDF_DOWNSAMPLE, MAX_ATLAS_HEIGHT * SDF_DOWNSAMPLE);
+                }
+                storeGlyph(codepoint, charInfo);
+            }
+
+            if (UtilityTool.VERBOSE_LOGGING) {
+                UtilityTool.logInfo("Loaded " + numGlyphs + " character(s) of font '" + name + "' from cache.");
+            }
+            return true;
+
+        } catch (IOException e) {
+
+            UtilityTool.logWarning("Failed to read font cache '" + path + "'; characters will be regenerated.");
+            Arrays.fill(denseChars, null);
+            Arrays.fill(advances, 0);
+            numSparseChars = 0;
+            return false;
+        }
+    }
+
+
+    /**
+     * Writes the metrics of a loaded character to the cache file.
+     *
+     * @param out cache file stream
+     * @param codepoint character to write
+     * @param charInfo character data
+     * @throws IOException if an I/O error occurs
+     */
+    private void writeGlyph(DataOutputStream out, int codepoint, CharInfo charInfo) throws IOException {
+
+        out.writeInt(codepoint);
+        out.writeBoolean(charInfo != EMPTY_CHARACTER);
+
+        if (charInfo != EMPTY_CHARACTER) {
+
+            out.writeInt(charInfo.getSourceX());
+            out.writeInt(charInfo.getSourceY());
+            out.writeInt(charInfo.getWidth());
+            out.writeInt(charInfo.getHeight());
+            out.writeInt(charInfo.getDescent());
+        }
+    }
+
+
+    /**
+     * Registers the Java font used to rasterize glyphs and retrieves its metrics.
+     */
+    private void initAwtFont() {
+
+        Font font = registerFont();
+        awtFont = new Font(font.getName(), Font.PLAIN, fontSize);
+        name = awtFont.getName();
+
+        BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);                                     // Fake image to get font information.
+        Graphics2D g2d = image.createGraphics();
+        g2d.setFont(awtFont);
+        fontMetrics = g2d.getFontMetrics();
+        g2d.dispose();
     }
 
 
@@ -214,6 +674,50 @@ public class CFont {
     }
 
 
+    /**
+     * Calculates a checksum of the contents of this font file.
+     *
+     * @return checksum
+     */
+    private long calculateFontChecksum() {
+
+        try (InputStream is = getClass().getResourceAsStream(filePath)) {
+
+            CRC32 crc = new CRC32();
+            crc.update(is.readAllBytes());
+            return crc.getValue();
+
+        } catch (Exception e) {
+
+            throw new AssetLoadException("Failed to read font from resources '" + filePath +"'");
+        }
+    }
+
+
+    /**
+     * Retrieves the path of the cache file for this font.
+     *
+     * @return cache file path
+     */
+    private Path getCachePath() {
+
+        String fileName = filePath.substring(filePath.lastIndexOf('/') + 1);
+        return Path.of(CACHE_DIRECTORY, fileName + "_" + fontSize + ".bin");
+    }
+
+
+    /**
+     * Rounds a length (in rasterized pixels) up to the nearest whole number of distance field texels.
+     *
+     * @param length length to round
+     * @return rounded length
+     */
+    private int roundUpToTexel(int length) {
+
+        return ((length + SDF_DOWNSAMPLE - 1) / SDF_DOWNSAMPLE) * SDF_DOWNSAMPLE;
+    }
+
+
     // GETTERS
     public String getName() {
         return name;
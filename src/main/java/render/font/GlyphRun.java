@@ -0,0 +1,154 @@
+package render.font;
+
+import org.joml.Vector3f;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class represents a cached run of glyph vertices generated for a string.
+ * A string that is rendered unchanged across frames (same text, position, scale, color, shadow, and font) can reuse the
+ * vertices of its run instead of laying out each character again.
+ */
+public class GlyphRun {
+
+    // FIELDS
+    /**
+     * Font used to generate this run.
+     */
+    private final CFont font;
+
+    /**
+     * X-coordinate (leftmost) of this run.
+     */
+    private final float x;
+
+    /**
+     * Y-coordinate (topmost) of this run.
+     */
+    private final float y;
+
+    /**
+     * Scale factor compared to native font size.
+     */
+    private final float scale;
+
+    /**
+     * Color components (r, g, b) of this run.
+     */
+    private final float r, g, b;
+
+    /**
+     * Boolean indicating whether this run is drawn with a drop shadow.
+     */
+    private final boolean dropShadow;
+
+    /**
+     * Vertex data of this run, or null if not yet captured.
+     */
+    private byte[] vertexData;
+
+    /**
+     * Number of vertices in this run.
+     */
+    private int numVertices;
+
+    /**
+     * Boolean indicating whether this run has been requested this frame.
+     */
+    private boolean used = true;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a GlyphRun instance.
+     *
+     * @param font font used to generate run
+     * @param x x-coordinate (leftmost)
+     * @param y y-coordinate (topmost)
+     * @param scale scale factor compared to native font size
+     * @param color color (r, g, b)
+     * @param dropShadow whether run is drawn with a drop shadow
+     */
+    public GlyphRun(CFont font, float x, float y, float scale, Vector3f color, boolean dropShadow) {
+        this.font = font;
+        this.x = x;
+        this.y = y;
+        this.scale = scale;
+        this.r = color.x;
+        this.g = color.y;
+        this.b = color.z;
+        this.dropShadow = dropShadow;
+    }
+
+
+    // METHODS
+    /**
+     * Checks whether this run was generated with the specified properties.
+     *
+     * @param font font
+     * @param x x-coordinate (leftmost)
+     * @param y y-coordinate (topmost)
+     * @param scale scale factor compared to native font size
+     * @param color color (r, g, b)
+     * @param dropShadow whether drawn with a drop shadow
+     * @return whether this run matches
+     */
+    public boolean matches(CFont font, float x, float y, float scale, Vector3f color, boolean dropShadow) {
+
+        return (this.font == font) && (this.x == x) && (this.y == y) && (this.scale == scale)
+                && (r == color.x) && (g == color.y) && (b == color.z) && (this.dropShadow == dropShadow);
+    }
+
+
+    /**
+     * Captures the vertex data of this run from a vertex array.
+     *
+     * @param vertices vertex array containing this run
+     * @param offset byte offset of the first vertex of this run in the vertex array
+     * @param numVertices number of vertices in this run
+     * @param vertexSizeBytes size of a single vertex in bytes
+     */
+    public void capture(ByteBuffer vertices, int offset, int numVertices, int vertexSizeBytes) {
+
+        vertexData = new byte[numVertices * vertexSizeBytes];
+        vertices.get(offset, vertexData);
+        this.numVertices = numVertices;
+    }
+
+
+    /**
+     * Copies the captured vertex data of this run into a vertex array.
+     *
+     * @param vertices target vertex array
+     * @param offset byte offset in the target vertex array at which to place the first vertex of this run
+     */
+    public void copyTo(ByteBuffer vertices, int offset) {
+
+        vertices.put(offset, vertexData);
+    }
+
+
+    /**
+     * Marks whether this run has been requested this frame.
+     *
+     * @param used whether this run has been requested
+     */
+    public void setUsed(boolean used) {
+
+        this.used = used;
+    }
+
+
+    // GETTERS
+    public boolean isCaptured() {
+        return vertexData != null;
+    }
+
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    public boolean isUsed() {
+        return used;
+    }
+}
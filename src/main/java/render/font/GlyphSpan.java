@@ -0,0 +1,56 @@
+package render.font;
+
+/**
+ * This class represents a string that has been laid out into glyph vertices for a frame.
+ * The vertices themselves are stored in the text vertex array of the frame (see RenderFrame); this only records which
+ * range of that array belongs to the string and which font it is drawn with.
+ * Spans are pooled by each frame and reused every time the frame is recorded.
+ */
+public class GlyphSpan {
+
+    // FIELDS
+    /**
+     * Font that this span is drawn with.
+     */
+    private CFont font;
+
+    /**
+     * Index of the first vertex of this span in the text vertex array of its frame.
+     */
+    private int firstVertex;
+
+    /**
+     * Number of vertices in this span.
+     */
+    private int numVertices;
+
+
+    // METHODS
+    /**
+     * Sets the range of vertices that this span covers.
+     *
+     * @param font font that the span is drawn with
+     * @param firstVertex index of the first vertex of the span in the text vertex array of its frame
+     * @param numVertices number of vertices in the span
+     */
+    public void set(CFont font, int firstVertex, int numVertices) {
+
+        this.font = font;
+        this.firstVertex = firstVertex;
+        this.numVertices = numVertices;
+    }
+
+
+    // GETTERS
+    public CFont getFont() {
+        return font;
+    }
+
+    public int getFirstVertex() {
+        return firstVertex;
+    }
+
+    public int getNumVertices() {
+        return numVertices;
+    }
+}
@@ -48,10 +48,15 @@ public class Text {
      */
     private final ZIndex zIndex;
 
+    /**
+     * Boolean indicating whether this text is drawn with a drop shadow.
+     */
+    private final boolean dropShadow;
+
 
-    // CONSTRUCTOR
+    // CONSTRUCTORS
     /**
-     * Constructs a Text instance
+     * Constructs a Text instance without a drop shadow.
      *
      * @param text text contents
      * @param screenX x-coordinate (leftmost) of text
@@ -59,8 +64,27 @@ public class Text {
      * @param scale scale factor compared to native font size
      * @param color color in hexadecimal format
      * @param font font name
+     * @param zIndex layer
      */
     public Text(String text, float screenX, float screenY, float scale, Vector3f color, String font, ZIndex zIndex) {
+        this(text, screenX, screenY, scale, color, font, zIndex, false);
+    }
+
+
+    /**
+     * Constructs a Text instance
+     *
+     * @param text text contents
+     * @param screenX x-coordinate (leftmost) of text
+     * @param screenY y-coordinate (topmost) of text
+     * @param scale scale factor compared to native font size
+     * @param color color in hexadecimal format
+     * @param font font name
+     * @param zIndex layer
+     * @param dropShadow whether text is drawn with a drop shadow
+     */
+    public Text(String text, float screenX, float screenY, float scale, Vector3f color, String font, ZIndex zIndex,
+                boolean dropShadow) {
         this.text = text;
         this.screenX = screenX;
         this.screenY = screenY;
@@ -68,6 +92,7 @@ public class Text {
         this.color = color;
         this.font = font;
         this.zIndex = zIndex;
+        this.dropShadow = dropShadow;
     }
 
 
@@ -99,4 +124,8 @@ public class Text {
     public ZIndex getzIndex() {
         return zIndex;
     }
+
+    public boolean hasDropShadow() {
+        return dropShadow;
+    }
 }
@@ -0,0 +1,223 @@
+package render.font;
+
+import org.joml.Vector3f;
+import render.RenderFrame;
+import render.VertexLayout;
+import utility.UtilityTool;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * This class lays out strings into glyph vertices as they are recorded into a frame.
+ * Layout happens while the frame is recorded (i.e., on the update thread), so the thread that draws the frame only
+ * needs to copy finished vertices to the GPU (see FontBatch).
+ * Strings laid out unchanged across consecutive frames have their generated vertices cached as glyph runs, which are
+ * copied directly into the frame instead of being laid out again character by character.
+ */
+public class TextLayout {
+
+    /*
+     * Vertices are written in the shared quad vertex format (see VertexLayout).
+     */
+
+    // FIELDS
+    /**
+     * Offset (world units, both down and to the right) of drop shadows cast by text.
+     * Note that this must remain smaller than the padding surrounding each glyph in the font atlas at the smallest scale
+     * at which text is rendered, since the shadow is sampled from the same atlas region as the glyph.
+     */
+    static final float SHADOW_OFFSET = 0.8f;
+
+    /**
+     * Flag written to the texture slot of each vertex of a glyph drawn with a drop shadow.
+     * Since fonts are drawn from a single texture, the texture slot is instead used to pass flags to the font shader.
+     */
+    private static final int GLYPH_FLAG_DROP_SHADOW = 1;
+
+    /**
+     * Map to store glyph runs of strings requested this frame or last frame; text is the key, list of runs generated
+     * for that text (one per distinct position, scale, color, and font) is the value.
+     * A run is created the first time a string is requested and its vertices are captured the next frame the string is
+     * requested unchanged, so strings that change every frame never allocate vertex data.
+     */
+    private final HashMap<String, ArrayList<GlyphRun>> glyphRuns = new HashMap<>();
+
+    /**
+     * Boolean indicating whether the most recently obtained glyph run was newly created this frame.
+     */
+    private boolean isNewGlyphRun;
+
+
+    // METHODS
+    /**
+     * Lays out a string of characters into the text vertex array of a frame.
+     * If the string was requested unchanged last frame, its cached glyph run is copied into the frame directly.
+     * Any characters of the string not yet loaded by the font are loaded first.
+     *
+     * @param frame frame to lay out the string into
+     * @param text text to lay out
+     * @param x x-coordinate (leftmost)
+     * @param y y-coordinate (topmost)
+     * @param scale scale factor compared to native font size
+     * @param color color (r, g, b)
+     * @param font font to use
+     * @param dropShadow whether to draw a drop shadow
+     * @return span of vertices covering the laid out string
+     */
+    public GlyphSpan layout(RenderFrame frame, String text, float x, float y, float scale, Vector3f color, CFont font,
+                            boolean dropShadow) {
+
+        if (!font.isLoaded(text)) {
+
+            font.loadCharacters(text);
+        }
+        GlyphRun run = obtainGlyphRun(text, x, y, scale, color, font, dropShadow);
+        GlyphSpan span = frame.obtainGlyphSpan();
+
+        if (run.isCaptured()) {
+
+            int firstVertex = frame.allocateTextVertices(run.getNumVertices());
+            run.copyTo(frame.getTextVertices(), firstVertex * VertexLayout.VERTEX_SIZE_BYTES);
+            span.set(font, firstVertex, run.getNumVertices());
+            return span;
+        }
+        int numVertices = text.length() * 4;                                                                            // Four vertices per character.
+        int firstVertex = frame.allocateTextVertices(numVertices);
+        ByteBuffer vertices = frame.getTextVertices();
+        int offset = firstVertex * VertexLayout.VERTEX_SIZE_BYTES;
+
+        for (int i = 0; i < text.length(); i++) {                                                                       // Add each character from the string to the frame, one at a time.
+
+            char c = text.charAt(i);
+            CharInfo charInfo = font.getCharacter(c);
+
+            if (charInfo.getWidth() == 0) {
+
+                UtilityTool.logError("Attempted to render a character '" + c + "' with zero width.");
+            }
+            addCharacter(vertices, offset, x, y, scale, charInfo, color, dropShadow);
+            offset += 4 * VertexLayout.VERTEX_SIZE_BYTES;
+            x += charInfo.getWidth() * scale;                                                                           // Prepare for next character in string.
+        }
+
+        if (!isNewGlyphRun) {
+
+            run.capture(vertices, firstVertex * VertexLayout.VERTEX_SIZE_BYTES, numVertices,
+                    VertexLayout.VERTEX_SIZE_BYTES);
+        }
+        span.set(font, firstVertex, numVertices);
+        return span;
+    }
+
+
+    /**
+     * Marks the end of a frame.
+     * Any glyph runs that were not requested this frame are discarded from the cache.
+     */
+    public void endFrame() {
+
+        Iterator<Map.Entry<String, ArrayList<GlyphRun>>> iterator = glyphRuns.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+
+            ArrayList<GlyphRun> runs = iterator.next().getValue();
+            runs.removeIf(run -> !run.isUsed());
+
+            if (runs.isEmpty()) {
+
+                iterator.remove();
+            } else {
+
+                for (GlyphRun run : runs) {
+                    run.setUsed(false);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Writes the four vertices of a single character.
+     *
+     * @param vertices vertex array to write to
+     * @param offset byte offset of the first vertex of the character in the vertex array
+     * @param x x-coordinate (leftmost)
+     * @param y y-coordinate (topmost)
+     * @param scale sale factor compared to native font size
+     * @param charInfo character data
+     * @param color color (r, g, b)
+     * @param dropShadow whether to draw a drop shadow
+     */
+    private void addCharacter(ByteBuffer vertices, int offset, float x, float y, float scale, CharInfo charInfo,
+                              Vector3f color, boolean dropShadow) {
+
+        float x0 = x;                                                                                                   // Top-left corner (remember that positive y-direction is defined as down in this application).
+        float y0 = y;                                                                                                   // ^^^
+        float x1 = x + (scale * charInfo.getWidth());                                                                   // Bottom-right corner (remember that positive y-direction is defined as down in this application).
+        float y1 = y + (scale * (charInfo.getHeight() + charInfo.getDescent()));                                        // ^^^ (also, modifying this value affects how "stretched" the text appears)
+
+        float ux0 = charInfo.getTextureCoords()[0].x;
+        float uy0 = charInfo.getTextureCoords()[1].y;                                                                   // Flipped with `uy1` since positive y-direction is defined as down in this application.
+        float ux1 = charInfo.getTextureCoords()[1].x;
+        float uy1 = charInfo.getTextureCoords()[0].y;
+        int flags = 0;
+
+        if (dropShadow && (x1 > x0) && (y1 > y0)) {
+
+            ux1 += ((ux1 - ux0) / (x1 - x0)) * SHADOW_OFFSET;                                                           // Extend quad down and to the right to cover the shadow, extending texture coordinates at the same rate.
+            uy1 += ((uy1 - uy0) / (y1 - y0)) * SHADOW_OFFSET;
+            x1 += SHADOW_OFFSET;
+            y1 += SHADOW_OFFSET;
+            flags = GLYPH_FLAG_DROP_SHADOW;
+        }
+        VertexLayout.putVertex(vertices, offset, x1, y0, color.x, color.y, color.z, 255, ux1, uy0, flags);              // First vertex with position, color, and texture coordinates.
+
+        offset += VertexLayout.VERTEX_SIZE_BYTES;                                                                       // Second vertex with position, color, and texture coordinates.
+        VertexLayout.putVertex(vertices, offset, x1, y1, color.x, color.y, color.z, 255, ux1, uy1, flags);
+
+        offset += VertexLayout.VERTEX_SIZE_BYTES;                                                                       // Third vertex with position, color, and texture coordinates.
+        VertexLayout.putVertex(vertices, offset, x0, y1, color.x, color.y, color.z, 255, ux0, uy1, flags);
+
+        offset += VertexLayout.VERTEX_SIZE_BYTES;                                                                       // Fourth vertex with position, color, and texture coordinates.
+        VertexLayout.putVertex(vertices, offset, x0, y0, color.x, color.y, color.z, 255, ux0, uy0, flags);
+    }
+
+
+    /**
+     * Retrieves the cached glyph run matching the specified string and properties, creating one if none exists.
+     * The retrieved run is marked as requested this frame.
+     * Whether the run was newly created is recorded in `isNewGlyphRun`.
+     *
+     * @param text text to render
+     * @param x x-coordinate (leftmost)
+     * @param y y-coordinate (topmost)
+     * @param scale scale factor compared to native font size
+     * @param color color (r, g, b)
+     * @param font font to use
+     * @param dropShadow whether to draw a drop shadow
+     * @return glyph run
+     */
+    private GlyphRun obtainGlyphRun(String text, float x, float y, float scale, Vector3f color, CFont font,
+                                    boolean dropShadow) {
+
+        ArrayList<GlyphRun> runs = glyphRuns.computeIfAbsent(text, key -> new ArrayList<>(1));
+
+        for (GlyphRun run : runs) {
+
+            if (run.matches(font, x, y, scale, color, dropShadow)) {
+
+                isNewGlyphRun = false;
+                run.setUsed(true);
+                return run;
+            }
+        }
+        GlyphRun run = new GlyphRun(font, x, y, scale, color, dropShadow);
+        runs.add(run);
+        isNewGlyphRun = true;
+        return run;
+    }
+}
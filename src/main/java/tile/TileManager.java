@@ -7,6 +7,7 @@ import render.Renderer;
 import asset.Sprite;
 import render.enumeration.ZIndex;
 import render.drawable.Drawable;
+import render.drawable.StaticDrawableBatch;
 import render.drawable.Transform;
 import utility.UtilityTool;
 import utility.exceptions.AssetLoadException;
@@ -14,6 +15,7 @@ import utility.exceptions.AssetLoadException;
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Arrays;
 import java.util.HashSet;
 
 /**
@@ -52,6 +54,58 @@ public class TileManager {
      */
     private final HashSet<Integer> renderErrors = new HashSet<>();
 
+    /**
+     * Number of tiles along each side of a chunk.
+     * The tiles of the loaded map are baked into static batches one chunk at a time so that the world can be drawn with
+     * one draw call per visible chunk.
+     */
+    private static final int CHUNK_SIZE = 16;
+
+    /**
+     * Array to store the static batch of baked tiles for each chunk of the world.
+     */
+    private final StaticDrawableBatch[][] chunks;
+
+    /**
+     * Array to store the positions of the passively animated tiles in each chunk of the world.
+     * Each position is packed as `(worldCol * MAX_WORLD_ROW) + worldRow`.
+     */
+    private final int[][][] animatedTiles;
+
+    /**
+     * Array to store the index of the sprite currently baked for each possible tile world position.
+     */
+    private final int[][] bakedSpriteNums;
+
+    /**
+     * Tile data of the map that is currently baked into chunks.
+     * Chunks are baked again whenever the tile data of the loaded map no longer matches this.
+     */
+    private int[][] bakedMapTileNum;
+
+    /**
+     * Boolean indicating whether chunks have been baked at least once.
+     */
+    private boolean baked;
+
+    /**
+     * Drawable baked in place of any tile that cannot be rendered.
+     * It has no size, so nothing is drawn for it.
+     */
+    private final Drawable hiddenTile = new Drawable();
+
+    /**
+     * Layer that draws all tiles of the loaded map on the GPU.
+     * This is used in place of chunks when the shader tile renderer is selected in system settings.
+     */
+    private final TilemapLayer tilemapLayer;
+
+    /**
+     * Boolean indicating whether the shader tile renderer is selected in system settings (true) or chunks are used
+     * (false).
+     */
+    private boolean shaderRendererSelected = false;
+
 
     // CONSTRUCTOR
     /**
@@ -62,14 +116,27 @@ public class TileManager {
     public TileManager(GamePanel gp) {
         this.gp = gp;
         drawables = new Drawable[GamePanel.MAX_WORLD_COL][GamePanel.MAX_WORLD_ROW];
+        bakedSpriteNums = new int[GamePanel.MAX_WORLD_COL][GamePanel.MAX_WORLD_ROW];
+        int numChunkCols = (GamePanel.MAX_WORLD_COL + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int numChunkRows = (GamePanel.MAX_WORLD_ROW + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunks = new StaticDrawableBatch[numChunkCols][numChunkRows];
+        animatedTiles = new int[numChunkCols][numChunkRows][];
         loadTiles();
         initializeDrawablesArray();
+        initializeChunks();
+        tilemapLayer = new TilemapLayer();
+        tilemapLayer.loadTiles(tiles);
+        tilemapLayer.loadAnimationClips(gp.getPassiveAnimationM());
     }
 
 
     // METHODS
     /**
      * Adds all tiles of the loaded map to the render pipeline.
+     * Tiles are drawn from static batches baked when the map was loaded, one per chunk in view of the camera.
+     * Only passively animated tiles whose sprite has changed since the last frame are written to their chunk again.
+     * Alternatively, if the shader tile renderer is selected in system settings, the entire tile layer is drawn by the
+     * GPU tilemap layer instead.
      *
      * @param renderer Renderer instance
      */
@@ -77,49 +144,102 @@ public class TileManager {
 
         if (gp.isRenderWorld() && !gp.getIllustrationS().isIllustrationActive()) {
 
-            int worldCol = 0;
-            int worldRow = 0;
-            int tileNum;
+            if (!baked || (getLoadedMapTileNum() != bakedMapTileNum)) {
 
-            while ((worldCol < GamePanel.MAX_WORLD_COL) && (worldRow < GamePanel.MAX_WORLD_ROW)) {                      // Render each tile from left to right for each row, starting with the top row and working downwards.
+                bakeChunks();                                                                                           // Loaded map changed without being baked (e.g., map set directly).
+            }
 
-                try {
+            if (shaderRendererSelected && tilemapLayer.isReady()) {
 
-                    tileNum = gp.getMapM().getLoadedMap().getMapTileNum()[worldCol][worldRow];                          // Determine which tile type to render from the loaded map data, determined by which map is currently being displayed.
+                renderer.addTilemapLayer(tilemapLayer, ZIndex.THIRD_LAYER);
+                return;
+            }
 
-                } catch (NullPointerException e) {
+            for (int chunkCol = 0; chunkCol < chunks.length; chunkCol++) {
 
-                    tileNum = defaultTile;
-                }
-                int spriteNum = gp.getPassiveAnimationM().getSprite(
-                        tiles[tileNum].getPassiveAnimationGroup(), worldCol, worldRow);                                 // Render appropriate tile in passive animation cycle, if applicable.
+                for (int chunkRow = 0; chunkRow < chunks[chunkCol].length; chunkRow++) {
 
-                if ((spriteNum < tiles[tileNum].getSprites().size())
-                        && (spriteNum >= 0)
-                        && (tiles[tileNum].getSprites().get(spriteNum) != null)) {
+                    float chunkWorldX = chunkCol * CHUNK_SIZE * GamePanel.NATIVE_TILE_SIZE;
+                    float chunkWorldY = chunkRow * CHUNK_SIZE * GamePanel.NATIVE_TILE_SIZE;
+                    float chunkWorldSize = CHUNK_SIZE * GamePanel.NATIVE_TILE_SIZE;
 
-                    Sprite sprite = tiles[tileNum].getSprites().get(spriteNum);
-                    drawables[worldCol][worldRow].setSprite(sprite);
+                    if (gp.getCamera().isInCameraView(chunkWorldX, chunkWorldY, chunkWorldSize, chunkWorldSize)) {
 
-                    if (gp.getCamera().isInCameraView(drawables[worldCol][worldRow])) {
+                        for (int position : animatedTiles[chunkCol][chunkRow]) {
 
-                        renderer.addDrawable(drawables[worldCol][worldRow], ZIndex.THIRD_LAYER);
-                    }
+                            int worldCol = position / GamePanel.MAX_WORLD_ROW;
+                            int worldRow = position % GamePanel.MAX_WORLD_ROW;
+                            int tileNum = bakedMapTileNum[worldCol][worldRow];
+                            int spriteNum = gp.getPassiveAnimationM().getSprite(
+                                    tiles[tileNum].getPassiveAnimationGroup(), worldCol, worldRow);                     // Render appropriate tile in passive animation cycle.
+
+                            if (spriteNum != bakedSpriteNums[worldCol][worldRow]) {
 
-                } else if (!renderErrors.contains(tileNum)) {
-                    UtilityTool.logError("Failed to add tile at index '"
-                            + tileNum
-                            + "' to the render pipeline: the map may contain a tile that does not exist or a tile may"
-                            + " have been assigned an incorrect animation.");
-                    renderErrors.add(tileNum);
+                                bakeTile(worldCol, worldRow, tileNum, spriteNum);
+                            }
+                        }
+                        renderer.addStaticBatch(chunks[chunkCol][chunkRow], ZIndex.THIRD_LAYER);
+                    }
                 }
+            }
+        }
+    }
+
+
+    /**
+     * Bakes all tiles of the loaded map into chunks and uploads them to the GPU tilemap layer.
+     * This should be called whenever a new map is loaded.
+     */
+    public void bakeChunks() {
+
+        int[][] mapTileNum = getLoadedMapTileNum();
+
+        for (int chunkCol = 0; chunkCol < chunks.length; chunkCol++) {
+
+            for (int chunkRow = 0; chunkRow < chunks[chunkCol].length; chunkRow++) {
+
+                chunks[chunkCol][chunkRow].clear();
+                int[] animated = new int[CHUNK_SIZE * CHUNK_SIZE];
+                int numAnimated = 0;
+                int startCol = chunkCol * CHUNK_SIZE;
+                int startRow = chunkRow * CHUNK_SIZE;
+                int endCol = Math.min(startCol + CHUNK_SIZE, GamePanel.MAX_WORLD_COL);
+                int endRow = Math.min(startRow + CHUNK_SIZE, GamePanel.MAX_WORLD_ROW);
+
+                for (int worldRow = startRow; worldRow < endRow; worldRow++) {
+
+                    for (int worldCol = startCol; worldCol < endCol; worldCol++) {
+
+                        int tileNum = (mapTileNum != null) ? mapTileNum[worldCol][worldRow] : defaultTile;
+                        int spriteNum = 0;
 
-                worldCol++;                                                                                             // Iterate so that we can render the next tile.
-                if (worldCol == GamePanel.MAX_WORLD_COL) {
-                    worldCol = 0;
-                    worldRow++;
+                        if ((tileNum >= 0) && (tileNum < tiles.length) && (tiles[tileNum] != null)
+                                && (tiles[tileNum].getPassiveAnimationGroup() != -1)) {
+
+                            spriteNum = gp.getPassiveAnimationM().getSprite(
+                                    tiles[tileNum].getPassiveAnimationGroup(), worldCol, worldRow);
+                            animated[numAnimated++] = (worldCol * GamePanel.MAX_WORLD_ROW) + worldRow;
+                        }
+                        bakeTile(worldCol, worldRow, tileNum, spriteNum);
+                    }
                 }
+                animatedTiles[chunkCol][chunkRow] = Arrays.copyOf(animated, numAnimated);
+            }
+        }
+        bakedMapTileNum = mapTileNum;
+        baked = true;
+
+        if (mapTileNum != null) {
+
+            tilemapLayer.loadMap(mapTileNum);
+        } else {
+
+            int[][] defaultMapTileNum = new int[GamePanel.MAX_WORLD_COL][GamePanel.MAX_WORLD_ROW];
+
+            for (int[] column : defaultMapTileNum) {
+                Arrays.fill(column, defaultTile);
             }
+            tilemapLayer.loadMap(defaultMapTileNum);
         }
     }
 
@@ -871,8 +991,96 @@ public class TileManager {
     }
 
 
+    /**
+     * Initializes the static batch of each chunk.
+     */
+    private void initializeChunks() {
+
+        for (int chunkCol = 0; chunkCol < chunks.length; chunkCol++) {
+
+            for (int chunkRow = 0; chunkRow < chunks[chunkCol].length; chunkRow++) {
+
+                chunks[chunkCol][chunkRow] = new StaticDrawableBatch(CHUNK_SIZE * CHUNK_SIZE, "/shaders/default.glsl");
+            }
+        }
+    }
+
+
+    /**
+     * Writes a single tile into the static batch of the chunk containing it.
+     * If the tile cannot be rendered, an empty drawable is written in its place so that nothing is drawn there.
+     *
+     * @param worldCol world column position of tile
+     * @param worldRow world row position of tile
+     * @param tileNum tile type to write
+     * @param spriteNum index of tile sprite to write
+     */
+    private void bakeTile(int worldCol, int worldRow, int tileNum, int spriteNum) {
+
+        int chunkCol = worldCol / CHUNK_SIZE;
+        int chunkRow = worldRow / CHUNK_SIZE;
+        int chunkWidth = Math.min(CHUNK_SIZE, GamePanel.MAX_WORLD_COL - (chunkCol * CHUNK_SIZE));
+        int index = ((worldRow % CHUNK_SIZE) * chunkWidth) + (worldCol % CHUNK_SIZE);                                   // Tiles are packed densely, even in chunks cut short by the edge of the world.
+        Drawable drawable = drawables[worldCol][worldRow];
+        bakedSpriteNums[worldCol][worldRow] = spriteNum;
+
+        if ((tileNum >= 0)
+                && (tileNum < tiles.length)
+                && (tiles[tileNum] != null)
+                && (spriteNum < tiles[tileNum].getSprites().size())
+                && (spriteNum >= 0)
+                && (tiles[tileNum].getSprites().get(spriteNum) != null)) {
+
+            drawable.setSprite(tiles[tileNum].getSprites().get(spriteNum));
+
+            if (chunks[chunkCol][chunkRow].set(index, drawable)) {
+
+                return;
+            }
+
+            if (!renderErrors.contains(tileNum)) {
+                UtilityTool.logError("Failed to bake tile at index '"
+                        + tileNum
+                        + "' into a chunk: tiles within a single chunk may reference no more than six textures.");
+                renderErrors.add(tileNum);
+            }
+
+        } else if (!renderErrors.contains(tileNum)) {
+            UtilityTool.logError("Failed to add tile at index '"
+                    + tileNum
+                    + "' to the render pipeline: the map may contain a tile that does not exist or a tile may"
+                    + " have been assigned an incorrect animation.");
+            renderErrors.add(tileNum);
+        }
+        hiddenTile.transform.position.set(drawable.transform.position);
+        hiddenTile.transform.scale.set(0, 0);
+        chunks[chunkCol][chunkRow].set(index, hiddenTile);
+    }
+
+
+    /**
+     * Retrieves the tile data of the loaded map.
+     *
+     * @return tile data, or null if no map with tile data is loaded
+     */
+    private int[][] getLoadedMapTileNum() {
+
+        if (gp.getMapM().getLoadedMap() == null) {
+
+            return null;
+        }
+        return gp.getMapM().getLoadedMap().getMapTileNum();
+    }
+
+
     // GETTER
     public Tile[] getTiles() {
         return tiles;
     }
+
+
+    // SETTER
+    public void setShaderRendererSelected(boolean shaderRendererSelected) {
+        this.shaderRendererSelected = shaderRendererSelected;
+    }
 }
@@ -0,0 +1,388 @@
+package tile;
+
+import animation.AnimationClip;
+import animation.PassiveAnimationManager;
+import asset.AssetPool;
+import asset.PaletteTable;
+import asset.Shader;
+import asset.Sprite;
+import asset.Texture;
+import core.GamePanel;
+import org.joml.Vector4f;
+import org.lwjgl.BufferUtils;
+import render.GlStateCache;
+import render.GlTaskQueue;
+import utility.UtilityTool;
+
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
+import static org.lwjgl.opengl.GL30.*;
+
+/**
+ * This class draws an entire tile layer on the GPU with a single screen-covering quad.
+ * The tile number at each world position is stored in an integer texture, and a lookup texture maps each tile number
+ * to its passive animation group and the texture rectangle of each of its sprites; the fragment shader resolves which
+ * tile sprite covers each pixel.
+ * Passive animations are uploaded once as clip data, and the frame of each animated tile is selected in the shader
+ * from the elapsed time, so animated tiles need no per-frame work either.
+ * As a result, the CPU cost of drawing tiles does not depend on the size of the map or how much of it is in view.
+ * Tiles, maps, and clips are prepared on the calling thread and uploaded on the thread that owns the OpenGL context
+ * (see GlTaskQueue); all GPU resources of this layer are only ever touched from that thread.
+ */
+public class TilemapLayer {
+
+    // FIELDS
+    /**
+     * Texture unit that the tile atlas is bound to.
+     */
+    private static final int ATLAS_UNIT = 0;
+
+    /**
+     * Texture unit that the tile index texture is bound to.
+     */
+    private static final int TILE_INDICES_UNIT = 1;
+
+    /**
+     * Texture unit that the tile lookup texture is bound to.
+     */
+    private static final int TILE_LOOKUP_UNIT = 2;
+
+    /**
+     * Texture unit that the clip segment texture is bound to.
+     */
+    private static final int CLIP_SEGMENTS_UNIT = 3;
+
+    /**
+     * Texture unit that the clip phase offset texture is bound to.
+     */
+    private static final int CLIP_PHASES_UNIT = 4;
+
+    /**
+     * Shader attached to this layer.
+     */
+    private final Shader shader;
+
+    /**
+     * Empty vertex array object ID; the screen-covering quad is generated in the vertex shader.
+     */
+    private int vaoId;
+
+    /**
+     * Texture containing all tile sprites as of the last upload of tiles, or null if tiles have not been uploaded.
+     */
+    private Texture atlas;
+
+    /**
+     * Number of the palette resolving the colors of tile sprites if their texture is indexed, or zero (as of the last
+     * upload of tiles).
+     */
+    private int atlasPalette;
+
+    /**
+     * Texture ID of the tile index texture (one unsigned 16-bit tile number per world position).
+     */
+    private int tileIndicesTextureId;
+
+    /**
+     * Texture ID of the tile lookup texture (one row of unsigned 16-bit values per tile number).
+     */
+    private int tileLookupTextureId;
+
+    /**
+     * Texture ID of the clip segment texture (one row per passive animation group: the period and number of segments,
+     * then the end time and frame of each segment).
+     */
+    private int clipSegmentsTextureId;
+
+    /**
+     * Texture ID of the clip phase offset texture (one repeating pattern of start times per passive animation group).
+     */
+    private int clipPhasesTextureId;
+
+    /**
+     * Boolean indicating whether tiles, a map, and animation clips have all been loaded successfully.
+     */
+    private boolean tilesLoaded, mapLoaded, clipsLoaded;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a TilemapLayer instance.
+     * Tiles, a map, and animation clips must be loaded before this layer can be rendered.
+     */
+    public TilemapLayer() {
+        shader = AssetPool.getShader("/shaders/tilemap.glsl");
+        GlTaskQueue.submit(() -> {
+            vaoId = glGenVertexArrays();
+            tileIndicesTextureId = createDataTexture();
+            tileLookupTextureId = createDataTexture();
+            clipSegmentsTextureId = createDataTexture();
+            clipPhasesTextureId = createDataTexture();
+        });
+    }
+
+
+    // METHODS
+    /**
+     * Prepares and submits the lookup texture describing each tile to be uploaded.
+     * All tile sprites must be drawn from a single texture with a single palette.
+     *
+     * @param tiles array of tiles, indexed by tile number
+     * @return whether tiles were loaded successfully (false if tile sprites are drawn from more than one texture or
+     * palette)
+     */
+    public boolean loadTiles(Tile[] tiles) {
+
+        Texture texture = null;
+        int palette = 0;
+        int maxFrames = 0;
+
+        for (Tile tile : tiles) {
+
+            if (tile != null) {
+
+                for (Sprite sprite : tile.getSprites()) {
+
+                    if ((sprite != null) && (texture == null)) {
+
+                        texture = sprite.getTexture();
+                        palette = sprite.getPalette();
+                    } else if ((sprite != null)
+                            && ((sprite.getTexture() != texture) || (sprite.getPalette() != palette))) {
+
+                        UtilityTool.logError("Failed to load tiles into GPU tilemap: all tile sprites must be drawn"
+                                + " from a single texture with a single palette.");
+                        tilesLoaded = false;
+                        return false;
+                    }
+                }
+                maxFrames = Math.max(maxFrames, tile.getSprites().size());
+            }
+        }
+        int width = 1 + maxFrames;                                                                                      // One header texel followed by one texture rectangle per frame.
+        ShortBuffer lookup = BufferUtils.createShortBuffer(width * tiles.length * 4);
+
+        for (int tileNum = 0; tileNum < tiles.length; tileNum++) {
+
+            int rowOffset = tileNum * width * 4;
+            Tile tile = tiles[tileNum];
+
+            if (tile == null) {
+
+                continue;                                                                                               // Zero frames, so nothing is drawn.
+            }
+            lookup.put(rowOffset, (short)(tile.getPassiveAnimationGroup() + 1));
+            lookup.put(rowOffset + 1, (short)tile.getSprites().size());
+
+            for (int frame = 0; frame < tile.getSprites().size(); frame++) {
+
+                Sprite sprite = tile.getSprites().get(frame);
+
+                if (sprite != null) {
+
+                    int offset = rowOffset + ((1 + frame) * 4);
+                    lookup.put(offset, packTextureCoord(sprite.getTextureCoords()[2].x));                               // Left.
+                    lookup.put(offset + 1, packTextureCoord(sprite.getTextureCoords()[1].y));                           // Bottom.
+                    lookup.put(offset + 2, packTextureCoord(sprite.getTextureCoords()[0].x));                           // Right.
+                    lookup.put(offset + 3, packTextureCoord(sprite.getTextureCoords()[0].y));                           // Top.
+                }
+            }
+        }
+        int numTiles = tiles.length;
+        Texture tileTexture = texture;
+        int tilePalette = palette;
+
+        GlTaskQueue.submit(() -> {
+            GlStateCache.bindTexture(tileLookupTextureId);
+            glPixelStorei(GL_UNPACK_ALIGNMENT, 2);
+            glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA16UI, width, numTiles, 0, GL_RGBA_INTEGER, GL_UNSIGNED_SHORT, lookup);
+            glPixelStorei(GL_UNPACK_ALIGNMENT, 4);                                                                      // Restore default alignment.
+            atlas = tileTexture;
+            atlasPalette = tilePalette;
+        });
+        tilesLoaded = (texture != null);
+        return tilesLoaded;
+    }
+
+
+    /**
+     * Prepares and submits the tile index texture of a map to be uploaded.
+     * Maps of any size that fits in a texture are supported.
+     *
+     * @param mapTileNum tile number at each world position, indexed by column then row
+     */
+    public void loadMap(int[][] mapTileNum) {
+
+        int numCols = mapTileNum.length;
+        int numRows = (numCols > 0) ? mapTileNum[0].length : 0;
+
+        if ((numCols == 0) || (numRows == 0)) {
+
+            mapLoaded = false;
+            return;
+        }
+        ShortBuffer indices = BufferUtils.createShortBuffer(numCols * numRows);
+
+        for (int row = 0; row < numRows; row++) {
+
+            for (int col = 0; col < numCols; col++) {
+
+                indices.put((short)mapTileNum[col][row]);
+            }
+        }
+        indices.flip();
+
+        GlTaskQueue.submit(() -> {
+            GlStateCache.bindTexture(tileIndicesTextureId);
+            glPixelStorei(GL_UNPACK_ALIGNMENT, 2);
+            glTexImage2D(GL_TEXTURE_2D, 0, GL_R16UI, numCols, numRows, 0, GL_RED_INTEGER, GL_UNSIGNED_SHORT, indices);
+            glPixelStorei(GL_UNPACK_ALIGNMENT, 4);
+        });
+        mapLoaded = true;
+    }
+
+
+    /**
+     * Prepares and submits the animation clip of each passive animation group to be uploaded.
+     * This only needs to be done once, since the frame to display is selected in the shader from the elapsed time.
+     *
+     * @param passiveAnimationM PassiveAnimationManager instance
+     */
+    public void loadAnimationClips(PassiveAnimationManager passiveAnimationM) {
+
+        int maxSegments = 0;
+
+        for (int group = 0; group < PassiveAnimationManager.NUM_GROUPS; group++) {
+            maxSegments = Math.max(maxSegments, passiveAnimationM.getClip(group).getNumSegments());
+        }
+        int width = 1 + maxSegments;                                                                                    // One header texel followed by one texel per segment.
+        FloatBuffer segments = BufferUtils.createFloatBuffer(width * PassiveAnimationManager.NUM_GROUPS * 2);
+        FloatBuffer phases = BufferUtils.createFloatBuffer(
+                AnimationClip.PATTERN_SIZE * AnimationClip.PATTERN_SIZE * PassiveAnimationManager.NUM_GROUPS);
+
+        for (int group = 0; group < PassiveAnimationManager.NUM_GROUPS; group++) {
+
+            AnimationClip clip = passiveAnimationM.getClip(group);
+            int rowOffset = group * width * 2;
+            segments.put(rowOffset, (float)clip.getPeriod());
+            segments.put(rowOffset + 1, clip.getNumSegments());
+
+            for (int segment = 0; segment < clip.getNumSegments(); segment++) {
+
+                segments.put(rowOffset + ((1 + segment) * 2), (float)clip.getSegmentEnd(segment));
+                segments.put(rowOffset + ((1 + segment) * 2) + 1, clip.getSegmentFrame(segment));
+            }
+
+            for (int row = 0; row < AnimationClip.PATTERN_SIZE; row++) {
+
+                for (int col = 0; col < AnimationClip.PATTERN_SIZE; col++) {
+
+                    phases.put((float)clip.getPhaseOffset(col, row));
+                }
+            }
+        }
+        phases.flip();
+
+        GlTaskQueue.submit(() -> {
+            GlStateCache.bindTexture(clipSegmentsTextureId);
+            glTexImage2D(GL_TEXTURE_2D, 0, GL_RG32F, width, PassiveAnimationManager.NUM_GROUPS, 0, GL_RG, GL_FLOAT,
+                    segments);
+            GlStateCache.bindTexture(clipPhasesTextureId);
+            glTexImage2D(GL_TEXTURE_2D, 0, GL_R32F, AnimationClip.PATTERN_SIZE,
+                    AnimationClip.PATTERN_SIZE * PassiveAnimationManager.NUM_GROUPS, 0, GL_RED, GL_FLOAT, phases);
+        });
+        clipsLoaded = true;
+    }
+
+
+    /**
+     * Renders the portion of this layer within a visible world area.
+     * This may only be called from the thread that owns the OpenGL context.
+     *
+     * @param viewRect visible world area (x, y, width, height)
+     * @param time time elapsed since passive animations started (seconds), from which the frame of each animated tile
+     *             is selected
+     */
+    public void render(Vector4f viewRect, float time) {
+
+        if (atlas == null) {
+
+            return;
+        }
+        shader.use();
+        atlas.bind(ATLAS_UNIT);
+        GlStateCache.bindTexture(TILE_INDICES_UNIT, tileIndicesTextureId);
+        GlStateCache.bindTexture(TILE_LOOKUP_UNIT, tileLookupTextureId);
+        GlStateCache.bindTexture(CLIP_SEGMENTS_UNIT, clipSegmentsTextureId);
+        GlStateCache.bindTexture(CLIP_PHASES_UNIT, clipPhasesTextureId);
+        shader.uploadTexture("uAtlas", ATLAS_UNIT);
+        shader.uploadTexture("uTileIndices", TILE_INDICES_UNIT);
+        shader.uploadTexture("uTileLookup", TILE_LOOKUP_UNIT);
+        shader.uploadTexture("uClipSegments", CLIP_SEGMENTS_UNIT);
+        shader.uploadTexture("uClipPhases", CLIP_PHASES_UNIT);
+        AssetPool.getPaletteTable().bind();
+        shader.uploadTexture("uPalettes", PaletteTable.TEXTURE_UNIT);
+        shader.uploadInt("uAtlasPalette", atlasPalette);
+        shader.uploadFloat("uTileSize", GamePanel.NATIVE_TILE_SIZE);
+        shader.uploadInt("uPatternSize", AnimationClip.PATTERN_SIZE);
+        shader.uploadFloat("uTime", time);
+        shader.uploadVec4f("uViewRect", viewRect);
+        GlStateCache.bindVertexArray(vaoId);
+        glDrawArrays(GL_TRIANGLE_STRIP, 0, 4);
+    }
+
+
+    /**
+     * Frees this layer from GPU memory if it is finished being used.
+     */
+    public void delete() {
+
+        GlTaskQueue.submit(() -> {
+            for (int textureId : new int[] {tileIndicesTextureId, tileLookupTextureId, clipSegmentsTextureId,
+                    clipPhasesTextureId}) {
+                GlStateCache.invalidateTexture(textureId);
+                glDeleteTextures(textureId);
+            }
+            GlStateCache.invalidateVertexArray(vaoId);
+            glDeleteVertexArrays(vaoId);
+        });
+    }
+
+
+    /**
+     * Creates a texture sampled without filtering (integer textures cannot be filtered, and data textures must not be).
+     *
+     * @return texture ID
+     */
+    private int createDataTexture() {
+
+        int textureId = glGenTextures();
+        GlStateCache.bindTexture(textureId);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+        return textureId;
+    }
+
+
+    /**
+     * Packs a normalized texture coordinate into an unsigned short.
+     *
+     * @param coord texture coordinate (normalized from 0 to 1)
+     * @return packed texture coordinate
+     */
+    private static short packTextureCoord(float coord) {
+
+        return (short)Math.round(Math.min(Math.max(coord, 0.0f), 1.0f) * 65535.0f);
+    }
+
+
+    // GETTER
+    public boolean isReady() {
+        return tilesLoaded && mapLoaded && clipsLoaded;
+    }
+}
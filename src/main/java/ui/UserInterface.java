@@ -13,6 +13,7 @@ import event.enumeration.FadeState;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
+import render.GlStateCache;
 import render.Renderer;
 import render.enumeration.ZIndex;
 import render.drawable.Transform;
@@ -106,18 +107,29 @@ public class UserInterface {
 
     // METHODS
     /**
-     * Updates the state of the user interface by one frame.
-     * This includes user interface support classes.
+     * Updates the FPS tracker with the time taken by the latest rendered frame.
+     * Note that this is separate from updating the user interface, since game logic updates at a fixed rate regardless
+     * of frame rate.
      *
      * @param dt time since last frame (seconds)
      */
-    public void update(double dt) {
+    public void trackFrameRate(double dt) {
 
         fpsCounter -= dt;
         if (fpsCounter <= 0) {
             fpsTracker = (int)(1.0 / dt);
             fpsCounter += 1;                                                                                            // FPS displayed in debug mode will be updated every one second.
         }
+    }
+
+
+    /**
+     * Updates the state of the user interface by one frame.
+     * This includes user interface support classes.
+     *
+     * @param dt time since last frame (seconds)
+     */
+    public void update(double dt) {
 
         // PRIMARY MENU
         switch (primaryMenuState) {
@@ -264,14 +276,7 @@ public class UserInterface {
      */
     public float calculateStringWorldWidth(String text, float scale, String font) {
 
-        float textWorldWidth = 0;
-
-        for (int i = 0; i < text.length(); i++) {
-
-            char character = text.charAt(i);
-            textWorldWidth += renderer.getFont(font).getCharacter(character).getWidth() * scale;
-        }
-        return textWorldWidth;
+        return renderer.getFont(font).measureString(text) * scale;
     }
 
 
@@ -482,14 +487,8 @@ public class UserInterface {
     public void addStringShadowToRenderPipeline(String text, float screenX, float screenY, float scale,
                                                 Vector3f color, String font, ZIndex zIndex) {
 
-        Vector2f shadowScreenCoords = new Vector2f(
-                screenX + gp.getCamera().worldWidthToScreenWidth(0.8f),                                                 // Hard coded as an absolute (non-screen) width since shadow cast is fixed, regardless of native screen width.
-                screenY + gp.getCamera().worldHeightToScreenHeight(0.8f)                                                // Hard coded as an absolute (non-screen) height since shadow cast is fixed, regardless of native screen height.
-        );
-        addStringToRenderPipeline(text, shadowScreenCoords.x, shadowScreenCoords.y,
-                scale, new Vector3f(0, 0, 0), font, zIndex
-        );
-        addStringToRenderPipeline(text, screenX, screenY, scale, color, font, zIndex
+        renderer.addString(text, gp.getCamera().screenXToWorldX(screenX), gp.getCamera().screenYToWorldY(screenY),
+                scale, color, font, zIndex, true                                                                        // Shadow cast is fixed in world units, regardless of native screen size.
         );
     }
 
@@ -899,6 +898,21 @@ public class UserInterface {
         addStringShadowToRenderPipeline(fps, screenX, screenY, standardFontScale,
                 color, standardNormalFont, ZIndex.FIRST_LAYER);
 
+        // Frame pacing jitter (only applicable to disabled VSync).
+        if (gp.getSystemSetting(0).getActiveOption() == 0) {
+            screenY += spacingScreenY;
+            String jitter = "Pacing Jitter: " + gp.getFramePacer().getAverageJitterMicros() + " us (max "
+                    + gp.getFramePacer().getMaxJitterMicros() + " us)";
+            addStringShadowToRenderPipeline(jitter, screenX, screenY, standardFontScale,
+                    color, standardNormalFont, ZIndex.FIRST_LAYER);
+        }
+
+        // Redundant GL calls skipped.
+        screenY += spacingScreenY;
+        String elided = "GL Calls Elided: " + GlStateCache.getElidedCallsLastFrame();
+        addStringShadowToRenderPipeline(elided, screenX, screenY, standardFontScale,
+                color, standardNormalFont, ZIndex.FIRST_LAYER);
+
         // Player column.
         screenY += spacingScreenY;
         String col = "Player Col: " + gp.getEntityM().getPlayer().getCol();
@@ -82,14 +82,8 @@ public class UiDialogueSupport {
                 && !gp.getDialogueR().getActiveDialogueSpeaker().equals("")) {
 
             String speakerName = gp.getDialogueR().getActiveDialogueSpeaker();
-            float speakerNameWorldWidth = 0;
-
-            for (int i = 0; i < speakerName.length(); i++) {
-
-                char speakerChar = speakerName.charAt(i);
-                speakerNameWorldWidth += renderer.getFont(gp.getUi().getStandardNormalFont())
-                        .getCharacter(speakerChar).getWidth() * gp.getUi().getStandardFontScale();
-            }
+            float speakerNameWorldWidth = gp.getUi().calculateStringWorldWidth(
+                    speakerName, gp.getUi().getStandardFontScale(), gp.getUi().getStandardNormalFont());
             float speakerNameScreenWidth = gp.getCamera().worldWidthToScreenWidth(speakerNameWorldWidth);
             float speakerWindowScreenWidth = speakerNameScreenWidth + (2 * speakerWindowScreenLeftRightPadding);
             speakerWindowScreenTransform.scale.x = speakerWindowScreenWidth;
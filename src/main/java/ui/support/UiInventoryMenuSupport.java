@@ -4,6 +4,7 @@ import asset.Sprite;
 import core.GamePanel;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
+import render.CachedLayer;
 import render.Renderer;
 import render.enumeration.ZIndex;
 import utility.LimitedArrayList;
@@ -30,6 +31,10 @@ public class UiInventoryMenuSupport {
     // FIELDS
     private final GamePanel gp;
 
+    private CachedLayer layer;
+
+    private int layerInventoryRevision;
+
     private int maxNumItemSlotsCol;
 
     private int maxNumItemSlotsRow;
@@ -92,12 +97,37 @@ public class UiInventoryMenuSupport {
     // METHODS
     /**
      * Adds inventory menu user interface components to the render pipeline.
-     * Note that the contents of the user interface components will automatically reflect their last known states.
+     * The components are drawn into a cached layer, which is only redrawn if the selection or the contents of the
+     * player entity's inventory have changed since they were last drawn; otherwise, the cached layer is added as-is.
      *
      * @param renderer Renderer instance
      */
     public void addToRenderPipeline(Renderer renderer) {
 
+        int inventoryRevision = gp.getEntityM().getPlayer().getInventoryRevision();
+
+        if (inventoryRevision != layerInventoryRevision) {
+
+            layer.invalidate();
+            layerInventoryRevision = inventoryRevision;
+        }
+
+        if (!layer.isValid()) {
+
+            renderer.redrawLayer(layer, () -> addComponentsToRenderPipeline(renderer));
+        }
+        renderer.addCachedLayer(layer, ZIndex.SECOND_LAYER);
+    }
+
+
+    /**
+     * Adds inventory menu user interface components to the render pipeline individually.
+     * Note that the contents of the user interface components will automatically reflect their last known states.
+     *
+     * @param renderer Renderer instance
+     */
+    private void addComponentsToRenderPipeline(Renderer renderer) {
+
         // Slot icons and content.
         int row = 0;
         int col = 0;
@@ -245,6 +275,7 @@ public class UiInventoryMenuSupport {
 
                 this.itemColSelected = itemColSelected;
                 inventoryIndexSelected = (maxNumItemSlotsRow * itemRowSelected) + (itemColSelected);
+                layer.invalidate();
             }
         }
     }
@@ -269,6 +300,7 @@ public class UiInventoryMenuSupport {
 
                 this.itemRowSelected = itemRowSelected;
                 inventoryIndexSelected = (maxNumItemSlotsRow * itemRowSelected) + (itemColSelected);
+                layer.invalidate();
             }
         }
     }
@@ -434,6 +466,14 @@ public class UiInventoryMenuSupport {
         float itemDescriptionTextScreenX = itemNameTextScreenX;
         float itemDescriptionTextScreenY = itemNameTextScreenY + itemTextSectionScreenVerticalSpacing;
         itemDescriptionTextScreenCoords = new Vector2f(itemDescriptionTextScreenX, itemDescriptionTextScreenY);
+
+        // Cached layer.
+        float layerScreenY = gp.getUiPrimaryMenuFrameS().getHeaderDividerScreenY()
+                + gp.getUiPrimaryMenuFrameS().getHeaderDividerScreenHeight();
+        float layerScreenHeight = gp.getUiPrimaryMenuFrameS().getPrimaryWindowScreenY()
+                + gp.getUiPrimaryMenuFrameS().getPrimaryWindowScreenHeight() - layerScreenY;                            // Covers the primary window below the header divider.
+        layer = new CachedLayer(gp.getUiPrimaryMenuFrameS().getPrimaryWindowScreenX(), layerScreenY,
+                gp.getUiPrimaryMenuFrameS().getPrimaryWindowScreenWidth(), layerScreenHeight);
     }
 
 
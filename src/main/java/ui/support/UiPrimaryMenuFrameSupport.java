@@ -4,6 +4,7 @@ import core.GamePanel;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
+import render.CachedLayer;
 import render.Renderer;
 import render.drawable.Transform;
 import render.enumeration.ZIndex;
@@ -29,6 +30,8 @@ public class UiPrimaryMenuFrameSupport {
 
     private boolean dirty = true;
 
+    private CachedLayer layer;
+
     private float headerFontScale;
 
     private float headerCharScreenHeight;
@@ -96,6 +99,9 @@ public class UiPrimaryMenuFrameSupport {
         // Primary window color.
         windowColor.w = gp.getUi().getWindowOpacity();
 
+        // Cached layer.
+        layer.invalidate();
+
         // Dirty flag.
         dirty = false;
     }
@@ -103,11 +109,28 @@ public class UiPrimaryMenuFrameSupport {
 
     /**
      * Adds primary window frame user interface components to the render pipeline.
+     * The components are drawn into a cached layer, which is only redrawn if the components have changed since they
+     * were last drawn; otherwise, the cached layer is added as-is.
      *
      * @param renderer Renderer instance
      */
     public void addToRenderPipeline(Renderer renderer) {
 
+        if (!layer.isValid()) {
+
+            renderer.redrawLayer(layer, () -> addComponentsToRenderPipeline(renderer));
+        }
+        renderer.addCachedLayer(layer, ZIndex.SECOND_LAYER);
+    }
+
+
+    /**
+     * Adds primary window frame user interface components to the render pipeline individually.
+     *
+     * @param renderer Renderer instance
+     */
+    private void addComponentsToRenderPipeline(Renderer renderer) {
+
         // Primary window.
         gp.getCamera().screenCoordsToWorldCoords(primaryWindowScreenTransform.position, tempWorldTransform.position);
         gp.getCamera().screenDimensionsToWorldDimensions(primaryWindowScreenTransform.scale, tempWorldTransform.scale);
@@ -238,6 +261,10 @@ public class UiPrimaryMenuFrameSupport {
         float headerScreenY = primaryWindowScreenTopBottomAdjustment + headerScreenPrimaryWindowTopAdjustment;
         headerTextScreenCoords = new Vector2f(headerScreenX, headerScreenY);
         headerText = "???";
+
+        // Cached layer.
+        layer = new CachedLayer(primaryWindowScreenX, primaryWindowScreenY,
+                primaryWindowScreenWidth, primaryWindowScreenHeight);
     }
 
 
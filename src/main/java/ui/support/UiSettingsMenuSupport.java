@@ -4,6 +4,7 @@ import core.GamePanel;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
+import render.CachedLayer;
 import render.Renderer;
 import render.drawable.Transform;
 import render.enumeration.ZIndex;
@@ -30,6 +31,8 @@ public class UiSettingsMenuSupport {
 
     private boolean dirty = true;
 
+    private CachedLayer layer;
+
     private int systemSettingSelected;
 
     private int systemOptionSelected;
@@ -137,6 +140,9 @@ public class UiSettingsMenuSupport {
                 + footerDividerScreenTransform.scale.y + settingLabelScreenHeaderDividerBottomAdjustment;
         settingDescriptionTextScreenCoords.y = settingDescriptionTextScreenY;
 
+        // Cached layer.
+        layer.invalidate();
+
         // Dirty flag.
         dirty = false;
     }
@@ -144,12 +150,29 @@ public class UiSettingsMenuSupport {
 
     /**
      * Adds settings menu user interface components to the render pipeline.
-     * Note that the contents of the user interface components will automatically reflect their latest states.
+     * The components are drawn into a cached layer, which is only redrawn if the components have changed since they
+     * were last drawn; otherwise, the cached layer is added as-is.
      *
      * @param renderer Renderer instance
      */
     public void addToRenderPipeline(Renderer renderer) {
 
+        if (!layer.isValid()) {
+
+            renderer.redrawLayer(layer, () -> addComponentsToRenderPipeline(renderer));
+        }
+        renderer.addCachedLayer(layer, ZIndex.SECOND_LAYER);
+    }
+
+
+    /**
+     * Adds settings menu user interface components to the render pipeline individually.
+     * Note that the contents of the user interface components will automatically reflect their latest states.
+     *
+     * @param renderer Renderer instance
+     */
+    private void addComponentsToRenderPipeline(Renderer renderer) {
+
         // Setting labels and values.
         for (int i = 0; i < gp.getSystemSettingsSize(); i++) {
 
@@ -250,6 +273,7 @@ public class UiSettingsMenuSupport {
             systemOptionSelected = gp.getSystemSetting(systemSettingSelected).getActiveOption();
             systemOptionSelected = gp.getSystemSetting(systemSettingSelected).getActiveOption();
             refreshScrollArrows();
+            layer.invalidate();
         }
     }
 
@@ -266,6 +290,7 @@ public class UiSettingsMenuSupport {
             this.systemOptionSelected = systemOptionSelected;
             gp.getSystemSetting(systemSettingSelected).setActiveOption(systemOptionSelected);
             refreshScrollArrows();
+            layer.invalidate();
         }
     }
 
@@ -364,6 +389,18 @@ public class UiSettingsMenuSupport {
         float settingDescriptionTextScreenX = footerDividerScreenX;
 
         settingDescriptionTextScreenCoords = new Vector2f(settingDescriptionTextScreenX, 0.0f);                         // y-value is placeholder (will change while refreshing).
+
+        // Cached layer.
+        float layerScreenY = gp.getUiPrimaryMenuFrameS().getHeaderDividerScreenY()
+                + gp.getUiPrimaryMenuFrameS().getHeaderDividerScreenHeight();
+        float layerScreenHeight = gp.getUiPrimaryMenuFrameS().getPrimaryWindowScreenY()
+                + gp.getUiPrimaryMenuFrameS().getPrimaryWindowScreenHeight() - layerScreenY;                            // Covers the primary window below the header divider.
+        layer = new CachedLayer(gp.getUiPrimaryMenuFrameS().getPrimaryWindowScreenX(), layerScreenY,
+                gp.getUiPrimaryMenuFrameS().getPrimaryWindowScreenWidth(), layerScreenHeight);
+
+        for (int i = 0; i < gp.getSystemSettingsSize(); i++) {
+            gp.getSystemSetting(i).addListener(event -> layer.invalidate());                                            // Values may also be changed from outside the settings menu (e.g., toggling full screen).
+        }
     }
 
 
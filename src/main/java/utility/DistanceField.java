@@ -0,0 +1,158 @@
+package utility;
+
+/**
+ * This class generates signed distance fields from coverage images.
+ * A signed distance field stores, for each texel, the distance to the nearest edge of a shape, allowing the shape to
+ * be reconstructed with crisp edges at any scale.
+ */
+public class DistanceField {
+
+    /*
+     * Encoded distances are centered at 128 (the edge of the shape), with values above 128 inside the shape and values
+     * below 128 outside it.
+     * A distance equal to the spread maps to the extremes (0 or 255); anything farther is clamped.
+     */
+
+    // FIELD
+    /**
+     * Squared distance used to mark a pixel as having no nearby feature before the transform is performed.
+     */
+    private static final float INFINITY = 1e20f;
+
+
+    // METHODS
+    /**
+     * Generates an encoded signed distance field from an image of alpha coverage values.
+     * Distances are calculated at the full resolution of the source image, then averaged down by the specified
+     * downsample factor.
+     *
+     * @param alpha alpha coverage values (0 to 255) of the source image, row by row
+     * @param width width of the source image
+     * @param height height of the source image
+     * @param spread distance (in source pixels) from the edge of a shape at which encoded values saturate
+     * @param downsample factor by which to reduce the resolution of the generated distance field
+     * @return encoded distance field of width `ceil(width / downsample)` and height `ceil(height / downsample)`, row by
+     *         row
+     * @throws IllegalArgumentException if the specified spread or downsample factor is zero or negative
+     */
+    public static byte[] generate(int[] alpha, int width, int height, float spread, int downsample) {
+
+        if ((spread <= 0) || (downsample <= 0)) {
+            throw new IllegalArgumentException("Illegal spread or downsample factor: " + spread + ", " + downsample);
+        }
+        float[] toInside = new float[width * height];                                                                   // Squared distance from each pixel to the nearest pixel inside a shape.
+        float[] toOutside = new float[width * height];                                                                  // Squared distance from each pixel to the nearest pixel outside a shape.
+
+        for (int i = 0; i < alpha.length; i++) {
+
+            boolean inside = alpha[i] >= 128;
+            toInside[i] = inside ? 0 : INFINITY;
+            toOutside[i] = inside ? INFINITY : 0;
+        }
+        transform(toInside, width, height);
+        transform(toOutside, width, height);
+
+        int outputWidth = (width + downsample - 1) / downsample;
+        int outputHeight = (height + downsample - 1) / downsample;
+        byte[] output = new byte[outputWidth * outputHeight];
+
+        for (int oy = 0; oy < outputHeight; oy++) {
+            for (int ox = 0; ox < outputWidth; ox++) {
+
+                float sum = 0;
+                int count = 0;
+
+                for (int y = oy * downsample; y < Math.min((oy + 1) * downsample, height); y++) {
+                    for (int x = ox * downsample; x < Math.min((ox + 1) * downsample, width); x++) {
+
+                        int i = y * width + x;
+                        sum += (toInside[i] == 0)
+                                ? (float)Math.sqrt(toOutside[i]) - 0.5f                                                 // Inside; edge lies halfway to the nearest outside pixel.
+                                : 0.5f - (float)Math.sqrt(toInside[i]);                                                 // Outside; edge lies halfway to the nearest inside pixel.
+                        count++;
+                    }
+                }
+                float value = 128 + ((sum / count) / spread) * 127;
+                output[oy * outputWidth + ox] = (byte)Math.max(0, Math.min(255, Math.round(value)));
+            }
+        }
+        return output;
+    }
+
+
+    /**
+     * Performs an exact two-dimensional squared Euclidean distance transform in place.
+     * Each pixel with a value of zero is a feature; all other pixels receive the squared distance to the nearest
+     * feature.
+     *
+     * @param grid squared distances to transform, row by row
+     * @param width width of grid
+     * @param height height of grid
+     */
+    private static void transform(float[] grid, int width, int height) {
+
+        int length = Math.max(width, height);
+        float[] f = new float[length];
+        float[] d = new float[length];
+        int[] v = new int[length];
+        float[] z = new float[length + 1];
+
+        for (int x = 0; x < width; x++) {                                                                               // Transform along columns.
+            for (int y = 0; y < height; y++) {
+                f[y] = grid[y * width + x];
+            }
+            transform(f, d, v, z, height);
+            for (int y = 0; y < height; y++) {
+                grid[y * width + x] = d[y];
+            }
+        }
+
+        for (int y = 0; y < height; y++) {                                                                              // Transform along rows.
+            System.arraycopy(grid, y * width, f, 0, width);
+            transform(f, d, v, z, width);
+            System.arraycopy(d, 0, grid, y * width, width);
+        }
+    }
+
+
+    /**
+     * Performs an exact one-dimensional squared Euclidean distance transform by computing the lower envelope of
+     * parabolas rooted at each sample.
+     *
+     * @param f input squared distances
+     * @param d array to which output squared distances will be written
+     * @param v scratch array to store the locations of parabolas in the lower envelope
+     * @param z scratch array to store the boundaries between parabolas in the lower envelope
+     * @param n number of samples
+     */
+    private static void transform(float[] f, float[] d, int[] v, float[] z, int n) {
+
+        int k = 0;
+        v[0] = 0;
+        z[0] = -INFINITY;
+        z[1] = INFINITY;
+
+        for (int q = 1; q < n; q++) {
+
+            float s = ((f[q] + q * q) - (f[v[k]] + v[k] * v[k])) / (2 * q - 2 * v[k]);
+
+            while (s <= z[k]) {
+                k--;
+                s = ((f[q] + q * q) - (f[v[k]] + v[k] * v[k])) / (2 * q - 2 * v[k]);
+            }
+            k++;
+            v[k] = q;
+            z[k] = s;
+            z[k + 1] = INFINITY;
+        }
+        k = 0;
+
+        for (int q = 0; q < n; q++) {
+
+            while (z[k + 1] < q) {
+                k++;
+            }
+            d[q] = (q - v[k]) * (q - v[k]) + f[v[k]];
+        }
+    }
+}
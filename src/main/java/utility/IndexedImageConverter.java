@@ -0,0 +1,81 @@
+package utility;
+
+import asset.IndexedImage;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * This class is a build-time tool that converts PNG textures to indexed image files (see IndexedImage).
+ * Each indexed image file is written alongside its PNG file, where it is picked up in place of the PNG file when
+ * indexed textures are enabled in the asset pool.
+ * Textures with more colors than fit in a palette are skipped and remain direct-color.
+ * Packed spritesheets should be converted after being packed (see SpritesheetPacker), since packing rewrites them.
+ * Run with the resources directory followed by the path of each PNG file to convert (relative to the resources
+ * directory).
+ */
+public class IndexedImageConverter {
+
+    // METHODS
+    /**
+     * Converts PNG textures to indexed image files.
+     *
+     * @param args resources directory (e.g., `src/main/resources`), followed by the path of each PNG file to convert
+     * @throws IOException if a texture could not be read or written
+     * @throws IllegalArgumentException if no PNG files are specified
+     */
+    public static void main(String[] args) throws IOException {
+
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: IndexedImageConverter <resources directory> <png file>...");
+        }
+
+        for (int i = 1; i < args.length; i++) {
+
+            convert(new File(args[0], args[i]));
+        }
+    }
+
+
+    /**
+     * Converts a single PNG texture to an indexed image file.
+     *
+     * @param pngFile PNG file to convert
+     * @throws IOException if the texture could not be read or written
+     */
+    private static void convert(File pngFile) throws IOException {
+
+        BufferedImage source = ImageIO.read(pngFile);
+
+        if (source == null) {
+            throw new IOException("Failed to read PNG file '" + pngFile + "'");
+        }
+        int width = source.getWidth();
+        int height = source.getHeight();
+        IndexedImage image;
+
+        try {
+
+            image = IndexedImage.fromArgb(width, height, source.getRGB(0, 0, width, height, null, 0, width));
+
+        } catch (IllegalArgumentException e) {
+
+            UtilityTool.logWarning("Skipped converting '" + pngFile + "' to indexed image: " + e.getMessage());
+            return;
+        }
+        String pngPath = pngFile.getPath();
+        File indexedFile = new File(pngPath.substring(0, pngPath.length() - 4) + IndexedImage.FILE_EXTENSION);
+
+        try (OutputStream out = new FileOutputStream(indexedFile)) {
+
+            image.write(out);
+        }
+        UtilityTool.logInfo("Converted '" + pngFile + "' to indexed image with " + image.getPalette().length
+                + " palette entries (" + pngFile.length() + " bytes to " + indexedFile.length() + " bytes on file, "
+                + (width * height * 4) + " bytes to " + (width * height) + " bytes on GPU)");
+    }
+}
@@ -1,6 +1,8 @@
 package utility;
 
+import asset.AssetPool;
 import asset.Sound;
+import asset.Spritesheet;
 import combat.MoveBase;
 import combat.implementation.move.*;
 import dialogue.Conversation;
@@ -284,6 +286,49 @@ public class JsonParser {
     }
 
 
+    /**
+     * Loads and instantiates a packed spritesheet from its JSON descriptor (see SpritesheetPacker).
+     * The texture named by the descriptor is loaded into memory if not already loaded.
+     *
+     * @param filePath file path of descriptor from resources directory
+     * @return loaded spritesheet
+     * @throws JsonParseException if an error occurs while loading spritesheet from JSON
+     */
+    public static Spritesheet loadSpritesheetJson(String filePath) {
+
+        if (UtilityTool.VERBOSE_LOGGING) {
+
+            UtilityTool.logInfo("Loading packed spritesheet from file: '" + filePath + "'");
+        }
+        JSONParser parser = new JSONParser();
+
+        try (InputStream is = JsonParser.class.getResourceAsStream(filePath)) {
+
+            String contents = readFromInputStream(is);
+
+            JSONObject spritesheetJson = (JSONObject)parser.parse(contents);
+            JSONArray spritesJson = (JSONArray)spritesheetJson.get("sprites");
+            int[][] frames = new int[spritesJson.size()][];
+
+            for (int i = 0; i < frames.length; i++) {
+
+                JSONArray frameJson = (JSONArray)spritesJson.get(i);
+                frames[i] = new int[frameJson.size()];
+
+                for (int j = 0; j < frames[i].length; j++) {
+
+                    frames[i][j] = ((Long)frameJson.get(j)).intValue();                                                 // Numbers are parsed as long.
+                }
+            }
+            return new Spritesheet(AssetPool.getTexture((String)spritesheetJson.get("texture")), frames);
+
+        } catch (Exception e) {
+
+            throw new JsonParseException(e.getMessage());
+        }
+    }
+
+
     /**
      * Parses a map from JSON data and returns it to be added to memory.
      *
@@ -0,0 +1,174 @@
+package utility;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * This class packs rectangles into a fixed-width area using shelves (rows of rectangles sharing a height).
+ * Each rectangle is placed on the shortest existing shelf that it fits on; if none fits, a new shelf is opened below
+ * the last one.
+ * The height of the area may be increased at any time to make room for more shelves.
+ */
+public class ShelfPacker {
+
+    // FIELDS
+    /**
+     * Width of the packing area.
+     */
+    private final int width;
+
+    /**
+     * Height of the packing area.
+     */
+    private int height;
+
+    /**
+     * Y-coordinate (topmost) of each shelf.
+     */
+    private final ArrayList<Integer> shelfY = new ArrayList<>();
+
+    /**
+     * Height of each shelf.
+     * Each entry corresponds to the shelf at the same index in `shelfY`.
+     */
+    private final ArrayList<Integer> shelfHeight = new ArrayList<>();
+
+    /**
+     * X-coordinate at which the next rectangle will be placed on each shelf.
+     * Each entry corresponds to the shelf at the same index in `shelfY`.
+     */
+    private final ArrayList<Integer> shelfCursor = new ArrayList<>();
+
+    /**
+     * Y-coordinate (topmost) at which the next shelf will be opened.
+     */
+    private int nextShelfY;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs an empty ShelfPacker instance.
+     *
+     * @param width width of packing area
+     * @param height height of packing area
+     * @throws IllegalArgumentException if the specified width or height is zero or negative
+     */
+    public ShelfPacker(int width, int height) {
+        if ((width <= 0) || (height <= 0)) {
+            throw new IllegalArgumentException("Illegal packing area: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+
+    // METHODS
+    /**
+     * Packs a rectangle into this area.
+     *
+     * @param rectWidth width of rectangle
+     * @param rectHeight height of rectangle
+     * @return top-left coordinate (x, y) at which the rectangle was placed, or null if there is no room for it
+     */
+    public int[] pack(int rectWidth, int rectHeight) {
+
+        int best = -1;
+
+        for (int i = 0; i < shelfY.size(); i++) {
+
+            if ((rectHeight <= shelfHeight.get(i))
+                    && (shelfCursor.get(i) + rectWidth <= width)
+                    && ((best == -1) || (shelfHeight.get(i) < shelfHeight.get(best)))) {
+
+                best = i;
+            }
+        }
+
+        if (best == -1) {
+
+            if ((rectWidth > width) || (nextShelfY + rectHeight > height)) {
+
+                return null;
+            }
+            shelfY.add(nextShelfY);
+            shelfHeight.add(rectHeight);
+            shelfCursor.add(0);
+            nextShelfY += rectHeight;
+            best = shelfY.size() - 1;
+        }
+        int[] position = {shelfCursor.get(best), shelfY.get(best)};
+        shelfCursor.set(best, shelfCursor.get(best) + rectWidth);
+        return position;
+    }
+
+
+    /**
+     * Increases the height of this area.
+     * Rectangles already packed keep their positions.
+     *
+     * @param height new height of packing area
+     * @throws IllegalArgumentException if the specified height is less than the current height
+     */
+    public void grow(int height) {
+
+        if (height < this.height) {
+            throw new IllegalArgumentException("Cannot shrink packing area from height " + this.height + " to " + height);
+        }
+        this.height = height;
+    }
+
+
+    /**
+     * Writes the state of this packer to a stream.
+     *
+     * @param out target stream
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(DataOutputStream out) throws IOException {
+
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(nextShelfY);
+        out.writeInt(shelfY.size());
+
+        for (int i = 0; i < shelfY.size(); i++) {
+            out.writeInt(shelfY.get(i));
+            out.writeInt(shelfHeight.get(i));
+            out.writeInt(shelfCursor.get(i));
+        }
+    }
+
+
+    /**
+     * Reads the state of a packer previously written to a stream.
+     *
+     * @param in source stream
+     * @return packer
+     * @throws IOException if an I/O error occurs
+     */
+    public static ShelfPacker read(DataInputStream in) throws IOException {
+
+        ShelfPacker packer = new ShelfPacker(in.readInt(), in.readInt());
+        packer.nextShelfY = in.readInt();
+        int numShelves = in.readInt();
+
+        for (int i = 0; i < numShelves; i++) {
+            packer.shelfY.add(in.readInt());
+            packer.shelfHeight.add(in.readInt());
+            packer.shelfCursor.add(in.readInt());
+        }
+        return packer;
+    }
+
+
+    // GETTERS
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
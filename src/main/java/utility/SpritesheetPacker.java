@@ -0,0 +1,343 @@
+package utility;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * This class is a build-time tool that repacks spritesheets ahead of time.
+ * Each source spritesheet is split into sprites using its layout (as listed in `spritesheets/layouts.json`), then:
+ * fully transparent borders are trimmed from each sprite, sprites with identical remaining pixels are stored only
+ * once, and the remaining sprites are packed tightly onto a power-of-two texture.
+ * A JSON descriptor listing the packed frame of each sprite is written alongside each packed texture so that it can
+ * be loaded directly (see `JsonParser.loadSpritesheetJson()`), with no layout arithmetic needed at startup.
+ * Run with the resources directory as the only argument; output is written to `spritesheets/packed/`.
+ */
+public class SpritesheetPacker {
+
+    // FIELDS
+    /**
+     * Maximum width and height of a packed texture.
+     */
+    public static final int MAX_PAGE_SIZE = 4096;
+
+    /**
+     * Empty native padding (pixels) surrounding each sprite on a packed texture.
+     */
+    private static final int PADDING = 1;
+
+    /**
+     * Directory (relative to resources directory) containing source spritesheets and their layouts.
+     */
+    private static final String SOURCE_DIRECTORY = "spritesheets";
+
+    /**
+     * Directory (relative to resources directory) to write packed spritesheets and descriptors to.
+     */
+    private static final String OUTPUT_DIRECTORY = "spritesheets/packed";
+
+
+    // METHODS
+    /**
+     * Packs all spritesheets listed in the layouts file of a resources directory.
+     *
+     * @param args resources directory (e.g., `src/main/resources`)
+     * @throws IOException if a spritesheet or layout could not be read or written
+     * @throws IllegalArgumentException if no resources directory is specified
+     */
+    public static void main(String[] args) throws IOException {
+
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: SpritesheetPacker <resources directory>");
+        }
+        File sourceDirectory = new File(args[0], SOURCE_DIRECTORY);
+        File outputDirectory = new File(args[0], OUTPUT_DIRECTORY);
+        Files.createDirectories(outputDirectory.toPath());
+        JSONObject layoutsJson;
+
+        try {
+
+            layoutsJson = (JSONObject)new JSONParser().parse(
+                    Files.readString(new File(sourceDirectory, "layouts.json").toPath()));
+
+        } catch (Exception e) {
+
+            throw new IOException("Failed to parse spritesheet layouts: " + e.getMessage());
+        }
+
+        for (Object name : layoutsJson.keySet()) {
+
+            JSONObject layoutJson = (JSONObject)layoutsJson.get(name);
+            BufferedImage source = ImageIO.read(new File(sourceDirectory, (String)layoutJson.get("source")));
+            int[] widths = toIntArray((JSONArray)layoutJson.get("widths"));
+            int[] heights = toIntArray((JSONArray)layoutJson.get("heights"));
+            int padding = ((Long)layoutJson.get("padding")).intValue();                                                 // Numbers are parsed as long.
+            pack((String)name, source, widths, heights, padding, outputDirectory);
+        }
+    }
+
+
+    /**
+     * Packs a single spritesheet and writes its packed texture and descriptor.
+     *
+     * @param name name of spritesheet (used for output file names)
+     * @param source source spritesheet
+     * @param widths native width of each sprite in the source spritesheet, ordered left-to-right, bottom-to-top
+     * @param heights native height of each sprite in the source spritesheet, ordered left-to-right, bottom-to-top
+     * @param padding native padding (pixels) surrounding each sprite in the source spritesheet
+     * @param outputDirectory directory to write to
+     * @throws IOException if output could not be written
+     */
+    private static void pack(String name, BufferedImage source, int[] widths, int[] heights, int padding,
+                             File outputDirectory) throws IOException {
+
+        int[][] sourceFrames = locateSourceFrames(source, widths, heights, padding);
+        int[][] frames = new int[sourceFrames.length][];                                                                // {x, y, trimmed width, trimmed height, trim left, trim top, native width, native height}.
+        ArrayList<int[]> uniquePixels = new ArrayList<>();
+        ArrayList<Integer> uniqueFrames = new ArrayList<>();                                                            // Index of first sprite using each unique set of pixels.
+        HashMap<Integer, ArrayList<Integer>> uniqueByHash = new HashMap<>();
+
+        // Trim and deduplicate sprites.
+        for (int i = 0; i < sourceFrames.length; i++) {
+
+            int[] trim = trim(source, sourceFrames[i]);                                                                 // {left, top, width, height}.
+            int[] pixels = source.getRGB(sourceFrames[i][0] + trim[0], sourceFrames[i][1] + trim[1],
+                    trim[2], trim[3], null, 0, Math.max(trim[2], 1));
+            frames[i] = new int[] {0, 0, trim[2], trim[3], trim[0], trim[1], sourceFrames[i][2], sourceFrames[i][3]};
+            int hash = (31 * ((31 * trim[2]) + trim[3])) + Arrays.hashCode(pixels);
+            ArrayList<Integer> bucket = uniqueByHash.computeIfAbsent(hash, k -> new ArrayList<>());
+            int duplicateOf = -1;
+
+            for (int unique : bucket) {
+
+                int[] frame = frames[uniqueFrames.get(unique)];
+
+                if ((frame[2] == trim[2]) && (frame[3] == trim[3]) && Arrays.equals(uniquePixels.get(unique), pixels)) {
+
+                    duplicateOf = uniqueFrames.get(unique);
+                    break;
+                }
+            }
+
+            if (duplicateOf == -1) {
+
+                bucket.add(uniquePixels.size());
+                uniquePixels.add(pixels);
+                uniqueFrames.add(i);
+            } else {
+
+                frames[i][0] = duplicateOf;                                                                             // Temporarily store which sprite this duplicates; resolved after packing.
+                frames[i][1] = -1;
+            }
+        }
+
+        // Pack unique sprites (tallest first) onto the smallest power-of-two texture that fits them.
+        ArrayList<Integer> order = new ArrayList<>(uniqueFrames);
+        order.sort((a, b) -> frames[b][3] - frames[a][3]);
+        int pageWidth = 0;
+        int pageHeight = 0;
+
+        for (int width = 16; width <= MAX_PAGE_SIZE; width *= 2) {
+
+            int height = packHeight(frames, order, width);
+
+            if ((height != -1) && ((pageWidth == 0) || ((width * height) < (pageWidth * pageHeight)))) {
+
+                pageWidth = width;
+                pageHeight = height;
+            }
+        }
+
+        if (pageWidth == 0) {
+            throw new IOException("Spritesheet '" + name + "' does not fit on a " + MAX_PAGE_SIZE + "x"
+                    + MAX_PAGE_SIZE + " texture");
+        }
+        packHeight(frames, order, pageWidth);                                                                           // Repeat packing at chosen width so that stored positions match it.
+
+        // Resolve duplicates to the position of the sprite they duplicate.
+        for (int[] frame : frames) {
+
+            if (frame[1] == -1) {
+
+                int[] original = frames[frame[0]];
+                frame[0] = original[0];
+                frame[1] = original[1];
+            }
+        }
+
+        // Draw packed texture.
+        BufferedImage page = new BufferedImage(pageWidth, pageHeight, BufferedImage.TYPE_INT_ARGB);
+
+        for (int u = 0; u < uniqueFrames.size(); u++) {
+
+            int[] frame = frames[uniqueFrames.get(u)];
+
+            if ((frame[2] > 0) && (frame[3] > 0)) {
+
+                page.setRGB(frame[0], frame[1], frame[2], frame[3], uniquePixels.get(u), 0, frame[2]);
+            }
+        }
+        ImageIO.write(page, "png", new File(outputDirectory, name + ".png"));
+        writeDescriptor(name, frames, new File(outputDirectory, name + ".json"));
+        UtilityTool.logInfo("Packed spritesheet '" + name + "': " + frames.length + " sprites ("
+                + uniqueFrames.size() + " unique) from " + source.getWidth() + "x" + source.getHeight()
+                + " onto " + pageWidth + "x" + pageHeight);
+    }
+
+
+    /**
+     * Packs sprites onto a texture of a given width, storing the position of each in its frame.
+     *
+     * @param frames frame of each sprite, whose position is overwritten
+     * @param order indices of frames to pack, in packing order
+     * @param width width of texture
+     * @return smallest power-of-two height fitting all sprites, or -1 if they do not fit
+     */
+    private static int packHeight(int[][] frames, ArrayList<Integer> order, int width) {
+
+        ShelfPacker packer = new ShelfPacker(width, MAX_PAGE_SIZE);
+        int usedHeight = 0;
+
+        for (int i : order) {
+
+            if ((frames[i][2] == 0) || (frames[i][3] == 0)) {
+
+                continue;                                                                                               // Fully transparent sprite; nothing to store.
+            }
+            int[] position = packer.pack(frames[i][2] + (2 * PADDING), frames[i][3] + (2 * PADDING));
+
+            if (position == null) {
+
+                return -1;
+            }
+            frames[i][0] = position[0] + PADDING;
+            frames[i][1] = position[1] + PADDING;
+            usedHeight = Math.max(usedHeight, position[1] + frames[i][3] + (2 * PADDING));
+        }
+        return Integer.highestOneBit(Math.max(usedHeight - 1, 1)) * 2;                                                  // Smallest power of two fitting all shelves.
+    }
+
+
+    /**
+     * Locates each sprite in a source spritesheet.
+     * Sprites are read left-to-right, bottom-to-top, following the same layout rules as non-uniform spritesheets
+     * loaded at runtime (see Spritesheet).
+     *
+     * @param source source spritesheet
+     * @param widths native width of each sprite
+     * @param heights native height of each sprite
+     * @param padding native padding (pixels) surrounding each sprite
+     * @return frame of each sprite as {x, y, width, height}, with (x, y) being its top-left corner in the image
+     */
+    private static int[][] locateSourceFrames(BufferedImage source, int[] widths, int[] heights, int padding) {
+
+        int[][] frames = new int[widths.length][];
+        int currentX = padding;
+        int currentY = source.getHeight() - heights[0] - padding;
+        int spriteHeightLeftmostInRow = heights[0];
+
+        for (int i = 0; i < widths.length; i++) {
+
+            frames[i] = new int[] {currentX, currentY, widths[i], heights[i]};
+
+            if (i < (widths.length - 1)) {
+                currentX += widths[i] + (2 * padding);
+                if (((currentX + widths[i + 1]) > source.getWidth())
+                        || (heights[i + 1] > spriteHeightLeftmostInRow)) {
+                    currentX = padding;
+                    currentY -= heights[i + 1] + (2 * padding);
+                    spriteHeightLeftmostInRow = heights[i + 1];
+                }
+            }
+        }
+        return frames;
+    }
+
+
+    /**
+     * Finds the smallest rectangle within a sprite containing all of its non-transparent pixels.
+     *
+     * @param source source spritesheet
+     * @param frame frame of sprite as {x, y, width, height}
+     * @return trimmed rectangle as {left, top, width, height} relative to the frame, or all zeroes if the sprite is
+     * fully transparent
+     */
+    private static int[] trim(BufferedImage source, int[] frame) {
+
+        int left = frame[2];
+        int top = frame[3];
+        int right = -1;
+        int bottom = -1;
+
+        for (int y = 0; y < frame[3]; y++) {
+            for (int x = 0; x < frame[2]; x++) {
+                if ((source.getRGB(frame[0] + x, frame[1] + y) >>> 24) != 0) {
+                    left = Math.min(left, x);
+                    top = Math.min(top, y);
+                    right = Math.max(right, x);
+                    bottom = Math.max(bottom, y);
+                }
+            }
+        }
+
+        if (right == -1) {
+
+            return new int[] {0, 0, 0, 0};
+        }
+        return new int[] {left, top, right - left + 1, bottom - top + 1};
+    }
+
+
+    /**
+     * Writes the descriptor of a packed spritesheet.
+     *
+     * @param name name of spritesheet
+     * @param frames packed frame of each sprite
+     * @param file file to write to
+     * @throws IOException if the descriptor could not be written
+     */
+    private static void writeDescriptor(String name, int[][] frames, File file) throws IOException {
+
+        try (Writer out = new FileWriter(file)) {
+
+            out.write("{\n");
+            out.write("  \"texture\": \"/" + OUTPUT_DIRECTORY + "/" + name + ".png\",\n");
+            out.write("  \"sprites\": [\n");
+
+            for (int i = 0; i < frames.length; i++) {
+
+                out.write("    " + Arrays.toString(frames[i]) + ((i < (frames.length - 1)) ? ",\n" : "\n"));
+            }
+            out.write("  ]\n");
+            out.write("}\n");
+        }
+    }
+
+
+    /**
+     * Converts a JSON array of numbers to an integer array.
+     *
+     * @param array JSON array
+     * @return integer array
+     */
+    private static int[] toIntArray(JSONArray array) {
+
+        int[] values = new int[array.size()];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ((Long)array.get(i)).intValue();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,138 @@
+package utility;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * This class hands buffers from a single producer to a single consumer without either side ever blocking.
+ * Of the three buffers held, the producer owns one (to write to), the consumer owns one (to read from), and the third
+ * sits in the middle, holding the most recently published buffer.
+ * Publishing swaps the producer's buffer into the middle; acquiring swaps the consumer's buffer with the middle one if a
+ * newer buffer has been published since.
+ * Since each swap is a single atomic exchange, the producer and consumer never hold the same buffer at once.
+ * If the producer publishes faster than the consumer acquires, intermediate buffers are skipped and only the newest is
+ * acquired; a producer that must not skip any buffer can wait until the published buffer is no longer pending (see
+ * `isPending()`) before publishing again.
+ *
+ * @param <T> buffer type
+ */
+public class TripleBuffer<T> {
+
+    // FIELDS
+    /**
+     * Bit set on the middle buffer index when the middle buffer was published and not yet acquired.
+     */
+    private static final int FRESH_BIT = 0b100;
+
+    /**
+     * Mask to extract a buffer index from the middle buffer state.
+     */
+    private static final int INDEX_MASK = 0b011;
+
+    /**
+     * Array of the three buffers.
+     */
+    private final Object[] buffers = new Object[3];
+
+    /**
+     * Index of the middle buffer, combined with whether it is fresh (see `FRESH_BIT`).
+     */
+    private final AtomicInteger middle = new AtomicInteger(2);
+
+    /**
+     * Index of the buffer owned by the producer.
+     * This is only ever accessed by the producer.
+     */
+    private int writeIndex = 0;
+
+    /**
+     * Index of the buffer owned by the consumer.
+     * This is only ever accessed by the consumer.
+     */
+    private int readIndex = 1;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a TripleBuffer instance.
+     *
+     * @param factory supplier called three times to create each buffer
+     */
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+
+    // METHODS
+    /**
+     * Publishes the buffer currently owned by the producer, making it the newest buffer available to the consumer.
+     * The producer receives the previous middle buffer in exchange, which may still hold contents that were never
+     * acquired by the consumer.
+     * This may only be called by the producer.
+     */
+    public void publish() {
+
+        writeIndex = middle.getAndSet(writeIndex | FRESH_BIT) & INDEX_MASK;
+    }
+
+
+    /**
+     * Acquires the newest published buffer for the consumer, if one has been published since the last acquisition.
+     * The consumer's previous buffer is handed back in exchange.
+     * This may only be called by the consumer.
+     *
+     * @return whether a newer buffer was acquired (true) or the consumer kept its current buffer (false)
+     */
+    public boolean acquire() {
+
+        if ((middle.get() & FRESH_BIT) == 0) {
+
+            return false;
+        }
+        readIndex = middle.getAndSet(readIndex) & INDEX_MASK;
+        return true;
+    }
+
+
+    /**
+     * Checks whether the most recently published buffer has not yet been acquired by the consumer.
+     * If the producer only publishes while this is false, the buffer it receives in exchange has always already been
+     * acquired and handed back by the consumer.
+     * This may be called by either the producer or the consumer.
+     *
+     * @return whether a published buffer is waiting to be acquired
+     */
+    public boolean isPending() {
+
+        return (middle.get() & FRESH_BIT) != 0;
+    }
+
+
+    // GETTERS
+    /**
+     * Retrieves the buffer currently owned by the producer.
+     * This may only be called by the producer.
+     *
+     * @return buffer to write to
+     */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+
+        return (T)buffers[writeIndex];
+    }
+
+
+    /**
+     * Retrieves the buffer currently owned by the consumer.
+     * This may only be called by the consumer.
+     *
+     * @return buffer to read from
+     */
+    @SuppressWarnings("unchecked")
+    public T getReadBuffer() {
+
+        return (T)buffers[readIndex];
+    }
+}
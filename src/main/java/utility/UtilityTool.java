@@ -276,6 +276,27 @@ public class UtilityTool {
     }
 
 
+    /**
+     * Linearly interpolates between a position at the start and end of an update tick.
+     * If the position jumped further than the maximum distance over the tick (e.g., due to a warp), interpolating would
+     * sweep it through everything in between, so the end position is returned as-is instead.
+     *
+     * @param previous position at the start of the tick
+     * @param current position at the end of the tick
+     * @param alpha fraction of the tick to interpolate across, from zero (start) to one (end)
+     * @param maxDistance maximum distance that will be interpolated across
+     * @return interpolated position
+     */
+    public static float interpolate(float previous, float current, float alpha, float maxDistance) {
+
+        if (Math.abs(current - previous) > maxDistance) {
+
+            return current;
+        }
+        return previous + ((current - previous) * alpha);
+    }
+
+
     /**
      * Extracts a keyset from a map.
      *
@@ -1,22 +1,29 @@
 #type vertex
 #version 410 core
-layout (location=0) in vec3 aPos;                            // Position attribute.
-layout (location=1) in vec4 aColor;                          // Color attribute.
-layout (location=2) in vec2 aTexCoords;                      // Texture position attribute.
-layout (location=3) in float aTexId;                         // Texture ID attribute.
-
-uniform mat4 uProjection;
-uniform mat4 uView;
+layout (location=0) in vec2 aCorner;                         // Unit quad corner attribute (per vertex).
+layout (location=1) in vec2 aPos;                            // Position attribute (per instance).
+layout (location=2) in vec2 aScale;                          // Scale attribute (per instance).
+layout (location=3) in vec4 aTexRect;                        // Texture rectangle attribute (left, bottom, right, top; per instance).
+layout (location=4) in vec4 aColor;                          // Color attribute (per instance).
+layout (location=5) in uint aTexId;                          // Texture ID attribute (per instance).
+layout (location=7) in uint aPalette;                        // Palette attribute (0 for direct color; per instance).
+
+layout (std140) uniform Camera {
+    mat4 uProjection;
+    mat4 uView;
+};
 
 out vec4 fColor;                                             // Going to fragment shader.
 out vec2 fTexCoords;
-out float fTexId;
+flat out uint fTexId;
+flat out uint fPalette;
 
 void main() {
     fColor = aColor;                                         // Pass color to fragment shader.
-    fTexCoords = aTexCoords;
+    fTexCoords = mix(aTexRect.xy, aTexRect.zw, aCorner);     // Select texture coordinates of this corner from the texture rectangle.
     fTexId = aTexId;
-    gl_Position = uProjection * uView * vec4(aPos, 1.0);     // Create a vec4 using aPos as first three elements, 1.0 as fourth.
+    fPalette = aPalette;
+    gl_Position = uProjection * uView * vec4(aPos + (aCorner * aScale), 0.0, 1.0);
 }
 
 #type fragment
@@ -24,16 +31,22 @@ void main() {
 
 in vec4 fColor;                                              // Need an in for vec4 color.
 in vec2 fTexCoords;
-in float fTexId;
+flat in uint fTexId;
+flat in uint fPalette;
 
-uniform sampler2D uTextures[8];                              // Limit to eight textures to sample from at once.
+uniform sampler2D uTextures[7];                              // Limit to seven texture slots so that palettes still fit in eight units.
+uniform sampler2D uPalettes;                                 // One palette per row, resolving indexed textures.
 
 out vec4 color;                                              // Tells output color.
 
 void main() {
-    if (fTexId > 0) {
+    if (fTexId > 0u) {
         int id = int(fTexId);
-        color = fColor * texture(uTextures[id], fTexCoords);
+        vec4 texel = texture(uTextures[id], fTexCoords);
+        if (fPalette > 0u) {
+            texel = texelFetch(uPalettes, ivec2(int(texel.r * 255.0 + 0.5), int(fPalette) - 1), 0);  // Texel holds a palette index.
+        }
+        color = fColor * texel;
     } else {
         color = fColor;
     }
@@ -1,31 +1,58 @@
 #type vertex
 #version 410 core
 layout (location=0) in vec2 aPos;
-layout (location=1) in vec3 aColor;
+layout (location=1) in vec4 aColor;
 layout (location=2) in vec2 aTexCoords;
+layout (location=3) in uint aFlags;                          // Glyph flags (bit 0 set to draw a drop shadow).
 
-out vec3 fColor;
+out vec2 fPos;
+out vec4 fColor;
 out vec2 fTexCoords;
+flat out uint fFlags;
 
-uniform mat4 uProjection;
-uniform mat4 uView;
+layout (std140) uniform Camera {
+    mat4 uProjection;
+    mat4 uView;
+};
 
 void main() {
+    fPos = aPos;
     fTexCoords = aTexCoords;
     fColor = aColor;
+    fFlags = aFlags;
     gl_Position = uProjection * uView * vec4(aPos, -5, 1);
 }
 
 #type fragment
 #version 410 core
 
-in vec3 fColor;
+in vec2 fPos;
+in vec4 fColor;
 in vec2 fTexCoords;
+flat in uint fFlags;
 
 uniform sampler2D uFontTexture;
+uniform vec2 uShadowOffset;                                  // Drop shadow offset (world units).
+uniform vec2 uAtlasMaxSize;                                  // Size (texels) of atlas against which texture coordinates are normalized.
 
 out vec4 color;
 
+float coverage(vec2 texCoords, float width) {
+    float distance = texture(uFontTexture, texCoords).r;     // Signed distance field; 0.5 lies on the edge of the glyph.
+    return smoothstep(0.5 - width, 0.5 + width, distance);
+}
+
 void main() {
-    color = vec4(fColor, 1) * texture(uFontTexture, fTexCoords); // Include 1 since alpha value wasn't manually provided.
+    vec2 texCoords = fTexCoords * (uAtlasMaxSize / vec2(textureSize(uFontTexture, 0)));  // Rescale to current size of atlas, which may still be growing.
+    float width = fwidth(texture(uFontTexture, texCoords).r);  // Smooth over roughly one screen pixel, regardless of scale.
+    vec2 texCoordsPerWorld = vec2(dFdx(texCoords.x) / dFdx(fPos.x), dFdy(texCoords.y) / dFdy(fPos.y));
+    float fill = coverage(texCoords, width);
+
+    if ((fFlags & 1u) != 0u) {
+        float shadow = coverage(texCoords - (uShadowOffset * texCoordsPerWorld), width);
+        float alpha = fill + (shadow * (1.0 - fill));        // Composite fill over black shadow.
+        color = vec4(fColor.rgb * (fill / max(alpha, 0.0001)), fColor.a * alpha);
+    } else {
+        color = vec4(fColor.rgb, fColor.a * fill);
+    }
 }
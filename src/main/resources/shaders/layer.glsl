@@ -0,0 +1,25 @@
+#type vertex
+#version 410 core
+
+uniform vec4 uBounds;                                        // Edges of layer in normalized device coordinates (left, bottom, right, top).
+
+out vec2 fTexCoords;                                         // Going to fragment shader.
+
+void main() {
+    vec2 corner = vec2(float(gl_VertexID & 1), float(gl_VertexID >> 1));  // Quad corner of a four-vertex triangle strip (no vertex buffer).
+    fTexCoords = corner;
+    gl_Position = vec4(mix(uBounds.xy, uBounds.zw, corner), 0.0, 1.0);  // Cover the region of the layer.
+}
+
+#type fragment
+#version 410 core
+
+in vec2 fTexCoords;
+
+uniform sampler2D uLayer;                                    // Cached layer contents (premultiplied alpha).
+
+out vec4 color;
+
+void main() {
+    color = texture(uLayer, fTexCoords);
+}
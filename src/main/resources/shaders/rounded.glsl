@@ -1,22 +1,36 @@
 #type vertex
 #version 410 core
-layout (location=0) in vec3 aPos;                                                                                       // Position attribute from vertex array.
-layout (location=1) in vec4 aColor;                                                                                     // Color attribute from vertex array.
-layout (location=2) in vec2 aTexCoords;                                                                                 // Texture position attribute from vertex array.
-layout (location=3) in float aTexId;                                                                                    // Texture ID attribute from vertex array.
-
-uniform mat4 uProjection;
-uniform mat4 uView;
+layout (location=0) in vec2 aCorner;                                                                                    // Unit quad corner attribute (per vertex).
+layout (location=1) in vec2 aPos;                                                                                       // Position attribute (per instance).
+layout (location=2) in vec2 aScale;                                                                                     // Scale attribute (per instance).
+layout (location=3) in vec4 aTexRect;                                                                                   // Texture rectangle attribute (left, bottom, right, top; per instance).
+layout (location=4) in vec4 aColor;                                                                                     // Color attribute (per instance).
+layout (location=5) in uint aTexId;                                                                                     // Texture ID attribute (per instance).
+layout (location=6) in float aRadius;                                                                                   // Corner radius attribute (fixed point with four fractional bits; per instance).
+layout (location=7) in uint aPalette;                                                                                   // Palette attribute (0 for direct color; per instance).
+
+layout (std140) uniform Camera {
+    mat4 uProjection;
+    mat4 uView;
+};
 
 out vec4 fColor;                                                                                                        // Send out to fragment shader.
 out vec2 fTexCoords;                                                                                                    // ^^^
-out float fTexId;                                                                                                       // ^^^
+out vec2 fCoords;                                                                                                       // ^^^
+flat out uint fTexId;                                                                                                   // ^^^
+flat out vec2 fDimensions;                                                                                              // ^^^
+flat out float fRadius;                                                                                                 // ^^^
+flat out uint fPalette;                                                                                                 // ^^^
 
 void main() {
     fColor = aColor;                                                                                                    // Pass color to fragment shader.
-    fTexCoords = aTexCoords;                                                                                            // Pass texture coordinates to fragment shader.
+    fTexCoords = mix(aTexRect.xy, aTexRect.zw, aCorner);                                                                // Select texture coordinates of this corner from the texture rectangle.
+    fCoords = aCorner * aScale;                                                                                         // Position of this corner within the rectangle (top-left is (0, 0)).
     fTexId = aTexId;                                                                                                    // Pass texture ID to fragment shader.
-    gl_Position = uProjection * uView * vec4(aPos, 1.0);                                                                // Create a vec4 using aPos as first three elements, 1.0 as fourth.
+    fDimensions = aScale;                                                                                               // Pass dimensions of rectangle to fragment shader.
+    fRadius = aRadius / 16.0;                                                                                           // Convert corner radius from fixed point.
+    fPalette = aPalette;                                                                                                // Pass palette to fragment shader.
+    gl_Position = uProjection * uView * vec4(aPos + fCoords, 0.0, 1.0);
 }
 
 #type fragment
@@ -24,24 +38,27 @@ void main() {
 
 in vec4 fColor;                                                                                                         // Take in from vertex shader.
 in vec2 fTexCoords;                                                                                                     // ^^^
-in float fTexId;                                                                                                        // ^^^
+in vec2 fCoords;                                                                                                        // ^^^
+flat in uint fTexId;                                                                                                    // ^^^
+flat in vec2 fDimensions;                                                                                               // Dimensions (width, height) of rectangle to render.
+flat in float fRadius;                                                                                                  // Radius of each rounded corner (same scale as fDimensions).
+flat in uint fPalette;                                                                                                  // Palette of indexed texture (0 for direct color).
 
-uniform sampler2D uTextures[8];                                                                                         // Limit to eight textures to sample from at once.
-uniform vec2 uDimensions;                                                                                               // Dimensions (width, height) of rectangle to render.
-uniform float uRadius;                                                                                                  // Radius of each rounded corner (same scale as uDimensions).
+uniform sampler2D uTextures[7];                                                                                         // Limit to seven texture slots so that palettes still fit in eight units.
+uniform sampler2D uPalettes;                                                                                            // One palette per row, resolving indexed textures.
 
 out vec4 color;                                                                                                         // Tells output color.
 
 void main() {
 
     // The fragment shader tells the GPU how to render a pixel.
-    // Below, we check each coordinate with the texture coordinate range.
+    // Below, we check the position of each pixel within the rectangle.
     // That is what the variable coords is below.
-    // We multiply fTexCoords by uDimensions to convert fTexCoords from a 0-1 range to a 0-width and 0-height range,
-    // where width and height are the dimensions of the rectangle to render.
+    // The vertex shader multiplies the unit quad corner by fDimensions to convert it from a 0-1 range to a 0-width and
+    // 0-height range, where width and height are the dimensions of the rectangle to render.
     //
-    // Texture coordinates range from 0 to 1 in both the x- and y-directions.
-    // The following are the texture coordinates at the four corners of a quad:
+    // Unit quad corners range from 0 to 1 in both the x- and y-directions.
+    // The following are the unit quad corners at the four corners of a quad:
     // (0, 0)    (1, 0)
     // (0, 1)    (1, 1)
     //
@@ -52,52 +69,55 @@ void main() {
     // Essentially, the method to round corners is the following steps:
     // 1) Calculate the center of the four circles that form the rounded corners.
     // 2) Check if the current coordinate being processed is within the square formed by a quad's corner (ex. (0, 0))
-    //    and it's respective circle center (ex. (uRadius, uRadius)).
+    //    and it's respective circle center (ex. (fRadius, fRadius)).
     // 3) If the current coordinate being analyzed is within the square, see if its distance from the respective
-    //    circle's center is greater than the circle's radius (i.e., uRadius).
+    //    circle's center is greater than the circle's radius (i.e., fRadius).
     // 4) If the aformentioned distance is greater, discard the pixel (i.e., don't do anything with it).
     //
-    // As an aside, note that we don't necessarily need an uploaded texture to use texture coordinates.
-    // Texture coordinate just describe points within the quad.
+    // Since these are independent of texture coordinates, textured rectangles are rounded in the same way.
 
     // Calculate center of each circle that forms the rounded edges.
-    vec2 center00 = vec2(uRadius, uRadius);                                                                             // Circle for rounded corner closest to texture coordinate (0, 0).
-    vec2 center10 = vec2(uDimensions.x - uRadius, uRadius);                                                             // Circle for rounded corner closest to texture coordinate (1, 0).
-    vec2 center01 = vec2(uRadius, uDimensions.y - uRadius);                                                             // Circle for rounded corner closest to texture coordinate (0, 1).
-    vec2 center11 = vec2(uDimensions.x - uRadius, uDimensions.y - uRadius);                                             // Circle for rounded corner closest to texture coordinate (1, 1).
+    vec2 center00 = vec2(fRadius, fRadius);                                                                             // Circle for rounded corner closest to corner (0, 0).
+    vec2 center10 = vec2(fDimensions.x - fRadius, fRadius);                                                             // Circle for rounded corner closest to corner (1, 0).
+    vec2 center01 = vec2(fRadius, fDimensions.y - fRadius);                                                             // Circle for rounded corner closest to corner (0, 1).
+    vec2 center11 = vec2(fDimensions.x - fRadius, fDimensions.y - fRadius);                                             // Circle for rounded corner closest to corner (1, 1).
 
     // Calculate coordinate of current pixel being processed by fragment shader.
-    vec2 coords = fTexCoords * uDimensions;
+    vec2 coords = fCoords;
 
     // Calculate whether a pixel is outside of a rounded edge.
     if ((coords.x < center00.x) && (coords.y < center00.y)) {                                                           // If current pixel is near (0, 0).
-        if (length(coords - center00) > uRadius) {                                                                      // Vector length from coordinate of current pixel to circle center.
+        if (length(coords - center00) > fRadius) {                                                                      // Vector length from coordinate of current pixel to circle center.
             discard;                                                                                                    // Discard pixel (don't render it in this quad).
         }
     }
 
     if ((coords.x > center10.x) && (coords.y < center10.y)) {                                                           // If current pixel is near (1, 0).
-        if (length(coords - center10) > uRadius) {
+        if (length(coords - center10) > fRadius) {
             discard;
         }
     }
 
     if ((coords.x < center01.x) && (coords.y > center01.y)) {                                                           // If current pixel is near (0, 1).
-        if (length(coords - center01) > uRadius) {
+        if (length(coords - center01) > fRadius) {
             discard;
         }
     }
 
     if ((coords.x > center11.x) && (coords.y > center11.y)) {                                                           // If current pixel is near (1, 1).
-        if (length(coords - center11) > uRadius) {
+        if (length(coords - center11) > fRadius) {
             discard;
         }
     }
 
     // If the current pixel has not been discarded, decide what color to render it as.
-    if (fTexId > 0) {
+    if (fTexId > 0u) {
         int id = int(fTexId);
-        color = fColor * texture(uTextures[id], fTexCoords);
+        vec4 texel = texture(uTextures[id], fTexCoords);
+        if (fPalette > 0u) {
+            texel = texelFetch(uPalettes, ivec2(int(texel.r * 255.0 + 0.5), int(fPalette) - 1), 0);                     // Texel holds a palette index.
+        }
+        color = fColor * texel;
     } else {
         color = fColor;
     }
@@ -0,0 +1,81 @@
+#type vertex
+#version 410 core
+
+layout (std140) uniform Camera {
+    mat4 uProjection;
+    mat4 uView;
+};
+
+uniform vec4 uViewRect;                                      // Visible world area (x, y, width, height).
+
+out vec2 fWorldPos;                                          // Going to fragment shader.
+
+void main() {
+    vec2 corner = vec2(float(gl_VertexID & 1), float(gl_VertexID >> 1));  // Quad corner of a four-vertex triangle strip (no vertex buffer).
+    fWorldPos = uViewRect.xy + (corner * uViewRect.zw);
+    gl_Position = uProjection * uView * vec4(fWorldPos, 0.0, 1.0);
+}
+
+#type fragment
+#version 410 core
+
+in vec2 fWorldPos;
+
+uniform sampler2D uAtlas;                                    // Texture containing all tile sprites.
+uniform usampler2D uTileIndices;                             // Tile number at each world column and row.
+uniform usampler2D uTileLookup;                              // Per tile number: (animation group + 1, frame count), then one texture rectangle per frame.
+uniform sampler2D uClipSegments;                             // Per animation group: (period, segment count), then (end time, frame) per segment.
+uniform sampler2D uClipPhases;                               // Per animation group: start time over one repeating pattern of tiles.
+uniform float uTileSize;                                     // Width and height of a tile (world units).
+uniform int uPatternSize;                                    // Number of tiles along each side of a repeating animation pattern.
+uniform float uTime;                                         // Time elapsed since passive animations started (seconds).
+uniform sampler2D uPalettes;                                 // One palette per row, resolving indexed textures.
+uniform int uAtlasPalette;                                   // Palette of tile sprites (0 if the atlas stores colors directly).
+
+out vec4 color;
+
+int clipFrame(int group, ivec2 tile) {
+    vec2 header = texelFetch(uClipSegments, ivec2(0, group), 0).rg;
+    float phase = texelFetch(uClipPhases, ivec2(tile.x % uPatternSize, (tile.y % uPatternSize) + (group * uPatternSize)), 0).r;
+    float t = mod(uTime - phase, header.x);
+    int numSegments = int(header.y);
+    vec2 segment = vec2(0.0);
+
+    for (int i = 0; i < numSegments; i++) {
+        segment = texelFetch(uClipSegments, ivec2(1 + i, group), 0).rg;
+        if (t <= segment.x) {
+            break;                                           // Segments are stored in ascending order of end time.
+        }
+    }
+    return int(segment.y);
+}
+
+void main() {
+    ivec2 tile = ivec2(floor(fWorldPos / uTileSize));
+
+    if (any(lessThan(tile, ivec2(0))) || any(greaterThanEqual(tile, textureSize(uTileIndices, 0)))) {
+        discard;                                             // Outside of the loaded map.
+    }
+    int tileNum = int(texelFetch(uTileIndices, tile, 0).r);
+
+    if (tileNum >= textureSize(uTileLookup, 0).y) {
+        discard;                                             // Tile does not exist.
+    }
+    uvec4 header = texelFetch(uTileLookup, ivec2(0, tileNum), 0);
+    int frame = 0;
+
+    if (header.x > 0u) {
+        frame = clipFrame(int(header.x - 1u), tile);
+    }
+
+    if (frame >= int(header.y)) {
+        discard;                                             // Tile has no sprite for this frame.
+    }
+    vec4 rect = vec4(texelFetch(uTileLookup, ivec2(1 + frame, tileNum), 0)) / 65535.0;  // Texture rectangle (left, bottom, right, top).
+    vec2 texCoords = mix(rect.xy, rect.zw, fract(fWorldPos / uTileSize));
+    color = textureLod(uAtlas, texCoords, 0.0);              // Explicit level of detail, since texture coordinates jump between tiles.
+
+    if (uAtlasPalette > 0) {
+        color = texelFetch(uPalettes, ivec2(int(color.r * 255.0 + 0.5), uAtlasPalette - 1), 0);  // Texel holds a palette index.
+    }
+}
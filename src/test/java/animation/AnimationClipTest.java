@@ -0,0 +1,57 @@
+package animation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnimationClipTest {
+
+    @Test
+    void shouldSelectFrameBySegmentEndTime() {
+
+        AnimationClip target = new AnimationClip(4.0)
+                .addSegment(1.0, 0)
+                .addSegment(2.0, 1)
+                .addSegment(4.0, 2);
+
+        assertEquals(0, target.getFrame(0.5, 0, 0));
+        assertEquals(1, target.getFrame(1.5, 0, 0));
+        assertEquals(2, target.getFrame(3.5, 0, 0));
+    }
+
+
+    @Test
+    void shouldLoopOverPeriod() {
+
+        AnimationClip target = new AnimationClip(2.0)
+                .addSegment(1.0, 0)
+                .addSegment(2.0, 1);
+
+        assertEquals(0, target.getFrame(4.5, 3, 7));
+        assertEquals(1, target.getFrame(5.5, 3, 7));
+    }
+
+
+    @Test
+    void shouldApplyPhaseOffsetRepeatingOverPattern() {
+
+        double[][] phaseOffsets = new double[AnimationClip.PATTERN_SIZE][AnimationClip.PATTERN_SIZE];
+        phaseOffsets[1][2] = 1.5;
+        AnimationClip target = new AnimationClip(2.0, phaseOffsets)
+                .addSegment(1.0, 0)
+                .addSegment(2.0, 1);
+
+        assertEquals(0, target.getFrame(0.75, 0, 0));
+        assertEquals(1, target.getFrame(0.75, 1, 2));
+        assertEquals(1, target.getFrame(0.75, 11, 12));
+    }
+
+
+    @Test
+    void shouldRejectSegmentsOutOfOrder() {
+
+        AnimationClip target = new AnimationClip(2.0).addSegment(1.0, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> target.addSegment(0.5, 1));
+    }
+}
@@ -0,0 +1,54 @@
+package asset;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedImageTest {
+
+    @Test
+    void shouldMapAllTransparentPixelsToReservedIndex() {
+
+        int[] argb = {0x00FF0000, 0xFF00FF00, 0x0000FF00, 0xFF00FF00};
+
+        IndexedImage target = IndexedImage.fromArgb(2, 2, argb);
+
+        assertArrayEquals(new byte[] {0, 1, 0, 1}, target.getIndices());
+        assertArrayEquals(new int[] {0, 0xFF00FF00}, target.getPalette());
+    }
+
+
+    @Test
+    void shouldRoundTripThroughStream() throws IOException {
+
+        int[] argb = {0xFF102030, 0x80405060, 0x00000000, 0xFF102030, 0xFFFFFFFF, 0x80405060};
+        IndexedImage original = IndexedImage.fromArgb(3, 2, argb);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        original.write(out);
+        IndexedImage target = IndexedImage.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(3, target.getWidth());
+        assertEquals(2, target.getHeight());
+        assertEquals(0x80405060, target.getArgb(1, 0));
+        assertEquals(0xFFFFFFFF, target.getArgb(1, 1));
+        assertEquals(0, target.getArgb(2, 0));
+    }
+
+
+    @Test
+    void shouldRejectImagesWithTooManyColors() {
+
+        int[] argb = new int[IndexedImage.MAX_PALETTE_SIZE];
+
+        for (int i = 0; i < argb.length; i++) {
+            argb[i] = 0xFF000000 | i;
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> IndexedImage.fromArgb(argb.length, 1, argb));
+    }
+}
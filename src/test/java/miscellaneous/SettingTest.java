@@ -0,0 +1,49 @@
+package miscellaneous;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettingTest {
+
+    @Test
+    void shouldNotifyListenersOnlyWhenValueChanges() {
+
+        Setting target = new Setting("Label", "Description");
+        target.addOption("Disabled");
+        target.addOption("Enabled");
+        ArrayList<SettingChangeEvent> events = new ArrayList<>();
+        target.addListener(events::add);
+
+        target.setActiveOption(1);
+        target.setActiveOption(1);
+        target.setActiveOption(0);
+
+        assertEquals(2, events.size());
+        assertEquals(0, events.get(0).getPreviousValue());
+        assertTrue(events.get(0).isEnabled());
+        assertFalse(events.get(1).isEnabled());
+        assertSame(target, events.get(1).getSetting());
+    }
+
+
+    @Test
+    void shouldNotNotifyListenersWhenOptionsAreRepopulatedWithSameActiveValue() {
+
+        Setting target = new Setting("Label", "Description");
+        target.addOption("60", 60);
+        target.setActiveOption(0);
+        ArrayList<SettingChangeEvent> events = new ArrayList<>();
+        target.addListener(events::add);
+
+        target.removeAllOptions();
+        target.addOption("30", 30);
+        target.addOption("60", 60);
+        target.setActiveOption(1);
+
+        assertEquals(0, events.size());
+        assertEquals(60, target.getActiveValue());
+    }
+}
@@ -0,0 +1,88 @@
+package render;
+
+import org.junit.jupiter.api.Test;
+import render.enumeration.RenderPipeline;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderCommandQueueTest {
+
+    @Test
+    void shouldSortCommandsByLayerThenPipeline() {
+
+        RenderCommandQueue target = new RenderCommandQueue(4);
+
+        target.push(2, RenderPipeline.BATCH, 0, "Third");
+        target.push(0, RenderPipeline.TEXT, 0, "Second");
+        target.push(0, RenderPipeline.ROUNDED, 0, "First");
+        target.sort();
+
+        assertEquals(3, target.size());
+        assertEquals("First", target.getPayload(0));
+        assertEquals("Second", target.getPayload(1));
+        assertEquals("Third", target.getPayload(2));
+    }
+
+
+    @Test
+    void shouldPreserveSubmissionOrderForEqualState() {
+
+        RenderCommandQueue target = new RenderCommandQueue(4);
+
+        target.push(1, RenderPipeline.BATCH, 0, "First");
+        target.push(1, RenderPipeline.BATCH, 0, "Second");
+        target.push(1, RenderPipeline.BATCH, 0, "Third");
+        target.sort();
+
+        assertEquals("First", target.getPayload(0));
+        assertEquals("Second", target.getPayload(1));
+        assertEquals("Third", target.getPayload(2));
+    }
+
+
+    @Test
+    void shouldGroupCommandsByStateWithinPipeline() {
+
+        RenderCommandQueue target = new RenderCommandQueue(4);
+
+        target.push(0, RenderPipeline.TEXT, 1, "Bold first");
+        target.push(0, RenderPipeline.TEXT, 0, "Normal first");
+        target.push(0, RenderPipeline.TEXT, 1, "Bold second");
+        target.sort();
+
+        assertEquals("Normal first", target.getPayload(0));
+        assertEquals("Bold first", target.getPayload(1));
+        assertEquals("Bold second", target.getPayload(2));
+        assertFalse(target.isCompatible(0, 1));
+        assertTrue(target.isCompatible(1, 2));
+        assertEquals(1, target.getState(2));
+    }
+
+
+    @Test
+    void shouldGrowBeyondInitialCapacity() {
+
+        RenderCommandQueue target = new RenderCommandQueue(1);
+
+        for (int i = 0; i < 200; i++) {
+            target.push(199 - i, RenderPipeline.BATCH, 0, i);
+        }
+        target.sort();
+
+        assertEquals(200, target.size());
+        assertEquals(199, target.getPayload(0));
+        assertEquals(0, target.getPayload(199));
+    }
+
+
+    @Test
+    void shouldRemoveAllCommandsWhenCleared() {
+
+        RenderCommandQueue target = new RenderCommandQueue(4);
+
+        target.push(0, RenderPipeline.BATCH, 0, "First");
+        target.clear();
+
+        assertEquals(0, target.size());
+    }
+}
@@ -0,0 +1,83 @@
+package utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceFieldTest {
+
+    @Test
+    void shouldEncodeInsideAboveAndOutsideBelowEdge() {
+
+        int[] alpha = square(16, 4, 12);
+
+        byte[] target = DistanceField.generate(alpha, 16, 16, 4, 1);
+
+        assertTrue((target[8 * 16 + 8] & 0xFF) > 128);
+        assertTrue((target[0] & 0xFF) < 128);
+    }
+
+
+    @Test
+    void shouldSaturateBeyondSpread() {
+
+        int[] alpha = square(32, 12, 20);
+
+        byte[] target = DistanceField.generate(alpha, 32, 32, 2, 1);
+
+        assertEquals(255, target[16 * 32 + 16] & 0xFF);
+        assertEquals(0, target[0] & 0xFF);
+    }
+
+
+    @Test
+    void shouldPlaceEdgeHalfwayBetweenInsideAndOutsidePixels() {
+
+        int[] alpha = square(16, 4, 12);
+
+        byte[] target = DistanceField.generate(alpha, 16, 16, 4, 1);
+        int inside = target[8 * 16 + 4] & 0xFF;
+        int outside = target[8 * 16 + 3] & 0xFF;
+
+        assertEquals(256, inside + outside);
+    }
+
+
+    @Test
+    void shouldRoundUpDimensionsWhenDownsampling() {
+
+        int[] alpha = square(10, 2, 8);
+
+        byte[] target = DistanceField.generate(alpha, 10, 10, 4, 4);
+
+        assertEquals(9, target.length);
+    }
+
+
+    @Test
+    void shouldThrowExceptionForNonPositiveDownsample() {
+
+        assertThrows(IllegalArgumentException.class, () -> DistanceField.generate(new int[1], 1, 1, 4, 0));
+    }
+
+
+    /**
+     * Generates an image of the specified size containing a filled square.
+     *
+     * @param size width and height of image
+     * @param min first pixel (inclusive) of square along each axis
+     * @param max last pixel (exclusive) of square along each axis
+     * @return alpha coverage values
+     */
+    private int[] square(int size, int min, int max) {
+
+        int[] alpha = new int[size * size];
+
+        for (int y = min; y < max; y++) {
+            for (int x = min; x < max; x++) {
+                alpha[y * size + x] = 255;
+            }
+        }
+        return alpha;
+    }
+}
@@ -0,0 +1,80 @@
+package utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShelfPackerTest {
+
+    @Test
+    void shouldPlaceRectanglesSideBySideOnOneShelf() {
+
+        ShelfPacker target = new ShelfPacker(16, 16);
+
+        int[] first = target.pack(4, 4);
+        int[] second = target.pack(4, 4);
+
+        assertArrayEquals(new int[] {0, 0}, first);
+        assertArrayEquals(new int[] {4, 0}, second);
+    }
+
+
+    @Test
+    void shouldOpenNewShelfWhenRowIsFull() {
+
+        ShelfPacker target = new ShelfPacker(8, 16);
+
+        target.pack(6, 4);
+        int[] second = target.pack(4, 4);
+
+        assertArrayEquals(new int[] {0, 4}, second);
+    }
+
+
+    @Test
+    void shouldPreferShortestShelfThatFits() {
+
+        ShelfPacker target = new ShelfPacker(8, 32);
+
+        target.pack(8, 8);
+        target.pack(4, 4);
+        target.pack(4, 8);
+        int[] fourth = target.pack(4, 3);
+
+        assertArrayEquals(new int[] {4, 8}, fourth);
+    }
+
+
+    @Test
+    void shouldReturnNullWhenOutOfRoomUntilGrown() {
+
+        ShelfPacker target = new ShelfPacker(8, 8);
+
+        target.pack(8, 8);
+        assertNull(target.pack(4, 4));
+
+        target.grow(16);
+        assertArrayEquals(new int[] {0, 8}, target.pack(4, 4));
+    }
+
+
+    @Test
+    void shouldRestoreStateWrittenToStream() throws IOException {
+
+        ShelfPacker original = new ShelfPacker(16, 16);
+        original.pack(4, 4);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        original.write(new DataOutputStream(bytes));
+
+        ShelfPacker target = ShelfPacker.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(16, target.getHeight());
+        assertArrayEquals(new int[] {4, 0}, target.pack(4, 4));
+    }
+}
@@ -0,0 +1,67 @@
+package utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TripleBufferTest {
+
+    @Test
+    void shouldNotAcquireBeforeAnythingIsPublished() {
+
+        TripleBuffer<int[]> target = new TripleBuffer<>(() -> new int[1]);
+
+        assertFalse(target.acquire());
+    }
+
+
+    @Test
+    void shouldAcquireOnlyNewestPublishedBuffer() {
+
+        TripleBuffer<int[]> target = new TripleBuffer<>(() -> new int[1]);
+
+        target.getWriteBuffer()[0] = 1;
+        target.publish();
+        target.getWriteBuffer()[0] = 2;
+        target.publish();
+
+        assertTrue(target.acquire());
+        assertEquals(2, target.getReadBuffer()[0]);
+        assertFalse(target.acquire());
+        assertEquals(2, target.getReadBuffer()[0]);
+    }
+
+
+    @Test
+    void shouldReportPublishedBufferPendingUntilAcquired() {
+
+        TripleBuffer<int[]> target = new TripleBuffer<>(() -> new int[1]);
+
+        assertFalse(target.isPending());
+        target.publish();
+        assertTrue(target.isPending());
+        target.acquire();
+        assertFalse(target.isPending());
+    }
+
+
+    @Test
+    void shouldNeverHandSameBufferToProducerAndConsumer() {
+
+        AtomicInteger created = new AtomicInteger();
+        TripleBuffer<int[]> target = new TripleBuffer<>(() -> new int[] {created.getAndIncrement()});
+
+        for (int i = 0; i < 10; i++) {
+
+            target.publish();
+
+            if ((i % 3) != 0) {
+                target.acquire();
+            }
+            assertNotSame(target.getWriteBuffer(), target.getReadBuffer());
+        }
+        assertEquals(3, created.get());
+    }
+}